@@ -0,0 +1,203 @@
+package controller;
+
+import model.City;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Agendador que simula várias cidades salvas ao mesmo tempo, uma por virtual thread.
+ *
+ * <p>Cada cidade é carregada, simulada e (opcionalmente) salva na sua própria virtual
+ * thread, com um {@link JogoController} exclusivo. Como o JogoController cria seus
+ * próprios EventController, RoboController e PredioController, nenhuma instância é
+ * compartilhada entre cidades e a simulação não precisa de sincronização.
+ *
+ * <p>As operações de disco (carregar e salvar) são limitadas por um {@link Semaphore},
+ * para que milhares de cidades não abram arquivos ao mesmo tempo.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public class AgendadorSimulacoes {
+
+    private final Semaphore semaforoDisco;
+    private Long semente; // null = eventos com semente aleatória
+    private boolean modoParalelo;
+
+    /**
+     * Resultado da simulação de uma cidade.
+     *
+     * @param nomeCidade Nome da cidade
+     * @param turnos Turnos executados
+     * @param duracaoNanos Tempo gasto apenas na simulação (sem carregar/salvar)
+     * @param erro Mensagem de erro, ou null se a cidade foi simulada com sucesso
+     */
+    public record ResultadoCidade(String nomeCidade, int turnos, long duracaoNanos, String erro) {
+        public boolean sucesso() {
+            return erro == null;
+        }
+    }
+
+    /**
+     * Relatório agregado de uma rodada de simulações.
+     *
+     * @param resultados Resultado de cada cidade, na ordem em que foram agendadas
+     * @param duracaoNanos Tempo total da rodada, incluindo carregamento e gravação
+     */
+    public record Relatorio(List<ResultadoCidade> resultados, long duracaoNanos) {
+
+        /**
+         * @return Soma dos turnos executados em todas as cidades simuladas com sucesso
+         */
+        public long totalTurnos() {
+            long total = 0;
+            for (ResultadoCidade resultado : resultados) {
+                if (resultado.sucesso()) {
+                    total += resultado.turnos();
+                }
+            }
+            return total;
+        }
+
+        /**
+         * @return Vazão agregada em turnos por segundo (tempo de parede da rodada)
+         */
+        public double turnosPorSegundo() {
+            double segundos = duracaoNanos / 1_000_000_000.0;
+            return segundos > 0 ? totalTurnos() / segundos : 0.0;
+        }
+
+        /**
+         * @return Quantidade de cidades que falharam
+         */
+        public int falhas() {
+            int falhas = 0;
+            for (ResultadoCidade resultado : resultados) {
+                if (!resultado.sucesso()) {
+                    falhas++;
+                }
+            }
+            return falhas;
+        }
+    }
+
+    /**
+     * Cria o agendador.
+     *
+     * @param maxOperacoesDisco Número máximo de cargas/gravações simultâneas
+     */
+    public AgendadorSimulacoes(int maxOperacoesDisco) {
+        if (maxOperacoesDisco <= 0) {
+            throw new IllegalArgumentException("O limite de operações de disco deve ser positivo.");
+        }
+        this.semaforoDisco = new Semaphore(maxOperacoesDisco);
+    }
+
+    /**
+     * Fixa a semente dos eventos de cada cidade, tornando a rodada reproduzível. Todas as
+     * cidades usam a mesma semente.
+     *
+     * @param semente A semente, ou null para sortear uma por cidade
+     */
+    public void setSemente(Long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * Ativa ou desativa o processamento paralelo dos efeitos dos prédios em cada cidade
+     * (veja {@link JogoController#setModoParalelo(boolean)}).
+     *
+     * @param ativo true para processar os efeitos em paralelo
+     */
+    public void setModoParalelo(boolean ativo) {
+        this.modoParalelo = ativo;
+    }
+
+    /**
+     * Simula todas as cidades do diretório de saves.
+     *
+     * @param turnos Quantidade de turnos por cidade
+     * @param salvar true para gravar cada cidade ao final
+     * @return O relatório da rodada
+     * @throws InterruptedException Se a thread chamadora for interrompida
+     */
+    public Relatorio simularTodas(int turnos, boolean salvar) throws InterruptedException {
+        return simular(PersistenceController.listarCidadesSalvas(), turnos, salvar);
+    }
+
+    /**
+     * Simula as cidades informadas, cada uma na sua virtual thread.
+     *
+     * @param nomesCidades Nomes das cidades salvas
+     * @param turnos Quantidade de turnos por cidade
+     * @param salvar true para gravar cada cidade ao final
+     * @return O relatório da rodada
+     * @throws InterruptedException Se a thread chamadora for interrompida
+     */
+    public Relatorio simular(List<String> nomesCidades, int turnos, boolean salvar) throws InterruptedException {
+        long inicio = System.nanoTime();
+        List<ResultadoCidade> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResultadoCidade>> futuros = new ArrayList<>();
+            for (String nome : nomesCidades) {
+                futuros.add(executor.submit(() -> simularCidade(nome, turnos, salvar)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                try {
+                    resultados.add(futuros.get(i).get());
+                } catch (ExecutionException e) {
+                    resultados.add(new ResultadoCidade(nomesCidades.get(i), 0, 0, String.valueOf(e.getCause())));
+                }
+            }
+        }
+
+        return new Relatorio(resultados, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Carrega, simula e salva uma única cidade. Executado na virtual thread da cidade.
+     */
+    private ResultadoCidade simularCidade(String nome, int turnos, boolean salvar) throws InterruptedException {
+        City cidade;
+        semaforoDisco.acquire();
+        try {
+            cidade = PersistenceController.carregarCidade(nome);
+        } catch (IOException e) {
+            return new ResultadoCidade(nome, 0, 0, e.getMessage());
+        } finally {
+            semaforoDisco.release();
+        }
+
+        // Controller exclusivo desta cidade: nada é compartilhado com as outras threads
+        JogoController jogoController = semente != null
+                ? new JogoController(cidade, semente)
+                : new JogoController(cidade);
+        jogoController.setModoParalelo(modoParalelo);
+        jogoController.setModoSemAlocacao(true);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < turnos; i++) {
+            jogoController.proximoTurno();
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        if (salvar) {
+            semaforoDisco.acquire();
+            try {
+                jogoController.salvarCity();
+            } catch (IOException e) {
+                return new ResultadoCidade(nome, turnos, duracao, e.getMessage());
+            } finally {
+                semaforoDisco.release();
+            }
+        }
+        return new ResultadoCidade(nome, turnos, duracao, null);
+    }
+}
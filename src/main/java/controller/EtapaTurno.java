@@ -0,0 +1,26 @@
+package controller;
+
+import model.City;
+import model.Turno;
+
+/**
+ * Uma etapa do processamento de um turno (ex: efeitos dos prédios, consumo diário, eventos).
+ *
+ * <p>As etapas são registradas com um nome em um {@link PipelineTurno}, que as executa
+ * em ordem e mede o tempo e a alocação de cada uma. Uma etapa pode ser reordenada,
+ * desativada ou substituída por outra implementação sem alterar o {@link JogoController}.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface EtapaTurno {
+
+    /**
+     * Executa a etapa sobre a cidade.
+     *
+     * @param cidade A cidade sendo processada
+     * @param turno O turno em andamento, onde eventos podem ser registrados
+     */
+    void executar(City cidade, Turno turno);
+}
@@ -1,11 +1,13 @@
 package controller;
 
 import model.City;
-import model.Robo;
+import model.Evento;
+import model.TabelaRobos;
 import model.TipoDeRobo;
 import model.Turno;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Controller responsável por gerenciar eventos aleatórios do jogo.
@@ -17,16 +19,113 @@ import java.util.Random;
  *   <li>Descoberta de Peças Raras: Aumenta felicidade de todos os robôs</li>
  * </ul>
  * 
- * <p>A chance de eventos é de 40% por turno. A chance de greve aumenta
+ * <p>Cada evento é registrado no turno como um {@link Evento}, sem montar texto: a
+ * mensagem só é formatada quando a interface a exibe.
+ * 
+ * <p>A chance de eventos é de 40% por turno (ajustável com {@link #setChanceDeEvento(int)}). A chance de greve aumenta
  * significativamente se houver robôs infelizes (felicidade < 50).
+ *
+ * <p>Os sorteios são determinísticos: cada turno usa um gerador próprio derivado da
+ * semente do controller e do número do turno. Com a mesma semente, a mesma cidade
+ * produz sempre os mesmos eventos, e cada controller tem seu próprio gerador, sem
+ * disputa entre threads que simulam cidades diferentes. O gerador é um objeto só,
+ * reposicionado no início de cada turno, para que o turno não aloque.
  * 
  * @author Sistema Cidade dos Robôs
  * @version 1.0
  */
 public class EventController {
-    private Random random = new Random();
-    private final int ChanceDeEvento = 40; // Aumentado de 20% para 40%
+    // Incremento do SplitMix64 (razão áurea em 64 bits)
+    private static final long GAMA = 0x9E3779B97F4A7C15L;
+
+    private final long semente;
+    private int ChanceDeEvento = 40; // Aumentado de 20% para 40%
     private RoboController roboController = new RoboController();
+    private final GeradorTurno gerador = new GeradorTurno();
+
+    /**
+     * Gerador SplitMix64 (o mesmo algoritmo do {@code SplittableRandom}) que pode ser
+     * reposicionado em uma nova semente.
+     */
+    private static final class GeradorTurno implements RandomGenerator {
+        private long estado;
+
+        void reiniciar(long semente) {
+            this.estado = semente;
+        }
+
+        @Override
+        public long nextLong() {
+            return misturar(estado += GAMA);
+        }
+    }
+
+    /**
+     * Função de mistura do SplitMix64: espalha cada bit da entrada por toda a saída.
+     */
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Cria o controller com uma semente aleatória.
+     */
+    public EventController() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Cria o controller com uma semente fixa, tornando os eventos reproduzíveis.
+     *
+     * @param semente A semente dos sorteios de eventos
+     */
+    public EventController(long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * @return A semente usada pelos sorteios deste controller
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * @return A chance de ocorrer um evento a cada turno, em porcentagem
+     */
+    public int getChanceDeEvento() {
+        return ChanceDeEvento;
+    }
+
+    /**
+     * Define a chance de ocorrer um evento a cada turno. Com 0 o sorteio continua sendo feito,
+     * mas nenhum evento acontece.
+     *
+     * @param porcentagem A chance, de 0 a 100
+     * @throws IllegalArgumentException Se a chance estiver fora do intervalo
+     */
+    public void setChanceDeEvento(int porcentagem) {
+        if (porcentagem < 0 || porcentagem > 100) {
+            throw new IllegalArgumentException("A chance de evento deve estar entre 0 e 100: " + porcentagem);
+        }
+        this.ChanceDeEvento = porcentagem;
+    }
+
+    /**
+     * Posiciona o gerador de números aleatórios no início do turno.
+     *
+     * <p>Depende apenas da semente e do número do turno, então o resultado de um turno
+     * não é afetado por quantos sorteios os turnos anteriores fizeram. O par (semente, turno)
+     * passa pela função de mistura antes de virar o estado: somar ao estado um múltiplo do
+     * incremento do gerador faria a sequência de um turno ser a do turno anterior deslocada
+     * de um sorteio.
+     */
+    RandomGenerator geradorDoTurno(int nTurno) {
+        gerador.reiniciar(misturar(semente ^ misturar(nTurno)));
+        return gerador;
+    }
 
     /**
      * Verifica se um evento aleatório deve ocorrer neste turno e o aplica.
@@ -39,6 +138,7 @@ public class EventController {
      * @param turnoAtual O turno atual para registrar o evento
      */
     public void verificarEventos(City cidade, Turno turnoAtual) {
+        RandomGenerator random = geradorDoTurno(turnoAtual.getnTurno());
 
         // Determina se um evento aleatório deve ocorrer
         if (random.nextInt(100) < ChanceDeEvento) {
@@ -71,63 +171,51 @@ public class EventController {
                     aplicarGreve(cidade, turnoAtual);
                     break;
                 case 2:
-                    aplicarDescobertaPecasRaras(cidade, turnoAtual);
+                    aplicarDescobertaPecasRaras(cidade, turnoAtual, random);
                     break;
             }
         }
     }
     
     /**
-     * Calcula a felicidade média dos robôs na cidade.
+     * Calcula a felicidade média dos robôs na cidade. O(1): a soma é mantida pela tabela de robôs.
      */
     private double calcularFelicidadeMedia(City cidade) {
         if (cidade.getRobos().isEmpty()) {
             return 100.0;
         }
         
-        double soma = 0;
-        for (Robo robo : cidade.getRobos()) {
-            soma += robo.getFelicidade();
-        }
-        return soma / cidade.getRobos().size();
+        TabelaRobos robos = cidade.getTabelaRobos();
+        return robos.somaFelicidade() / robos.size();
     }
     
     /**
-     * Conta quantos robôs estão infelizes (felicidade < 50).
+     * Conta quantos robôs estão infelizes (felicidade < 50). O(1).
      */
     private int contarRobosInfelizes(City cidade) {
-        int count = 0;
-        for (Robo robo : cidade.getRobos()) {
-            if (robo.getFelicidade() < 50) {
-                count++;
-            }
-        }
-        return count;
+        return cidade.contarRobosInfelizes();
     }
 
     private void aplicarApagao(City city, Turno turno){
         // Calcula quantos seguranças existem para reduzir o impacto
-        int qtdSegurancas = roboController.listarRobosPorTipo(city, TipoDeRobo.SEGURANCA).size();
+        int qtdSegurancas = roboController.contarRobosPorTipo(city, TipoDeRobo.SEGURANCA);
         double reducaoImpacto = Math.min(0.25, qtdSegurancas * 0.05); // Máximo 25% de redução
         
-        for (Robo robo : city.getRobos()){
-            robo.apagao();
+        TabelaRobos robos = city.getTabelaRobos();
+        for (int slot = 0; slot < robos.size(); slot++){
+            robos.apagao(slot);
             
             // Aplica redução de impacto se houver seguranças
             if (qtdSegurancas > 0) {
                 // Recupera parte da energia e felicidade perdida
                 double energiaRecuperada = 40.0 * reducaoImpacto;
                 double felicidadeRecuperada = 40.0 * reducaoImpacto;
-                robo.setEnergia(Math.min(100.0, robo.getEnergia() + energiaRecuperada));
-                robo.setFelicidade(Math.min(100.0, robo.getFelicidade() + felicidadeRecuperada));
+                robos.setEnergia(slot, Math.min(100.0, robos.getEnergia(slot) + energiaRecuperada));
+                robos.setFelicidade(slot, Math.min(100.0, robos.getFelicidade(slot) + felicidadeRecuperada));
             }
         }
         
-        String mensagem = "⚡ APAGÃO DE ENERGIA! Todos os robôs foram gravemente afetados (energia e felicidade -40)";
-        if (qtdSegurancas > 0) {
-            mensagem += String.format(" (Seguranças reduziram o impacto em %.0f%%)", reducaoImpacto * 100);
-        }
-        turno.registrarEvento(mensagem);
+        turno.registrarEvento(Evento.apagao(turno.getnTurno(), reducaoImpacto));
     }
 
     private void aplicarGreve(City city, Turno turno){
@@ -136,39 +224,31 @@ public class EventController {
         }
 
         // Calcula quantos seguranças existem para reduzir o impacto
-        int qtdSegurancas = roboController.listarRobosPorTipo(city, TipoDeRobo.SEGURANCA).size();
+        int qtdSegurancas = roboController.contarRobosPorTipo(city, TipoDeRobo.SEGURANCA);
         double reducaoImpacto = Math.min(0.25, qtdSegurancas * 0.05); // Máximo 25% de redução
         
         // Verifica quantos robôs estão infelizes
         int qtdRobosInfelizes = contarRobosInfelizes(city);
         double felicidadeMedia = calcularFelicidadeMedia(city);
 
-        for (Robo robo : city.getRobos()){
-            robo.greve();
+        TabelaRobos robos = city.getTabelaRobos();
+        for (int slot = 0; slot < robos.size(); slot++){
+            robos.greve(slot);
             
             // Aplica redução de impacto se houver seguranças
             if (qtdSegurancas > 0) {
                 // Recupera parte da felicidade perdida
                 double felicidadeRecuperada = 30.0 * reducaoImpacto;
-                robo.setFelicidade(Math.min(100.0, robo.getFelicidade() + felicidadeRecuperada));
+                robos.setFelicidade(slot, Math.min(100.0, robos.getFelicidade(slot) + felicidadeRecuperada));
             }
         }
         
-        String mensagem;
-        if (qtdRobosInfelizes > 0 && felicidadeMedia < 50) {
-            mensagem = String.format("⚠️ GREVE! %d robô(s) infeliz(es) (felicidade média: %.1f%%) iniciaram uma greve! Os robôs pararam de trabalhar.", 
-                    qtdRobosInfelizes, felicidadeMedia);
-        } else {
-            mensagem = "⚠️ GREVE! Os robôs estão insatisfeitos e pararam de trabalhar. Produção reduzida neste turno.";
-        }
-        
-        if (qtdSegurancas > 0) {
-            mensagem += String.format(" (Seguranças reduziram o impacto em %.0f%%)", reducaoImpacto * 100);
-        }
-        turno.registrarEvento(mensagem);
+        // A greve só é atribuída aos robôs infelizes quando a média também está baixa
+        int infelizesMotivo = (qtdRobosInfelizes > 0 && felicidadeMedia < 50) ? qtdRobosInfelizes : 0;
+        turno.registrarEvento(Evento.greve(turno.getnTurno(), infelizesMotivo, felicidadeMedia, reducaoImpacto));
     }
 
-    private void aplicarDescobertaPecasRaras(City city, Turno turno){
+    private void aplicarDescobertaPecasRaras(City city, Turno turno, RandomGenerator random){
         // Quantidade aleatória de peças raras descobertas (entre 200 e 500)
         int pecasDescobertas = 200 + random.nextInt(301);
         
@@ -179,11 +259,11 @@ public class EventController {
         city.addDinheiro(dinheiroDescoberto);
         
         // Os robôs ficam felizes com a descoberta
-        for (Robo robo : city.getRobos()){
-            robo.descobertaPecasRaras();
+        TabelaRobos robos = city.getTabelaRobos();
+        for (int slot = 0; slot < robos.size(); slot++){
+            robos.descobertaPecasRaras(slot);
         }
         
-        turno.registrarEvento(String.format("💎 DESCOBERTA DE PEÇAS RARAS! +%d peças e +%.2f de dinheiro encontrados! Todos os robôs ficaram mais felizes (+15 felicidade).", 
-                pecasDescobertas, dinheiroDescoberto));
+        turno.registrarEvento(Evento.descobertaPecasRaras(turno.getnTurno(), pecasDescobertas, dinheiroDescoberto));
     }
 }
@@ -3,9 +3,16 @@ package controller;
 import model.City;
 import model.Predio;
 import model.Robo;
+import model.TabelaRobos;
 import model.TipoPredio;
 import model.Turno;
+import persistencia.DiarioTurnos;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller principal do jogo que gerencia o fluxo geral e coordena outros controllers.
@@ -27,6 +34,22 @@ public class JogoController {
     private RoboController roboController;
     private EventController eventController;
     private Turno ultimoTurno;
+    private List<Turno> turnosRecuperados = List.of(); // Turnos do diário com eventos, da última carga
+    private ProcessadorEfeitosParalelo processadorParalelo; // null = efeitos seriais
+    private final PipelineTurno pipeline = new PipelineTurno();
+    private ExecutorService gravador; // Thread única de gravação em segundo plano (criada sob demanda)
+    private int intervaloAutosave; // 0 = autosave desligado
+    private int intervaloCheckpoint; // 0 = diário de turnos desligado
+    private DiarioTurnos diario; // Diário aberto desde o último checkpoint (null = sem checkpoint)
+    private boolean modoSemAlocacao;
+    private Turno turnoReutilizado; // único Turno usado no modo sem alocação
+
+    // Nomes das etapas padrão do turno, na ordem em que são registradas
+    public static final String ETAPA_EFEITOS_PREDIOS = "efeitosPredios";
+    public static final String ETAPA_CONSUMO_DIARIO = "consumoDiario";
+    public static final String ETAPA_EVENTOS = "eventos";
+    public static final String ETAPA_FELICIDADE_MEDIA = "felicidadeMedia";
+    public static final String ETAPA_BONUS_SEGURANCA = "bonusSeguranca";
 
     /**
      * Construtor do JogoController.
@@ -34,10 +57,33 @@ public class JogoController {
      * @param cidade A cidade inicial do jogo
      */
     public JogoController(City cidade){
+        this(cidade, new EventController());
+    }
+
+    /**
+     * Construtor do JogoController com semente fixa para os eventos aleatórios.
+     *
+     * <p>Com a mesma cidade inicial e a mesma semente, os turnos são reproduzíveis,
+     * o que permite comparar execuções e benchmarks de {@link #proximoTurno()}.
+     *
+     * @param cidade A cidade inicial do jogo
+     * @param semente A semente dos eventos aleatórios
+     */
+    public JogoController(City cidade, long semente){
+        this(cidade, new EventController(semente));
+    }
+
+    private JogoController(City cidade, EventController eventController){
         this.cidadeAtual = cidade;
         this.predioController = new PredioController();
-        this.eventController = new EventController();
+        this.eventController = eventController;
         this.roboController= new RoboController();
+
+        pipeline.adicionar(ETAPA_EFEITOS_PREDIOS, this::aplicarEfeitosPredios);
+        pipeline.adicionar(ETAPA_CONSUMO_DIARIO, this::aplicarConsumoDiario);
+        pipeline.adicionar(ETAPA_EVENTOS, (city, turno) -> this.eventController.verificarEventos(city, turno));
+        pipeline.adicionar(ETAPA_FELICIDADE_MEDIA, (city, turno) -> city.felicidadeMedia());
+        pipeline.adicionar(ETAPA_BONUS_SEGURANCA, (city, turno) -> this.roboController.aplicarBonusFelicidadeSeguranca(city));
     }
 
     /**
@@ -46,6 +92,9 @@ public class JogoController {
      * <p>Antes de salvar, atualiza a felicidade média e as posições dos robôs
      * para garantir que todos os dados estejam sincronizados.
      * 
+     * <p>Com o diário de turnos ligado, o save é um checkpoint: o diário anterior é
+     * descartado e um novo começa a partir deste estado.
+     * 
      * @throws IOException Se houver erro ao salvar o arquivo
      */
     public void salvarCity() throws IOException {
@@ -56,8 +105,12 @@ public class JogoController {
         // Se um robô está em um prédio, sua posição deve refletir isso
         atualizarPosicoesRobos();
         
-        // Salva a cidade com todos os seus dados
+        // Salva a cidade com todos os seus dados (o save descarta o diário anterior)
+        fecharDiario();
         PersistenceController.salvarCidade(cidadeAtual, cidadeAtual.getNome());
+        if (intervaloCheckpoint > 0) {
+            diario = PersistenceController.iniciarDiario(cidadeAtual, cidadeAtual.getNome());
+        }
     }
     
     /**
@@ -65,7 +118,7 @@ public class JogoController {
      */
     private void atualizarPosicoesRobos() {
         for (Robo robo : cidadeAtual.getRobos()) {
-            Predio predioDoRobo = roboController.encontrarPredioDoRobo(robo, cidadeAtual);
+            Predio predioDoRobo = cidadeAtual.getPredioDoRobo(robo);
             if (predioDoRobo != null) {
                 // Robô está em um prédio - atualiza posição para a posição do prédio
                 robo.setPosX(predioDoRobo.getPosX());
@@ -75,18 +128,156 @@ public class JogoController {
         }
     }
 
+    /**
+     * Salva a cidade em segundo plano.
+     * 
+     * <p>Na thread chamadora apenas sincroniza os dados (como em {@link #salvarCity()}) e cria
+     * um snapshot da cidade com {@link City#criarSnapshot()}. A serialização e a escrita do
+     * arquivo acontecem em uma thread de gravação própria, enquanto o jogo continua. As
+     * gravações são feitas em ordem, uma de cada vez.
+     * 
+     * <p>Como o save descarta o diário de turnos, o diário aberto é encerrado e o próximo
+     * turno grava um checkpoint novo.
+     * 
+     * @return Um future que completa quando o arquivo for escrito, ou falha com a IOException
+     */
+    public CompletableFuture<Void> salvarEmSegundoPlano() {
+        fecharDiario();
+        cidadeAtual.felicidadeMedia();
+        atualizarPosicoesRobos();
+        City snapshot = cidadeAtual.criarSnapshot();
+
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+        gravador().execute(() -> {
+            try {
+                PersistenceController.salvarCidade(snapshot, snapshot.getNome());
+                resultado.complete(null);
+            } catch (IOException | RuntimeException e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Configura o autosave: a cada {@code turnos} turnos a cidade é salva em segundo plano,
+     * custando ao turno apenas o tempo do snapshot.
+     * 
+     * @param turnos Intervalo em turnos, ou 0 para desligar
+     * @throws IllegalArgumentException Se o intervalo for negativo
+     */
+    public void setAutosave(int turnos) {
+        if (turnos < 0) {
+            throw new IllegalArgumentException("O intervalo de autosave não pode ser negativo: " + turnos);
+        }
+        this.intervaloAutosave = turnos;
+    }
+
+    /**
+     * @return O intervalo de autosave em turnos (0 = desligado)
+     */
+    public int getAutosave() {
+        return intervaloAutosave;
+    }
+
+    /**
+     * Liga o diário de turnos: cada turno acrescenta ao diário da cidade apenas o que mudou
+     * (veja {@link DiarioTurnos}) e a cada {@code turnos} turnos a cidade inteira é salva como
+     * checkpoint, recomeçando o diário. Um checkpoint também é gravado no primeiro turno e
+     * sempre que a estrutura da cidade muda (prédios construídos ou robôs alocados).
+     * 
+     * <p>Com o diário ligado o autosave não é usado: os checkpoints fazem o papel dele, e
+     * {@link PersistenceController#carregarCidade(String)} recupera os turnos do diário.
+     * 
+     * @param turnos Intervalo entre checkpoints em turnos, ou 0 para desligar o diário
+     * @throws IllegalArgumentException Se o intervalo for negativo
+     */
+    public void setDiarioTurnos(int turnos) {
+        if (turnos < 0) {
+            throw new IllegalArgumentException("O intervalo de checkpoint não pode ser negativo: " + turnos);
+        }
+        this.intervaloCheckpoint = turnos;
+        if (turnos == 0) {
+            fecharDiario();
+        }
+    }
+
+    /**
+     * @return O intervalo entre checkpoints do diário de turnos (0 = diário desligado)
+     */
+    public int getIntervaloCheckpoint() {
+        return intervaloCheckpoint;
+    }
+
+    /**
+     * Acrescenta o turno ao diário, ou grava um checkpoint quando chegou a hora, quando não
+     * há diário aberto ou quando a estrutura da cidade mudou.
+     */
+    private void registrarNoDiario(Turno turno) {
+        try {
+            boolean checkpoint = cidadeAtual.getTurnoAtual() % intervaloCheckpoint == 0;
+            if (checkpoint || diario == null || !diario.registrar(turno)) {
+                aguardarGravacoes(); // Um save em segundo plano pendente descartaria o diário novo
+                salvarCity();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro no diário de turnos da cidade " + cidadeAtual.getNome() + ": " + e.getMessage());
+            fecharDiario(); // O próximo turno tenta um checkpoint
+        }
+    }
+
+    private void fecharDiario() {
+        if (diario == null) {
+            return;
+        }
+        try {
+            diario.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o diário de turnos: " + e.getMessage());
+        }
+        diario = null;
+    }
+
+    /**
+     * Espera as gravações em segundo plano já enviadas terminarem.
+     */
+    private void aguardarGravacoes() {
+        if (gravador != null) {
+            CompletableFuture.runAsync(() -> { }, gravador).join();
+        }
+    }
+
+    private ExecutorService gravador() {
+        if (gravador == null) {
+            gravador = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "gravacao-" + cidadeAtual.getNome());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return gravador;
+    }
+
     /**
      * Carrega uma cidade salva a partir de um arquivo JSON.
      * 
+     * <p>Se a cidade tinha um diário de turnos, {@link #getUltimoTurno()} passa a ser o último
+     * turno reaplicado dele e {@link #getTurnosRecuperados()} traz os turnos reaplicados que
+     * registraram eventos, para que eles possam ser mostrados como se tivessem acabado de ocorrer.
+     * 
      * @param nomeCidade Nome da cidade a ser carregada
      * @return A cidade carregada
      * @throws IOException Se houver erro ao carregar o arquivo ou se a cidade não for encontrada
      */
     public City carregarCidade(String nomeCidade) throws IOException {
+        fecharDiario(); // O diário aberto é da cidade anterior
         try {
-            City cidadeCarregada = PersistenceController.carregarCidade(nomeCidade);
+            List<Turno> reaplicados = new ArrayList<>();
+            City cidadeCarregada = PersistenceController.carregarCidade(nomeCidade, reaplicados);
 
             this.cidadeAtual = cidadeCarregada;
+            this.ultimoTurno = reaplicados.isEmpty() ? null : reaplicados.get(reaplicados.size() - 1);
+            this.turnosRecuperados = reaplicados.stream().filter(Turno::temEventos).toList();
 
             return cidadeCarregada;
 
@@ -99,49 +290,167 @@ public class JogoController {
     /**
      * Processa o próximo turno do jogo.
      * 
-     * <p>Executa as seguintes ações em ordem:
+     * <p>Incrementa o número do turno e executa o {@link PipelineTurno}, cujas etapas
+     * padrão são, em ordem:
      * <ol>
-     *   <li>Incrementa o número do turno</li>
-     *   <li>Aplica os efeitos de todos os prédios (trabalho, descanso, treinamento)</li>
-     *   <li>Aplica consumo diário apenas para robôs que não estão em prédios residenciais</li>
-     *   <li>Verifica e aplica eventos aleatórios</li>
-     *   <li>Calcula a felicidade média</li>
-     *   <li>Aplica bônus de felicidade dos robôs de segurança</li>
+     *   <li>{@value #ETAPA_EFEITOS_PREDIOS}: aplica os efeitos de todos os prédios (trabalho, descanso, treinamento)</li>
+     *   <li>{@value #ETAPA_CONSUMO_DIARIO}: aplica consumo diário apenas para robôs que não estão em prédios residenciais</li>
+     *   <li>{@value #ETAPA_EVENTOS}: verifica e aplica eventos aleatórios</li>
+     *   <li>{@value #ETAPA_FELICIDADE_MEDIA}: calcula a felicidade média</li>
+     *   <li>{@value #ETAPA_BONUS_SEGURANCA}: aplica bônus de felicidade dos robôs de segurança</li>
      * </ol>
      */
     public void proximoTurno(){
         cidadeAtual.incrementaTurno();
-        Turno novoTurno = new Turno(cidadeAtual.getTurnoAtual());
+        Turno novoTurno;
+        if (modoSemAlocacao) {
+            if (turnoReutilizado == null) {
+                turnoReutilizado = new Turno(0);
+            }
+            turnoReutilizado.reiniciar(cidadeAtual.getTurnoAtual());
+            novoTurno = turnoReutilizado;
+        } else {
+            novoTurno = new Turno(cidadeAtual.getTurnoAtual());
+        }
+
+        pipeline.executar(cidadeAtual, novoTurno);
+        
+        // Armazena o último turno para acesso aos eventos
+        this.ultimoTurno = novoTurno;
+
+        if (intervaloCheckpoint > 0) {
+            registrarNoDiario(novoTurno);
+        } else if (intervaloAutosave > 0 && cidadeAtual.getTurnoAtual() % intervaloAutosave == 0) {
+            String nome = cidadeAtual.getNome();
+            salvarEmSegundoPlano().exceptionally(erro -> {
+                System.err.println("Erro no autosave da cidade " + nome + ": " + erro.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Avança vários turnos seguidos, sem nenhuma atualização de tela entre eles.
+     * 
+     * <p>Os eventos de todos os turnos são agregados no retorno: apenas os turnos em que
+     * algo aconteceu são incluídos, na ordem em que ocorreram. {@link #getUltimoTurno()}
+     * passa a ser o último turno processado.
+     * 
+     * @param n Quantidade de turnos a avançar
+     * @return Os turnos processados que registraram ao menos um evento
+     * @throws IllegalArgumentException Se n for negativo
+     */
+    public List<Turno> avancarTurnos(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("A quantidade de turnos não pode ser negativa: " + n);
+        }
+        List<Turno> turnosComEventos = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            proximoTurno();
+            if (ultimoTurno.temEventos()) {
+                turnosComEventos.add(modoSemAlocacao ? ultimoTurno.copiar() : ultimoTurno);
+            }
+        }
+        return turnosComEventos;
+    }
 
-        // Primeiro aplica os efeitos dos prédios (robôs em residenciais descansam, em comerciais trabalham)
-        for (Predio predio: cidadeAtual.getPredios()){
-            predio.efeito(cidadeAtual);
+    /**
+     * Etapa padrão: aplica os efeitos dos prédios (robôs em residenciais descansam, em comerciais trabalham).
+     */
+    private void aplicarEfeitosPredios(City cidade, Turno turno) {
+        if (processadorParalelo != null) {
+            processadorParalelo.aplicarEfeitos(cidade);
+        } else {
+            List<Predio> predios = cidade.getPredios();
+            for (int i = 0; i < predios.size(); i++){
+                predios.get(i).efeito(cidade);
+            }
         }
+    }
 
-        // Depois aplica consumo diário apenas para robôs que NÃO estão em prédios residenciais
-        // (robôs em residenciais já recuperaram energia no efeito do prédio)
-        for (Robo robo : cidadeAtual.getRobos()){
-            // Verifica se o robô está em um prédio residencial
-            Predio predioDoRobo = roboController.encontrarPredioDoRobo(robo, cidadeAtual);
+    /**
+     * Etapa padrão: aplica consumo diário apenas para robôs que NÃO estão em prédios residenciais
+     * (robôs em residenciais já recuperaram energia no efeito do prédio).
+     * Varredura linear pelos slots da tabela de robôs.
+     */
+    private void aplicarConsumoDiario(City cidade, Turno turno) {
+        TabelaRobos robos = cidade.getTabelaRobos();
+        for (int slot = 0; slot < robos.size(); slot++){
+            // Verifica se o robô está em um prédio residencial (consulta O(1) no índice de ocupação)
+            Predio predioDoRobo = cidade.getPredioDoRobo(robos.get(slot));
             
             // Se não estiver em prédio residencial, aplica consumo diário
             // (robôs em comerciais já trabalharam, mas ainda precisam consumir energia de manutenção básica)
             if (predioDoRobo == null || predioDoRobo.getTipo() != TipoPredio.RESIDENCIAL) {
-                robo.consumoDiario();
+                robos.consumoDiario(slot);
             }
         }
+    }
 
-        eventController.verificarEventos(cidadeAtual, novoTurno);
+    /**
+     * Retorna o pipeline de etapas do turno, para reordenar, desativar ou substituir
+     * etapas e consultar o tempo e a alocação de cada uma.
+     * 
+     * @return O pipeline usado por {@link #proximoTurno()}
+     */
+    public PipelineTurno getPipeline() {
+        return pipeline;
+    }
 
-        cidadeAtual.felicidadeMedia();
-        
-        // Aplica bônus de felicidade dos seguranças
-        roboController.aplicarBonusFelicidadeSeguranca(cidadeAtual);
-        
-        // Armazena o último turno para acesso aos eventos
-        this.ultimoTurno = novoTurno;
+    /**
+     * Retorna o controller de eventos usado pela etapa {@value #ETAPA_EVENTOS}.
+     * 
+     * @return O controller de eventos deste jogo
+     */
+    public EventController getEventController() {
+        return eventController;
     }
     
+    /**
+     * Ativa ou desativa o modo sem alocação.
+     * 
+     * <p>Nesse modo {@link #proximoTurno()} reaproveita sempre o mesmo {@link Turno}, então o
+     * objeto retornado por {@link #getUltimoTurno()} só é válido até o turno seguinte (quem
+     * precisa guardá-lo deve copiar os eventos). Com o processamento serial dos prédios, sem
+     * autosave e sem eventos, um turno estável não aloca nenhum byte: todas as etapas padrão
+     * usam laços indexados e buffers mantidos entre os turnos. Indicado para execuções longas
+     * sem interface, onde as pausas do GC pesam. O modo paralelo continua alocando as tarefas
+     * do ForkJoinPool.
+     * 
+     * @param ativo true para reaproveitar o Turno entre os turnos
+     */
+    public void setModoSemAlocacao(boolean ativo) {
+        this.modoSemAlocacao = ativo;
+    }
+
+    /**
+     * @return true se o modo sem alocação está ativo
+     */
+    public boolean isModoSemAlocacao() {
+        return modoSemAlocacao;
+    }
+
+    /**
+     * Ativa ou desativa o processamento paralelo dos efeitos dos prédios.
+     * 
+     * <p>No modo paralelo os prédios são divididos entre as threads do ForkJoinPool comum
+     * e a produção de cada um é somada à cidade ao final, na ordem original. O resultado
+     * é idêntico ao do modo serial.
+     * 
+     * @param ativo true para processar os efeitos em paralelo
+     */
+    public void setModoParalelo(boolean ativo) {
+        this.processadorParalelo = ativo ? new ProcessadorEfeitosParalelo() : null;
+    }
+
+    /**
+     * Indica se os efeitos dos prédios estão sendo processados em paralelo.
+     * @return true se o modo paralelo está ativo
+     */
+    public boolean isModoParalelo() {
+        return processadorParalelo != null;
+    }
+
     /**
      * Retorna o último turno processado.
      * @return O último turno ou null se nenhum turno foi processado ainda
@@ -149,6 +458,14 @@ public class JogoController {
     public Turno getUltimoTurno() {
         return ultimoTurno;
     }
+
+    /**
+     * Retorna os turnos recuperados do diário na última carga que registraram ao menos um evento.
+     * @return Os turnos em ordem, ou uma lista vazia se a cidade não tinha diário
+     */
+    public List<Turno> getTurnosRecuperados() {
+        return turnosRecuperados;
+    }
     
     /**
      * Retorna a cidade atual.
@@ -1,11 +1,20 @@
 package controller;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import model.City;
-import persistencia.Persistencia;
+import model.Turno;
+import persistencia.CodecCompressao;
+import persistencia.Compressao;
+import persistencia.DiarioTurnos;
+import persistencia.PersistenciaBinariaCidade;
+import persistencia.PersistenciaCidade;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +22,20 @@ import java.util.List;
  * Controller responsável por gerenciar a persistência de dados do jogo.
  * 
  * <p>Fornece métodos para salvar, carregar, listar e deletar cidades.
- * Todos os arquivos são salvos no diretório "saves/" no formato JSON.
+ * Todos os arquivos são salvos no diretório "saves/".
+ * 
+ * <p>O formato é escolhido pela extensão do arquivo: {@value #EXTENSAO_JSON} usa o JSON
+ * gravado por streaming pela {@link PersistenciaCidade}, e {@value #EXTENSAO_BINARIA} usa o
+ * formato binário compacto da {@link PersistenciaBinariaCidade}. O nome da cidade pode trazer
+ * a extensão; sem ela, vale o arquivo que já existe para a cidade, e uma cidade nova é salva em JSON.
+ * 
+ * <p>Saves em JSON podem ser comprimidos, com o codec escolhido para cada cidade ao salvar
+ * (veja {@link Compressao}). Ao salvar de novo sem informar o codec, a cidade mantém o codec
+ * do arquivo existente. A leitura descobre o codec sozinha.
+ * 
+ * <p>Ao lado do save pode existir o diário de turnos da cidade ({@value #EXTENSAO_DIARIO}, veja
+ * {@link DiarioTurnos}), com os turnos jogados depois do save. A carga reaplica o diário, e
+ * salvar a cidade de novo descarta o diário, já que o save passa a conter tudo.
  * 
  * @author Sistema Cidade dos Robôs
  * @version 1.0
@@ -22,6 +44,13 @@ public class PersistenceController {
     
     // Diretório fixo para salvar os arquivos de cidades
     private static final String DIRETORIO_SAVES = "saves";
+
+    /** Extensão dos saves em JSON. */
+    public static final String EXTENSAO_JSON = ".json";
+    /** Extensão dos saves no formato binário. */
+    public static final String EXTENSAO_BINARIA = ".crb";
+    /** Extensão do diário de turnos gravado ao lado do save. */
+    public static final String EXTENSAO_DIARIO = ".diario";
     
     /**
      * Retorna o diretório de saves, criando-o se não existir.
@@ -37,70 +66,187 @@ public class PersistenceController {
     
     /**
      * Retorna o caminho completo do arquivo da cidade.
-     * @param nomeCidade Nome da cidade
+     * Sem extensão no nome, usa o save JSON ou o binário que já existir (nessa ordem),
+     * ou o JSON se a cidade ainda não foi salva.
+     * @param nomeCidade Nome da cidade, com ou sem extensão
      * @return O arquivo completo com caminho
      */
     private static File getArquivoCidade(String nomeCidade) {
-        return new File(getDiretorioSaves(), nomeCidade + ".json");
+        File diretorio = getDiretorioSaves();
+        if (nomeCidade.endsWith(EXTENSAO_JSON) || nomeCidade.endsWith(EXTENSAO_BINARIA)) {
+            return new File(diretorio, nomeCidade);
+        }
+        File json = new File(diretorio, nomeCidade + EXTENSAO_JSON);
+        File binario = new File(diretorio, nomeCidade + EXTENSAO_BINARIA);
+        return !json.exists() && binario.exists() ? binario : json;
+    }
+
+    /**
+     * Retorna o arquivo do diário de turnos da cidade. O diário é o mesmo para os dois formatos.
+     * @param nomeCidade Nome da cidade, com ou sem extensão
+     * @return O arquivo do diário
+     */
+    private static File getArquivoDiario(String nomeCidade) {
+        String nome = nomeCidade;
+        if (nome.endsWith(EXTENSAO_JSON) || nome.endsWith(EXTENSAO_BINARIA)) {
+            nome = nome.substring(0, nome.lastIndexOf('.'));
+        }
+        return new File(getDiretorioSaves(), nome + EXTENSAO_DIARIO);
+    }
+
+    private static boolean isBinario(File arquivo) {
+        return arquivo.getName().endsWith(EXTENSAO_BINARIA);
     }
 
     /**
-     * Salva uma cidade em um arquivo JSON.
+     * Salva uma cidade no formato indicado pela extensão do arquivo.
      * 
      * @param city A cidade a ser salva
-     * @param nomeCidade Nome da cidade (usado como nome do arquivo)
+     * @param nomeCidade Nome da cidade (usado como nome do arquivo), com ou sem extensão
      * @throws IOException Se houver erro ao salvar o arquivo
      */
     public static void salvarCidade(City city, String nomeCidade) throws IOException{
-        List<City> list = List.of(city);
         File arquivo = getArquivoCidade(nomeCidade);
-        Persistencia.salvar(list, arquivo.getAbsolutePath());
+        // Mantém a compressão que a cidade já usava
+        CodecCompressao codec = arquivo.isFile() && arquivo.length() > 0 && !isBinario(arquivo)
+                ? Compressao.detectar(arquivo.toPath())
+                : Compressao.NENHUMA;
+        salvarCidade(city, nomeCidade, codec);
     }
 
     /**
-     * Carrega uma cidade de um arquivo JSON.
+     * Salva uma cidade no formato indicado pela extensão do arquivo, com o codec de compressão informado.
+     * 
+     * <p>O save é gravado em um arquivo temporário no diretório de saves, forçado para o disco
+     * e movido sobre o anterior de forma atômica; o diário de turnos só é descartado depois da
+     * troca. Assim, mesmo após uma queda de energia, o save é o anterior ou o novo completo.
      * 
-     * @param nomeCidade Nome da cidade a ser carregada
+     * @param city A cidade a ser salva
+     * @param nomeCidade Nome da cidade (usado como nome do arquivo), com ou sem extensão
+     * @param codec O codec de compressão (ou {@link Compressao#NENHUMA})
+     * @throws IOException Se houver erro ao salvar o arquivo
+     * @throws IllegalArgumentException Se for pedida compressão para um save binário
+     */
+    public static void salvarCidade(City city, String nomeCidade, CodecCompressao codec) throws IOException{
+        File arquivo = getArquivoCidade(nomeCidade);
+        if (isBinario(arquivo) && codec != Compressao.NENHUMA) {
+            throw new IllegalArgumentException("Saves binários não são comprimidos: " + arquivo.getName());
+        }
+        // Grava em um arquivo temporário e só então substitui o save: se o processo cair no
+        // meio da gravação, o save anterior (e o diário que depende dele) continua intacto
+        Path temporario = Files.createTempFile(getDiretorioSaves().toPath(), arquivo.getName(), ".tmp");
+        try {
+            if (isBinario(arquivo)) {
+                PersistenciaBinariaCidade.salvar(city, temporario);
+            } else {
+                PersistenciaCidade.salvar(city, temporario, codec);
+            }
+            // Sem isso a troca de nome pode chegar ao disco antes do conteúdo
+            forcarGravacao(temporario);
+            Files.move(temporario, arquivo.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forcarDiretorio(getDiretorioSaves().toPath());
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+        // O save novo já contém os turnos registrados no diário
+        Files.deleteIfExists(getArquivoDiario(nomeCidade).toPath());
+    }
+
+    /**
+     * Inicia o diário de turnos da cidade, a partir do estado atual. Deve ser chamado logo
+     * depois de salvar a cidade, que passa a ser o checkpoint do diário.
+     * 
+     * @param city A cidade cujos turnos serão registrados
+     * @param nomeCidade Nome da cidade, com ou sem extensão
+     * @return O diário aberto, que deve ser fechado por quem o iniciou
+     * @throws IOException Se houver erro ao criar o arquivo do diário
+     */
+    public static DiarioTurnos iniciarDiario(City city, String nomeCidade) throws IOException {
+        DiarioTurnos diario = DiarioTurnos.iniciar(city, getArquivoDiario(nomeCidade).toPath());
+        forcarDiretorio(getDiretorioSaves().toPath()); // A entrada do diário novo
+        return diario;
+    }
+
+    /**
+     * Força para o disco o conteúdo de um arquivo já gravado.
+     */
+    private static void forcarGravacao(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Força para o disco as entradas de um diretório (criações, trocas de nome).
+     * Nem todo sistema permite abrir um diretório (ex: Windows); nesse caso a troca
+     * continua atômica, só não é forçada.
+     */
+    private static void forcarDiretorio(Path diretorio) {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Diretório não pode ser aberto como arquivo neste sistema
+        }
+    }
+
+    /**
+     * Carrega uma cidade, lendo o arquivo no formato indicado pela extensão e reaplicando
+     * o diário de turnos, se houver.
+     * 
+     * @param nomeCidade Nome da cidade a ser carregada, com ou sem extensão
      * @return A cidade carregada
      * @throws IOException Se houver erro ao carregar o arquivo ou se a cidade não for encontrada
      */
     public static City carregarCidade(String nomeCidade) throws IOException {
+        return carregarCidade(nomeCidade, new ArrayList<>());
+    }
+
+    /**
+     * Carrega uma cidade como {@link #carregarCidade(String)}, devolvendo também os turnos
+     * recuperados do diário, com os eventos de cada um.
+     * 
+     * @param nomeCidade Nome da cidade a ser carregada, com ou sem extensão
+     * @param turnosReaplicados Lista que recebe, em ordem, os turnos reaplicados do diário
+     * @return A cidade carregada
+     * @throws IOException Se houver erro ao carregar o arquivo ou se a cidade não for encontrada
+     */
+    public static City carregarCidade(String nomeCidade, List<Turno> turnosReaplicados) throws IOException {
         File arquivo = getArquivoCidade(nomeCidade);
         
         if (!arquivo.exists()) {
             throw new FileNotFoundException("Cidade não encontrada: " + nomeCidade);
         }
         
-        List<City> listaCidades = Persistencia.carregar(
-                arquivo.getAbsolutePath(),
-                new TypeReference<List<City>>() {} // Informa que é uma lista de objetos Cidade
-        );
-
-        if (listaCidades.isEmpty()) {
+        City cidade = isBinario(arquivo)
+                ? PersistenciaBinariaCidade.carregar(arquivo.toPath())
+                : PersistenciaCidade.carregar(arquivo.toPath());
+        if (cidade == null) {
             throw new FileNotFoundException("Cidade não encontrada ou vazia: " + nomeCidade);
         }
-
-        // Retorna a única instância de Cidade que estava no arquivo
-        return listaCidades.get(0);
+        turnosReaplicados.addAll(DiarioTurnos.reaplicar(cidade, getArquivoDiario(nomeCidade).toPath()));
+        return cidade;
     }
 
     /**
-     * Lista todas as cidades salvas (arquivos .json no diretório de saves).
-     * @return Lista com os nomes das cidades (sem a extensão .json)
+     * Lista todas as cidades salvas (arquivos .json e .crb no diretório de saves).
+     * Uma cidade salva nos dois formatos aparece uma única vez.
+     * @return Lista com os nomes das cidades (sem a extensão)
      */
     public static List<String> listarCidadesSalvas() {
         List<String> cidades = new ArrayList<>();
         File diretorio = getDiretorioSaves();
         
         if (diretorio.exists() && diretorio.isDirectory()) {
-            File[] arquivos = diretorio.listFiles((dir, name) -> name.endsWith(".json"));
+            File[] arquivos = diretorio.listFiles((dir, name) ->
+                    name.endsWith(EXTENSAO_JSON) || name.endsWith(EXTENSAO_BINARIA));
             
             if (arquivos != null) {
                 for (File arquivo : arquivos) {
                     String nome = arquivo.getName();
-                    // Remove a extensão .json
-                    if (nome.endsWith(".json")) {
-                        cidades.add(nome.substring(0, nome.length() - 5));
+                    // Remove a extensão
+                    String cidade = nome.substring(0, nome.lastIndexOf('.'));
+                    if (!cidades.contains(cidade)) {
+                        cidades.add(cidade);
                     }
                 }
             }
@@ -109,12 +255,22 @@ public class PersistenceController {
     }
 
     /**
-     * Deleta uma cidade salva.
-     * @param nomeCidade Nome da cidade a ser deletada
-     * @return true se a cidade foi deletada com sucesso, false caso contrário
+     * Deleta uma cidade salva, junto com o seu diário de turnos. Sem extensão no nome, apaga
+     * os saves da cidade nos dois formatos.
+     * @param nomeCidade Nome da cidade a ser deletada, com ou sem extensão
+     * @return true se algum arquivo da cidade foi deletado, false caso contrário
      */
     public static boolean deletarCidade(String nomeCidade) {
-        File arquivo = getArquivoCidade(nomeCidade);
+        deletarArquivo(getArquivoDiario(nomeCidade));
+        if (nomeCidade.endsWith(EXTENSAO_JSON) || nomeCidade.endsWith(EXTENSAO_BINARIA)) {
+            return deletarArquivo(new File(getDiretorioSaves(), nomeCidade));
+        }
+        boolean json = deletarArquivo(new File(getDiretorioSaves(), nomeCidade + EXTENSAO_JSON));
+        boolean binario = deletarArquivo(new File(getDiretorioSaves(), nomeCidade + EXTENSAO_BINARIA));
+        return json || binario;
+    }
+
+    private static boolean deletarArquivo(File arquivo) {
         if (arquivo.exists() && arquivo.isFile()) {
             return arquivo.delete();
         }
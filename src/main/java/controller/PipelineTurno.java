@@ -0,0 +1,313 @@
+package controller;
+
+import model.City;
+import model.Turno;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequência ordenada e configurável das etapas de um turno.
+ *
+ * <p>Cada etapa tem um nome único e pode ser reordenada, desativada ou substituída.
+ * A cada execução o pipeline mede, por etapa, o tempo gasto (em nanossegundos) e os
+ * bytes alocados pela thread que processa o turno. Assim é possível ver qual fase
+ * cresce mais com o tamanho da cidade.
+ *
+ * <p>A alocação é lida do {@code com.sun.management.ThreadMXBean} quando a JVM oferece
+ * esse recurso. Caso contrário fica em -1. Alocações feitas em outras threads, como os
+ * workers do modo paralelo, não entram na conta.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public class PipelineTurno {
+
+    private final List<Etapa> etapas = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean medidorAlocacao = criarMedidorAlocacao();
+
+    /**
+     * Estatísticas acumuladas de uma etapa.
+     */
+    public static class EstatisticaEtapa {
+        private final String nome;
+        private long execucoes;
+        private long nanosTotal;
+        private long nanosUltima;
+        private long bytesAlocados;
+
+        EstatisticaEtapa(String nome) {
+            this.nome = nome;
+        }
+
+        void registrar(long nanos, long bytes) {
+            execucoes++;
+            nanosTotal += nanos;
+            nanosUltima = nanos;
+            if (bytes >= 0) {
+                bytesAlocados += bytes;
+            } else {
+                bytesAlocados = -1;
+            }
+        }
+
+        void zerar() {
+            execucoes = 0;
+            nanosTotal = 0;
+            nanosUltima = 0;
+            bytesAlocados = 0;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public long getExecucoes() {
+            return execucoes;
+        }
+
+        public long getNanosTotal() {
+            return nanosTotal;
+        }
+
+        public long getNanosUltima() {
+            return nanosUltima;
+        }
+
+        /**
+         * @return Tempo médio por execução em nanossegundos, ou 0 se nunca executou
+         */
+        public long getNanosMedio() {
+            return execucoes == 0 ? 0 : nanosTotal / execucoes;
+        }
+
+        /**
+         * @return Bytes alocados em todas as execuções, ou -1 se a JVM não mede alocação
+         */
+        public long getBytesAlocados() {
+            return bytesAlocados;
+        }
+    }
+
+    /**
+     * Etapa registrada: implementação, estado de ativação e estatísticas.
+     */
+    private static class Etapa {
+        private EtapaTurno implementacao;
+        private boolean ativa = true;
+        private final EstatisticaEtapa estatistica;
+
+        Etapa(String nome, EtapaTurno implementacao) {
+            this.implementacao = implementacao;
+            this.estatistica = new EstatisticaEtapa(nome);
+        }
+
+        String nome() {
+            return estatistica.getNome();
+        }
+    }
+
+    /**
+     * Executa as etapas ativas em ordem, medindo cada uma.
+     *
+     * @param cidade A cidade sendo processada
+     * @param turno O turno em andamento
+     */
+    public void executar(City cidade, Turno turno) {
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < etapas.size(); i++) {
+            Etapa etapa = etapas.get(i);
+            if (!etapa.ativa) {
+                continue;
+            }
+            long bytesAntes = bytesAlocados(threadId);
+            long inicio = System.nanoTime();
+            etapa.implementacao.executar(cidade, turno);
+            long duracao = System.nanoTime() - inicio;
+            long bytesDepois = bytesAlocados(threadId);
+            etapa.estatistica.registrar(duracao, bytesAntes < 0 ? -1 : bytesDepois - bytesAntes);
+        }
+    }
+
+    /**
+     * Adiciona uma etapa ao final do pipeline.
+     *
+     * @param nome Nome único da etapa
+     * @param etapa A implementação da etapa
+     * @throws IllegalArgumentException Se já existir uma etapa com esse nome
+     */
+    public void adicionar(String nome, EtapaTurno etapa) {
+        inserir(etapas.size(), nome, etapa);
+    }
+
+    /**
+     * Adiciona uma etapa imediatamente antes de outra.
+     *
+     * @param referencia Nome da etapa existente
+     * @param nome Nome único da nova etapa
+     * @param etapa A implementação da nova etapa
+     * @throws IllegalArgumentException Se a referência não existir ou o nome já estiver em uso
+     */
+    public void adicionarAntes(String referencia, String nome, EtapaTurno etapa) {
+        inserir(indiceObrigatorio(referencia), nome, etapa);
+    }
+
+    /**
+     * Adiciona uma etapa imediatamente depois de outra.
+     *
+     * @param referencia Nome da etapa existente
+     * @param nome Nome único da nova etapa
+     * @param etapa A implementação da nova etapa
+     * @throws IllegalArgumentException Se a referência não existir ou o nome já estiver em uso
+     */
+    public void adicionarDepois(String referencia, String nome, EtapaTurno etapa) {
+        inserir(indiceObrigatorio(referencia) + 1, nome, etapa);
+    }
+
+    /**
+     * Troca a implementação de uma etapa, mantendo sua posição e suas estatísticas.
+     *
+     * @param nome Nome da etapa
+     * @param etapa A nova implementação
+     * @throws IllegalArgumentException Se a etapa não existir
+     */
+    public void substituir(String nome, EtapaTurno etapa) {
+        if (etapa == null) {
+            throw new IllegalArgumentException("A etapa não pode ser nula.");
+        }
+        etapas.get(indiceObrigatorio(nome)).implementacao = etapa;
+    }
+
+    /**
+     * Remove uma etapa do pipeline.
+     *
+     * @param nome Nome da etapa
+     * @return true se a etapa existia e foi removida
+     */
+    public boolean remover(String nome) {
+        int indice = indiceDe(nome);
+        if (indice < 0) {
+            return false;
+        }
+        etapas.remove(indice);
+        return true;
+    }
+
+    /**
+     * Move uma etapa para outra posição.
+     *
+     * @param nome Nome da etapa
+     * @param posicao Nova posição (0 = primeira)
+     * @throws IllegalArgumentException Se a etapa não existir
+     * @throws IndexOutOfBoundsException Se a posição for inválida
+     */
+    public void mover(String nome, int posicao) {
+        Etapa etapa = etapas.remove(indiceObrigatorio(nome));
+        etapas.add(posicao, etapa);
+    }
+
+    /**
+     * Ativa ou desativa uma etapa. Etapas desativadas continuam no pipeline, mas não executam.
+     *
+     * @param nome Nome da etapa
+     * @param ativa true para ativar
+     * @throws IllegalArgumentException Se a etapa não existir
+     */
+    public void setAtiva(String nome, boolean ativa) {
+        etapas.get(indiceObrigatorio(nome)).ativa = ativa;
+    }
+
+    /**
+     * @param nome Nome da etapa
+     * @return true se a etapa existe e está ativa
+     */
+    public boolean isAtiva(String nome) {
+        int indice = indiceDe(nome);
+        return indice >= 0 && etapas.get(indice).ativa;
+    }
+
+    /**
+     * @return Os nomes das etapas, na ordem de execução
+     */
+    public List<String> getNomesEtapas() {
+        List<String> nomes = new ArrayList<>(etapas.size());
+        for (Etapa etapa : etapas) {
+            nomes.add(etapa.nome());
+        }
+        return nomes;
+    }
+
+    /**
+     * @param nome Nome da etapa
+     * @return As estatísticas da etapa, ou null se ela não existir
+     */
+    public EstatisticaEtapa getEstatistica(String nome) {
+        int indice = indiceDe(nome);
+        return indice < 0 ? null : etapas.get(indice).estatistica;
+    }
+
+    /**
+     * @return As estatísticas de todas as etapas, na ordem de execução
+     */
+    public List<EstatisticaEtapa> getEstatisticas() {
+        List<EstatisticaEtapa> estatisticas = new ArrayList<>(etapas.size());
+        for (Etapa etapa : etapas) {
+            estatisticas.add(etapa.estatistica);
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Zera as estatísticas de todas as etapas.
+     */
+    public void zerarEstatisticas() {
+        for (Etapa etapa : etapas) {
+            etapa.estatistica.zerar();
+        }
+    }
+
+    private void inserir(int indice, String nome, EtapaTurno etapa) {
+        if (nome == null || etapa == null) {
+            throw new IllegalArgumentException("Nome e etapa são obrigatórios.");
+        }
+        if (indiceDe(nome) >= 0) {
+            throw new IllegalArgumentException("Já existe uma etapa com o nome: " + nome);
+        }
+        etapas.add(indice, new Etapa(nome, etapa));
+    }
+
+    private int indiceDe(String nome) {
+        for (int i = 0; i < etapas.size(); i++) {
+            if (etapas.get(i).nome().equals(nome)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indiceObrigatorio(String nome) {
+        int indice = indiceDe(nome);
+        if (indice < 0) {
+            throw new IllegalArgumentException("Etapa não encontrada: " + nome);
+        }
+        return indice;
+    }
+
+    private long bytesAlocados(long threadId) {
+        return medidorAlocacao == null ? -1 : medidorAlocacao.getThreadAllocatedBytes(threadId);
+    }
+
+    private static com.sun.management.ThreadMXBean criarMedidorAlocacao() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean medidor
+                && medidor.isThreadAllocatedMemorySupported()) {
+            if (!medidor.isThreadAllocatedMemoryEnabled()) {
+                medidor.setThreadAllocatedMemoryEnabled(true);
+            }
+            return medidor;
+        }
+        return null;
+    }
+}
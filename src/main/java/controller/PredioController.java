@@ -97,8 +97,8 @@ public class PredioController {
             return false; // Tipo de prédio não suportado
         }
 
-        // Valida limites do mapa (assumindo mapa 30x30)
-        if (x < 0 || y < 0 || x + custo.largura() > 30 || y + custo.altura() > 30) {
+        // Valida limites do mapa (dimensões da própria cidade)
+        if (!city.dentroDoMapa(x, y, custo.largura(), custo.altura())) {
             System.out.println("❌ Posição fora dos limites do mapa: (" + x + ", " + y + ") com tamanho " + custo.largura() + "x" + custo.altura());
             return false;
         }
@@ -109,16 +109,13 @@ public class PredioController {
             return false; // Já existe um prédio nessa posição
         }
 
-        // Verifica recursos
-        if (!city.gastarDinheiro(custo.dinheiro())) {
-            System.out.println("❌ Dinheiro insuficiente. Necessário: " + custo.dinheiro() + ", Disponível: " + city.getDinheiro());
-            return false; // Recursos insuficientes
-        }
-        
-        if (!city.gastarPecas(custo.pecas())) {
-            System.out.println("❌ Peças insuficientes. Necessário: " + custo.pecas() + ", Disponível: " + city.getPecas());
-            // Reverte o gasto de dinheiro
-            city.addDinheiro(custo.dinheiro());
+        // Debita dinheiro e peças de uma vez: ou os dois são gastos, ou nenhum
+        if (!city.gastarRecursos(custo.dinheiro(), custo.pecas())) {
+            if (city.getDinheiro() < custo.dinheiro()) {
+                System.out.println("❌ Dinheiro insuficiente. Necessário: " + custo.dinheiro() + ", Disponível: " + city.getDinheiro());
+            } else {
+                System.out.println("❌ Peças insuficientes. Necessário: " + custo.pecas() + ", Disponível: " + city.getPecas());
+            }
             return false; // Recursos insuficientes
         }
 
@@ -130,6 +127,7 @@ public class PredioController {
     
     /**
      * Verifica se já existe um prédio na posição especificada.
+     * Consulta o mapa de ocupação da cidade, em O(área do prédio).
      * @param city A cidade
      * @param x Posição X
      * @param y Posição Y
@@ -138,21 +136,8 @@ public class PredioController {
      * @return true se já existe um prédio na posição
      */
     private boolean predioExisteNaPosicao(City city, int x, int y, int largura, int altura) {
-        for (Predio predio : city.getPredios()) {
-            // Ignora o CENTRO (não é visível no mapa e não deve bloquear construção)
-            if (predio.getTipo() == TipoPredio.CENTRO) {
-                continue;
-            }
-            
-            // Verifica se há sobreposição
-            if (predio.getPosX() < x + largura && 
-                predio.getPosX() + predio.getLargura() > x &&
-                predio.getPosY() < y + altura && 
-                predio.getPosY() + predio.getAltura() > y) {
-                return true; // Há sobreposição
-            }
-        }
-        return false;
+        // O CENTRO não é marcado no mapa de ocupação, então não bloqueia construção
+        return city.areaOcupada(x, y, largura, altura);
     }
 
 }
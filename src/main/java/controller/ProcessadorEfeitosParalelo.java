@@ -0,0 +1,163 @@
+package controller;
+
+import model.City;
+import model.ContaRecursos;
+import model.Predio;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Aplica os efeitos dos prédios de uma cidade em paralelo usando um {@link ForkJoinPool}.
+ *
+ * <p>Os prédios que permitem efeito paralelo são divididos entre os workers. Cada prédio
+ * envia sua produção para um {@link RegistroRecursos} próprio em vez de alterar a cidade
+ * diretamente. Ao final, os registros são aplicados na cidade na ordem original dos prédios,
+ * repetindo exatamente a mesma sequência de somas do processamento serial. Assim o resultado
+ * é idêntico bit a bit ao de {@code efeito(city)} chamado prédio a prédio.
+ *
+ * <p>Prédios que não permitem efeito paralelo (ex: Centro, que adiciona robôs à cidade)
+ * são executados na thread chamadora, na sua posição original durante a fase de junção.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public class ProcessadorEfeitosParalelo {
+
+    // Quantidade de prédios abaixo da qual um worker processa a faixa sem dividir
+    private static final int LIMITE_DIVISAO = 32;
+
+    private final ForkJoinPool pool;
+    private RegistroRecursos[] registros = new RegistroRecursos[0];
+
+    /**
+     * Cria o processador usando o pool comum do ForkJoin.
+     */
+    public ProcessadorEfeitosParalelo() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria o processador usando um pool específico.
+     *
+     * @param pool O pool onde os efeitos serão executados
+     */
+    public ProcessadorEfeitosParalelo(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Aplica os efeitos de todos os prédios da cidade.
+     *
+     * @param cidade A cidade cujos prédios serão processados
+     */
+    public void aplicarEfeitos(City cidade) {
+        List<Predio> predios = cidade.getPredios();
+        int total = predios.size();
+        prepararRegistros(total);
+
+        // 1. Efeitos paralelizáveis, cada prédio acumulando no seu próprio registro
+        pool.invoke(new TarefaEfeitos(cidade, predios, registros, 0, total));
+
+        // Os workers alteram a felicidade de robôs distintos ao mesmo tempo, e as
+        // atualizações concorrentes dos agregados da tabela podem se perder
+        cidade.getTabelaRobos().recalcularAgregados();
+
+        // 2. Junção na ordem original dos prédios
+        for (int i = 0; i < total; i++) {
+            Predio predio = predios.get(i);
+            if (predio.permiteEfeitoParalelo()) {
+                registros[i].aplicarEm(cidade);
+            } else {
+                predio.efeito(cidade);
+            }
+        }
+    }
+
+    private void prepararRegistros(int total) {
+        if (registros.length < total) {
+            int anterior = registros.length;
+            registros = Arrays.copyOf(registros, total);
+            for (int i = anterior; i < total; i++) {
+                registros[i] = new RegistroRecursos();
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            registros[i].limpar();
+        }
+    }
+
+    /**
+     * Tarefa recursiva que divide a lista de prédios em faixas.
+     */
+    private static class TarefaEfeitos extends RecursiveAction {
+        private final City cidade;
+        private final List<Predio> predios;
+        private final RegistroRecursos[] registros;
+        private final int inicio;
+        private final int fim;
+
+        TarefaEfeitos(City cidade, List<Predio> predios, RegistroRecursos[] registros, int inicio, int fim) {
+            this.cidade = cidade;
+            this.predios = predios;
+            this.registros = registros;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= LIMITE_DIVISAO) {
+                for (int i = inicio; i < fim; i++) {
+                    Predio predio = predios.get(i);
+                    if (predio.permiteEfeitoParalelo()) {
+                        predio.efeito(cidade, registros[i]);
+                    }
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaEfeitos(cidade, predios, registros, inicio, meio),
+                      new TarefaEfeitos(cidade, predios, registros, meio, fim));
+        }
+    }
+
+    /**
+     * Conta local de um prédio: guarda cada soma de dinheiro na ordem em que ocorreu
+     * (para repetir a mesma sequência de arredondamentos) e o total de peças.
+     */
+    static class RegistroRecursos implements ContaRecursos {
+        private double[] dinheiro = new double[8];
+        private int qtdDinheiro;
+        private int pecas;
+
+        @Override
+        public void addDinheiro(double valor) {
+            if (qtdDinheiro == dinheiro.length) {
+                dinheiro = Arrays.copyOf(dinheiro, dinheiro.length * 2);
+            }
+            dinheiro[qtdDinheiro++] = valor;
+        }
+
+        @Override
+        public void addPecas(int valor) {
+            pecas += valor;
+        }
+
+        void aplicarEm(ContaRecursos conta) {
+            for (int i = 0; i < qtdDinheiro; i++) {
+                conta.addDinheiro(dinheiro[i]);
+            }
+            if (pecas != 0) {
+                conta.addPecas(pecas);
+            }
+        }
+
+        void limpar() {
+            qtdDinheiro = 0;
+            pecas = 0;
+        }
+    }
+}
@@ -18,7 +18,20 @@ public class RoboController {
      * @return true se o treinamento foi iniciado com sucesso, false caso contrário
      */
     public boolean treinarRobo(City city, TipoDeRobo tipoRobo) {
-        if (city == null || tipoRobo == null) {
+        return treinarRobos(city, tipoRobo, 1);
+    }
+
+    /**
+     * Inicia o treinamento de vários robôs do mesmo tipo de uma só vez.
+     * O custo do lote inteiro é verificado e debitado junto: se a cidade não puder pagar
+     * todos os robôs, nenhum recurso é gasto e nada entra na fila.
+     * @param city A cidade onde o treinamento será realizado
+     * @param tipoRobo O tipo de robô a ser treinado
+     * @param quantidade Quantidade de robôs do lote
+     * @return true se o lote foi colocado na fila, false caso contrário
+     */
+    public boolean treinarRobos(City city, TipoDeRobo tipoRobo, int quantidade) {
+        if (city == null || tipoRobo == null || quantidade <= 0) {
             return false;
         }
         
@@ -28,16 +41,16 @@ public class RoboController {
             return false; // Não há centro na cidade
         }
         
-        // Verifica se a cidade tem recursos suficientes
-        double custoDinheiro = centro.getCustoTreinamentoDinheiro();
-        int custoPecas = centro.getCustoTreinamentoPecas();
+        // Verifica e debita os recursos do lote inteiro
+        double custoDinheiro = centro.getCustoTreinamentoDinheiro() * quantidade;
+        long custoPecas = (long) centro.getCustoTreinamentoPecas() * quantidade;
         
-        if (!city.gastarDinheiro(custoDinheiro) || !city.gastarPecas(custoPecas)) {
+        if (!city.gastarRecursos(custoDinheiro, custoPecas)) {
             return false; // Recursos insuficientes
         }
         
         // Inicia o treinamento
-        centro.iniciarTreinamento(tipoRobo);
+        centro.iniciarTreinamento(tipoRobo, quantidade);
         return true;
     }
     
@@ -104,30 +117,14 @@ public class RoboController {
             return false;
         }
         
-        // Busca em todos os prédios da cidade
-        for (Predio predio : city.getPredios()) {
-            if (predio instanceof predioComercial) {
-                predioComercial comercial = (predioComercial) predio;
-                if (comercial.getRobos().contains(robo)) {
-                    comercial.removeRobo(robo);
-                    return true;
-                }
-            } else if (predio instanceof predioResidencial) {
-                predioResidencial residencial = (predioResidencial) predio;
-                if (residencial.getRobos().contains(robo)) {
-                    residencial.removeRobo(robo);
-                    return true;
-                }
-            } else if (predio instanceof PredioDecorativo) {
-                PredioDecorativo decorativo = (PredioDecorativo) predio;
-                if (decorativo.getRobos().contains(robo)) {
-                    decorativo.removeRobo(robo);
-                    return true;
-                }
-            }
+        // Consulta o índice de ocupação da cidade
+        Predio predio = city.getPredioDoRobo(robo);
+        if (predio == null) {
+            return false;
         }
         
-        return false;
+        predio.removeRobo(robo);
+        return true;
     }
     
     /**
@@ -158,19 +155,12 @@ public class RoboController {
             return new ArrayList<>();
         }
         
-        List<Robo> disponiveis = new ArrayList<>(city.getRobos());
-        
-        // Remove robôs que estão em prédios (incluindo decorativos)
-        for (Predio predio : city.getPredios()) {
-            if (predio instanceof predioComercial) {
-                predioComercial comercial = (predioComercial) predio;
-                disponiveis.removeAll(comercial.getRobos());
-            } else if (predio instanceof predioResidencial) {
-                predioResidencial residencial = (predioResidencial) predio;
-                disponiveis.removeAll(residencial.getRobos());
-            } else if (predio instanceof PredioDecorativo) {
-                PredioDecorativo decorativo = (PredioDecorativo) predio;
-                disponiveis.removeAll(decorativo.getRobos());
+        // Mantém apenas os robôs fora de prédios (incluindo decorativos), consultando
+        // o índice de ocupação da cidade em O(1) por robô
+        List<Robo> disponiveis = new ArrayList<>();
+        for (Robo robo : city.getRobos()) {
+            if (city.getPredioDoRobo(robo) == null) {
+                disponiveis.add(robo);
             }
         }
         
@@ -188,25 +178,7 @@ public class RoboController {
             return null;
         }
         
-        for (Predio predio : city.getPredios()) {
-            if (predio instanceof predioComercial) {
-                predioComercial comercial = (predioComercial) predio;
-                if (comercial.getRobos().contains(robo)) {
-                    return predio;
-                }
-            } else if (predio instanceof predioResidencial) {
-                predioResidencial residencial = (predioResidencial) predio;
-                if (residencial.getRobos().contains(robo)) {
-                    return predio;
-                }
-            } else if (predio instanceof PredioDecorativo) {
-                PredioDecorativo decorativo = (PredioDecorativo) predio;
-                if (decorativo.getRobos().contains(robo)) {
-                    return predio;
-                }
-            }
-        }
-        return null;
+        return city.getPredioDoRobo(robo);
     }
     
     /**
@@ -230,6 +202,19 @@ public class RoboController {
         return robosDoTipo;
     }
     
+    /**
+     * Conta os robôs de um tipo específico na cidade, sem alocar listas.
+     * @param city A cidade
+     * @param tipoRobo O tipo de robô
+     * @return Quantidade de robôs do tipo especificado
+     */
+    public int contarRobosPorTipo(City city, TipoDeRobo tipoRobo) {
+        if (city == null || tipoRobo == null) {
+            return 0;
+        }
+        return city.contarRobosPorTipo(tipoRobo);
+    }
+
     /**
      * Calcula o bônus de felicidade proporcionado pelos robôs de segurança.
      * Cada segurança adiciona +3 pontos à felicidade média (máximo +15 com 5 seguranças).
@@ -241,8 +226,7 @@ public class RoboController {
             return 0.0;
         }
         
-        List<Robo> segurancas = listarRobosPorTipo(city, TipoDeRobo.SEGURANCA);
-        int qtdSegurancas = Math.min(segurancas.size(), 5); // Máximo de 5 seguranças contam
+        int qtdSegurancas = Math.min(contarRobosPorTipo(city, TipoDeRobo.SEGURANCA), 5); // Máximo de 5 seguranças contam
         return qtdSegurancas * 3.0; // +3 pontos por segurança
     }
     
@@ -1,8 +1,11 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe que representa o prédio central (Centro de Treinamento).
@@ -16,6 +19,11 @@ import java.util.List;
  *   <li>Segurança: 3 turnos</li>
  * </ul>
  * 
+ * <p>A fila é uma min-heap ordenada pelo turno de conclusão de cada treinamento, contado
+ * pelo próprio Centro. Cada turno retira apenas os robôs que se formam, sem percorrer
+ * o restante da fila. Na serialização a fila continua sendo uma lista de
+ * {@link RoboEmTreinamento} com o tempo restante de cada item, em ordem de chegada.
+ * 
  * <p>O Centro não é visível no mapa, mas sua funcionalidade permanece ativa.
  * 
  * @author Sistema Cidade dos Robôs
@@ -26,7 +34,20 @@ public class Centro extends Predio {
     private double custoTreinamentoDinheiro;
     private int custoTreinamentoPecas;
     private int tempoTreinamentoTurnos;
-    private List<RoboEmTreinamento> filaDeTreinamento;
+    private PriorityQueue<Agendamento> filaDeTreinamento;
+    private long turnosProcessados; // relógio interno da fila, avança a cada efeito
+    private long proximaSequencia;  // desempata conclusões no mesmo turno pela ordem de chegada
+    private int emTreinamento;      // total de robôs na fila, somando os lotes
+
+    /**
+     * Lote de treinamento agendado: tipo, quantidade de robôs e turno (do relógio interno)
+     * em que eles ficam prontos. Um pedido de N robôs iguais ocupa uma única entrada.
+     */
+    private record Agendamento(long turnoConclusao, long sequencia, TipoDeRobo tipo, int quantidade) {
+        static final Comparator<Agendamento> ORDEM = Comparator
+                .comparingLong(Agendamento::turnoConclusao)
+                .thenComparingLong(Agendamento::sequencia);
+    }
 
     /**
      * Construtor padrão para deserialização JSON (Jackson).
@@ -36,7 +57,7 @@ public class Centro extends Predio {
         this.custoTreinamentoDinheiro = 200.0;
         this.custoTreinamentoPecas = 50;
         this.tempoTreinamentoTurnos = 3;
-        this.filaDeTreinamento = new ArrayList<>();
+        this.filaDeTreinamento = new PriorityQueue<>(Agendamento.ORDEM);
     }
     
     /**
@@ -50,7 +71,24 @@ public class Centro extends Predio {
         this.custoTreinamentoDinheiro = 200.0;
         this.custoTreinamentoPecas = 50;
         this.tempoTreinamentoTurnos = 3;
-        this.filaDeTreinamento = new ArrayList<>();
+        this.filaDeTreinamento = new PriorityQueue<>(Agendamento.ORDEM);
+    }
+
+    private Centro(Centro original) {
+        super(original);
+        this.custoTreinamentoDinheiro = original.custoTreinamentoDinheiro;
+        this.custoTreinamentoPecas = original.custoTreinamentoPecas;
+        this.tempoTreinamentoTurnos = original.tempoTreinamentoTurnos;
+        // Agendamentos são imutáveis: basta copiar a heap
+        this.filaDeTreinamento = new PriorityQueue<>(original.filaDeTreinamento);
+        this.turnosProcessados = original.turnosProcessados;
+        this.proximaSequencia = original.proximaSequencia;
+        this.emTreinamento = original.emTreinamento;
+    }
+
+    @Override
+    protected Predio copiar(UnaryOperator<Robo> copiaDoRobo) {
+        return new Centro(this);
     }
 
     /**
@@ -80,8 +118,8 @@ public class Centro extends Predio {
     /**
      * Aplica o efeito do Centro na cidade a cada turno.
      * 
-     * <p>Processa a fila de treinamento, reduzindo o tempo restante de cada robô em treinamento.
-     * Quando o treinamento é concluído, cria o robô e o adiciona à cidade.
+     * <p>Avança o relógio da fila em 1 turno e retira da heap apenas os treinamentos
+     * concluídos, criando os robôs na ordem em que foram solicitados e adicionando-os à cidade.
      * 
      * @param city A cidade onde o Centro está localizado
      */
@@ -91,39 +129,15 @@ public class Centro extends Predio {
             return; // Nada para fazer
         }
 
-        List<Robo> robosProntos = new ArrayList<>();
-
-        // Usar Iterator é crucial para remover itens da lista durante a iteração
-        Iterator<RoboEmTreinamento> iterador = this.filaDeTreinamento.iterator();
-
-        while (iterador.hasNext()) {
-            RoboEmTreinamento item = iterador.next();
-
-            // 1. Reduz o tempo restante em 1 turno
-            item.reduzirTempoRestante();
-
-            // 2. Verifica se o treinamento foi concluído
-            if (item.getTempoRestante() <= 0) {
-
-                // 3. Instancia o robô na posição da Academia
-                Robo novoRobo = criarRoboPorTipo(
-                        item.getTipo(),
-                        this.getPosX(),
-                        this.getPosY()
-                );
-
-                robosProntos.add(novoRobo);
-
-                // 4. Remove o item concluído da fila
-                iterador.remove();
+        turnosProcessados++;
+        while (!filaDeTreinamento.isEmpty() && filaDeTreinamento.peek().turnoConclusao() <= turnosProcessados) {
+            Agendamento pronto = filaDeTreinamento.poll();
+            emTreinamento -= pronto.quantidade();
+            for (int i = 0; i < pronto.quantidade(); i++) {
+                // Instancia o robô na posição da Academia
+                city.addRobo(criarRoboPorTipo(pronto.tipo(), this.getPosX(), this.getPosY()));
             }
         }
-
-        // 5. Adiciona os novos robôs à cidade
-        for (Robo robo : robosProntos) {
-            city.addRobo(robo);
-            // O Controller pode ser notificado aqui para atualizar a View com o novo robô.
-        }
     }
 
     /**
@@ -139,6 +153,24 @@ public class Centro extends Predio {
      * @param tipo O tipo de robô a ser treinado
      */
     public void iniciarTreinamento(TipoDeRobo tipo) {
+        iniciarTreinamento(tipo, 1);
+    }
+
+    /**
+     * Inicia o treinamento de um lote de robôs do mesmo tipo.
+     * 
+     * <p>O lote entra na fila como uma única entrada e todos os robôs ficam prontos no mesmo
+     * turno, com o tempo de treinamento do tipo. Não verifica recursos: a cobrança é feita
+     * pelo {@code RoboController}.
+     * 
+     * @param tipo O tipo de robô a ser treinado
+     * @param quantidade Quantidade de robôs do lote
+     * @throws IllegalArgumentException Se a quantidade não for positiva
+     */
+    public void iniciarTreinamento(TipoDeRobo tipo, int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("A quantidade de robôs deve ser positiva.");
+        }
         // Tempos diferentes de treinamento por tipo de robô
         int tempoTreinamento;
         switch (tipo) {
@@ -154,7 +186,25 @@ public class Centro extends Predio {
             default:
                 tempoTreinamento = this.tempoTreinamentoTurnos; // Usa o padrão
         }
-        this.filaDeTreinamento.add(new RoboEmTreinamento(tipo, tempoTreinamento));
+        agendar(tipo, tempoTreinamento, quantidade);
+    }
+
+    /**
+     * Coloca um treinamento na fila.
+     * 
+     * <p>Tempos menores que 1 são tratados como 1: o robô fica pronto no próximo turno.
+     */
+    private void agendar(TipoDeRobo tipo, int tempoRestante, int quantidade) {
+        long conclusao = turnosProcessados + Math.max(1, tempoRestante);
+        filaDeTreinamento.add(new Agendamento(conclusao, proximaSequencia++, tipo, quantidade));
+        emTreinamento += quantidade;
+    }
+
+    /**
+     * @return Quantidade de robôs em treinamento, sem montar a lista da fila
+     */
+    public int contarEmTreinamento() {
+        return emTreinamento;
     }
 
     public double getCustoTreinamentoDinheiro() {
@@ -165,20 +215,38 @@ public class Centro extends Predio {
         return custoTreinamentoPecas;
     }
 
+    /**
+     * Monta a fila de treinamento em ordem de chegada, com o tempo restante de cada robô.
+     * 
+     * <p>A lista é uma cópia somente leitura; para alterar a fila use
+     * {@link #iniciarTreinamento(TipoDeRobo)} ou {@link #setFilaDeTreinamento(List)}.
+     * 
+     * @return A fila atual (também usada pelo Jackson na serialização)
+     */
     public List<RoboEmTreinamento> getFilaDeTreinamento() {
-        if (filaDeTreinamento == null) {
-            filaDeTreinamento = new ArrayList<>();
+        List<Agendamento> ordenados = new ArrayList<>(filaDeTreinamento);
+        ordenados.sort(Comparator.comparingLong(Agendamento::sequencia));
+
+        List<RoboEmTreinamento> fila = new ArrayList<>(emTreinamento);
+        for (Agendamento agendamento : ordenados) {
+            int tempoRestante = (int) (agendamento.turnoConclusao() - turnosProcessados);
+            for (int i = 0; i < agendamento.quantidade(); i++) {
+                fila.add(new RoboEmTreinamento(agendamento.tipo(), tempoRestante));
+            }
         }
-        // Retorna a lista original para Jackson poder serializar corretamente
-        return filaDeTreinamento;
+        return Collections.unmodifiableList(fila);
     }
     
     // Setter para Jackson deserializar
     public void setFilaDeTreinamento(List<RoboEmTreinamento> fila) {
-        if (fila == null) {
-            this.filaDeTreinamento = new ArrayList<>();
-        } else {
-            this.filaDeTreinamento = new ArrayList<>(fila);
+        this.filaDeTreinamento = new PriorityQueue<>(Agendamento.ORDEM);
+        this.turnosProcessados = 0;
+        this.proximaSequencia = 0;
+        this.emTreinamento = 0;
+        if (fila != null) {
+            for (RoboEmTreinamento item : fila) {
+                agendar(item.getTipo(), item.getTempoRestante(), 1);
+            }
         }
     }
     
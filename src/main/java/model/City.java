@@ -1,7 +1,12 @@
 package model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Classe que representa uma cidade no jogo Cidade dos Robôs.
@@ -11,18 +16,41 @@ import java.util.List;
  * 
  * <p>A cidade é inicializada com recursos iniciais e prédios decorativos pré-colocados.
  * 
+ * <p>Dinheiro e peças podem ser lidos e alterados por várias threads ao mesmo tempo (interface,
+ * salvamento em segundo plano, efeitos paralelos) sem trava: cada operação é um laço de
+ * compare-and-set, e um gasto só é aplicado se o saldo lido ainda for o atual.
+ * 
  * @author Sistema Cidade dos Robôs
  * @version 1.0
  */
-public class City {
-    private double dinheiro;
-    private int pecas;
+public class City implements ContaRecursos {
+    // O dinheiro é guardado como os bits do double, para o compare-and-set comparar o valor exato
+    private final AtomicLong dinheiro = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicInteger pecas = new AtomicInteger();
     private String nome;
     private int turnoAtual;
-    private List<Robo> robos;
+    private TabelaRobos robos;
     private List<Predio> Predios;
     private double felicidadeMedia;
-    private static final int MAP_size = 30;
+    private int larguraMapa;
+    private int alturaMapa;
+    // Índice de ocupação: robô -> prédio onde está alocado (reconstruído a partir dos prédios, não serializado)
+    // Por identidade: o id (e o hash) do robô muda quando ele entra na cidade
+    private final Map<Robo, Predio> predioPorRobo = new IdentityHashMap<>();
+    // Mapa de ocupação das células por prédios (reconstruído a partir dos prédios, não serializado)
+    private GradeOcupacao ocupacao;
+    // Índice id -> prédio (reconstruído a partir dos prédios, não serializado)
+    private final MapaIds<Predio> prediosPorId = new MapaIds<>();
+    private long proximoIdPredio = 1;
+    // Mudanças nos prédios e na ocupação (invalidam o diário de turnos)
+    private long versaoEstrutura;
+
+    /** Tamanho padrão do mapa, usado também por saves antigos que não guardam as dimensões. */
+    public static final int TAMANHO_PADRAO_MAPA = 30;
+    /** Menor lado de mapa aceito (os prédios decorativos pré-colocados precisam caber). */
+    public static final int TAMANHO_MINIMO_MAPA = 30;
+    /** Maior lado de mapa aceito. */
+    public static final int TAMANHO_MAXIMO_MAPA = 32768;
 
     /**
      * Construtor principal para criar uma nova cidade.
@@ -34,34 +62,55 @@ public class City {
      *   <li>Felicidade média em 100%</li>
      *   <li>Um prédio CENTRO no centro do mapa</li>
      *   <li>6 prédios decorativos pré-colocados</li>
+     *   <li>Mapa de 30x30 células</li>
      * </ul>
      * 
      * @param nome Nome da cidade
      */
     public City(String nome){
-        this.dinheiro = 15000.0;
-        this.pecas = 10000;
+        this(nome, TAMANHO_PADRAO_MAPA, TAMANHO_PADRAO_MAPA);
+    }
+
+    /**
+     * Cria uma nova cidade com um mapa de dimensões específicas.
+     *
+     * <p>A ocupação do mapa é guardada em uma {@link GradeOcupacao} esparsa, então mapas
+     * grandes só consomem memória nas regiões onde há prédios.
+     *
+     * @param nome Nome da cidade
+     * @param larguraMapa Largura do mapa em células
+     * @param alturaMapa Altura do mapa em células
+     * @throws IllegalArgumentException Se alguma dimensão estiver fora dos limites aceitos
+     */
+    public City(String nome, int larguraMapa, int alturaMapa){
+        validarDimensao(larguraMapa);
+        validarDimensao(alturaMapa);
+        this.larguraMapa = larguraMapa;
+        this.alturaMapa = alturaMapa;
+        this.ocupacao = new GradeOcupacao(larguraMapa, alturaMapa);
+        setDinheiro(15000.0);
+        setPecas(10000);
         this.nome = nome;
         this.turnoAtual = 0;
-        this.robos = new ArrayList<>();
+        this.robos = new TabelaRobos();
         this.Predios = new ArrayList<>();
         this.felicidadeMedia = 100.0;
 
-        this.Predios.add(new Centro(MAP_size/2, MAP_size/2));
+        addPredio(new Centro(larguraMapa/2, alturaMapa/2));
         
         // Adiciona prédios decorativos pré-colocados no mapa
         // Monumento 1
-        this.Predios.add(new PredioDecorativo(TipoPredio.MONUMENTO, 5, 5, 3, 3));
+        addPredio(new PredioDecorativo(TipoPredio.MONUMENTO, 5, 5, 3, 3));
         // Monumento 2
-        this.Predios.add(new PredioDecorativo(TipoPredio.MONUMENTO, 22, 8, 3, 3));
+        addPredio(new PredioDecorativo(TipoPredio.MONUMENTO, 22, 8, 3, 3));
         // Torre de Comunicação
-        this.Predios.add(new PredioDecorativo(TipoPredio.TORRE_COMUNICACAO, 15, 3, 2, 3));
+        addPredio(new PredioDecorativo(TipoPredio.TORRE_COMUNICACAO, 15, 3, 2, 3));
         // Estação de Energia
-        this.Predios.add(new PredioDecorativo(TipoPredio.ESTACAO_ENERGIA, 8, 20, 3, 3));
+        addPredio(new PredioDecorativo(TipoPredio.ESTACAO_ENERGIA, 8, 20, 3, 3));
         // Jardim Zen
-        this.Predios.add(new PredioDecorativo(TipoPredio.JARDIM_ZEN, 20, 20, 3, 3));
+        addPredio(new PredioDecorativo(TipoPredio.JARDIM_ZEN, 20, 20, 3, 3));
         // Observatório
-        this.Predios.add(new PredioDecorativo(TipoPredio.OBSERVATORIO, 3, 15, 2, 2));
+        addPredio(new PredioDecorativo(TipoPredio.OBSERVATORIO, 3, 15, 2, 2));
     }
 
     /**
@@ -69,12 +118,58 @@ public class City {
      * Inicializa listas vazias. Prédios decorativos são adicionados apenas no construtor com nome.
      */
     public City(){
-        this.robos = new ArrayList<>();
+        this.robos = new TabelaRobos();
         this.Predios = new ArrayList<>();
+        // Saves antigos não guardam as dimensões: assumem o mapa padrão
+        this.larguraMapa = TAMANHO_PADRAO_MAPA;
+        this.alturaMapa = TAMANHO_PADRAO_MAPA;
+        this.ocupacao = new GradeOcupacao(larguraMapa, alturaMapa);
         // Prédios decorativos são adicionados apenas no construtor com nome
         // Quando carregado do JSON, eles já vêm salvos
     }
 
+    /**
+     * Cria um snapshot da cidade: uma cópia profunda e independente do estado atual.
+     *
+     * <p>As colunas de atributos dos robôs são copiadas em bloco e cada prédio é copiado com
+     * seus ocupantes apontando para as cópias dos robôs. Depois de criado, o snapshot não é
+     * afetado pelos turnos seguintes da cidade original, então pode ser serializado em outra
+     * thread enquanto o jogo continua. O custo é linear no número de robôs e prédios.
+     *
+     * @return Uma nova cidade com o mesmo estado
+     */
+    public City criarSnapshot(){
+        City copia = new City();
+        copia.dinheiro.set(dinheiro.get());
+        copia.pecas.set(pecas.get());
+        copia.nome = nome;
+        copia.turnoAtual = turnoAtual;
+        copia.felicidadeMedia = felicidadeMedia;
+        copia.larguraMapa = larguraMapa;
+        copia.alturaMapa = alturaMapa;
+        copia.ocupacao = ocupacao.copiar();
+        copia.proximoIdPredio = proximoIdPredio;
+
+        Map<Robo, Robo> copias = new IdentityHashMap<>(robos.size() * 2);
+        copia.robos = robos.copiar(copias);
+
+        copia.Predios = new ArrayList<>(Predios.size());
+        for (Predio predio : Predios) {
+            // Ocupantes fora da lista da cidade (ex: cópias vindas de um save) são copiados à parte
+            Predio predioCopia = predio.copiar(robo -> {
+                Robo roboCopia = copias.get(robo);
+                return roboCopia != null ? roboCopia : robo.copiar();
+            });
+            copia.Predios.add(predioCopia);
+            copia.prediosPorId.put(predioCopia.getId(), predioCopia);
+            predioCopia.vincularCidade(copia);
+            for (Robo robo : predioCopia.listarOcupantes()) {
+                copia.predioPorRobo.put(robo, predioCopia);
+            }
+        }
+        return copia;
+    }
+
     /**
      * Tenta gastar dinheiro da cidade.
      * 
@@ -82,11 +177,16 @@ public class City {
      * @return true se havia dinheiro suficiente e foi gasto, false caso contrário
      */
     public boolean gastarDinheiro(double valor){
-        if (this.dinheiro >= valor){
-            this.dinheiro -= valor;
-            return true;
+        while (true) {
+            long bits = dinheiro.get();
+            double atual = Double.longBitsToDouble(bits);
+            if (!(atual >= valor)) {
+                return false;
+            }
+            if (dinheiro.compareAndSet(bits, Double.doubleToRawLongBits(atual - valor))) {
+                return true;
+            }
         }
-        return false;
     }
 
     /**
@@ -96,11 +196,38 @@ public class City {
      * @return true se havia peças suficientes e foram gastas, false caso contrário
      */
     public boolean gastarPecas(int valor){
-        if (this.pecas >= valor){
-            this.pecas -= valor;
-            return true;
+        while (true) {
+            int atual = pecas.get();
+            if (atual < valor) {
+                return false;
+            }
+            if (pecas.compareAndSet(atual, atual - valor)) {
+                return true;
+            }
         }
-        return false;
+    }
+
+    /**
+     * Tenta gastar dinheiro e peças juntos: ou os dois valores são debitados, ou nenhum.
+     * 
+     * <p>As peças são reservadas primeiro e o dinheiro depois; se faltar dinheiro, a reserva
+     * de peças é devolvida. A devolução de um inteiro é exata, então o saldo final nunca
+     * sofre arredondamento. Enquanto a reserva existe, outra compra concorrente pode ver
+     * menos peças e falhar, mas nunca há gasto acima do saldo.
+     * 
+     * @param valorDinheiro Quantidade de dinheiro a ser gasta
+     * @param valorPecas Quantidade de peças a ser gasta
+     * @return true se a cidade tinha os dois recursos e eles foram debitados
+     */
+    public boolean gastarRecursos(double valorDinheiro, long valorPecas){
+        if (valorPecas > Integer.MAX_VALUE || !gastarPecas((int) valorPecas)) {
+            return false;
+        }
+        if (!gastarDinheiro(valorDinheiro)) {
+            pecas.addAndGet((int) valorPecas);
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -108,8 +235,15 @@ public class City {
      * 
      * @param valor Valor a ser adicionado
      */
+    @Override
     public void addDinheiro(double valor){
-        this.dinheiro += valor;
+        while (true) {
+            long bits = dinheiro.get();
+            long novo = Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + valor);
+            if (dinheiro.compareAndSet(bits, novo)) {
+                return;
+            }
+        }
     }
 
     /**
@@ -117,24 +251,43 @@ public class City {
      * 
      * @param valor Quantidade de peças a ser adicionada
      */
+    @Override
     public void addPecas(int valor){
-        this.pecas += valor;
+        pecas.addAndGet(valor);
     }
 
     /**
      * Calcula e atualiza a felicidade média de todos os robôs da cidade.
      * Se não houver robôs, mantém o valor atual.
+     * A soma é mantida incrementalmente pela {@link TabelaRobos}, então o cálculo é O(1).
      */
     public void felicidadeMedia(){
         if (!robos.isEmpty()){
-            double media = 0;
-            for (Robo robo : robos){
-                media += robo.getFelicidade();
-                }
-            this.felicidadeMedia = media / robos.size();
+            this.felicidadeMedia = robos.somaFelicidade() / robos.size();
         }
     }
 
+    /**
+     * Conta os robôs infelizes (felicidade abaixo de {@link TabelaRobos#LIMITE_INFELIZ}).
+     * A contagem é mantida incrementalmente, então a consulta é O(1).
+     *
+     * @return A quantidade de robôs infelizes
+     */
+    public int contarRobosInfelizes(){
+        return robos.contarInfelizes();
+    }
+
+    /**
+     * Conta os robôs de um tipo na cidade. A contagem é mantida pela {@link TabelaRobos}
+     * ao adicionar e remover robôs, então a consulta é O(1) e não aloca listas.
+     *
+     * @param tipo O tipo de robô
+     * @return A quantidade de robôs do tipo
+     */
+    public int contarRobosPorTipo(TipoDeRobo tipo){
+        return robos.contarPorTipo(tipo);
+    }
+
     /**
      * Adiciona um robô à cidade.
      * 
@@ -145,12 +298,165 @@ public class City {
     }
 
     /**
-     * Adiciona um prédio à cidade.
+     * Adiciona um prédio à cidade. O prédio recebe um id novo se ainda não tiver um
+     * (ou se o id já estiver em uso por outro prédio da cidade).
      * 
      * @param predio O prédio a ser adicionado
      */
     public void addPredio(Predio predio){
         this.Predios.add(predio);
+        vincularPredio(predio);
+    }
+
+    /**
+     * Vincula um prédio à cidade, indexa os robôs que já estão nele e marca
+     * as células que ele ocupa no mapa.
+     *
+     * @param predio O prédio a ser vinculado
+     */
+    private void vincularPredio(Predio predio) {
+        versaoEstrutura++;
+        registrarId(predio);
+        predio.vincularCidade(this);
+        for (Robo robo : predio.listarOcupantes()) {
+            predioPorRobo.put(robo, predio);
+        }
+        marcarOcupacao(predio);
+    }
+
+    private void registrarId(Predio predio) {
+        long id = predio.getId();
+        if (id <= 0 || prediosPorId.contem(id)) {
+            id = proximoIdPredio++;
+            predio.atribuirId(id);
+        } else if (id >= proximoIdPredio) {
+            proximoIdPredio = id + 1;
+        }
+        prediosPorId.put(id, predio);
+    }
+
+    /**
+     * Busca um prédio da cidade pelo id, em um índice com chaves primitivas.
+     *
+     * @param id O id do prédio
+     * @return O prédio, ou null se não houver prédio com esse id
+     */
+    public Predio buscarPredio(long id) {
+        return prediosPorId.get(id);
+    }
+
+    /**
+     * Busca um robô da cidade pelo id, em um índice com chaves primitivas.
+     *
+     * @param id O id do robô
+     * @return O robô, ou null se não houver robô com esse id na cidade
+     */
+    public Robo buscarRobo(long id) {
+        return robos.buscarPorId(id);
+    }
+
+    /**
+     * Marca no mapa de ocupação as células cobertas pelo prédio.
+     * O Centro não é visível no mapa e não bloqueia construções, então não é marcado.
+     */
+    private void marcarOcupacao(Predio predio) {
+        if (predio.getTipo() == TipoPredio.CENTRO) {
+            return;
+        }
+        ocupacao.ocupar(predio.getPosX(), predio.getPosY(), predio.getLargura(), predio.getAltura());
+    }
+
+    /**
+     * Verifica se alguma célula da área já está ocupada por um prédio.
+     * Custa O(área) operações de máscara no mapa de ocupação, independente da quantidade de prédios.
+     * Células fora do mapa são ignoradas (os limites são validados por quem constrói).
+     *
+     * @param x Posição X da área
+     * @param y Posição Y da área
+     * @param largura Largura da área
+     * @param altura Altura da área
+     * @return true se a área se sobrepõe a algum prédio
+     */
+    public boolean areaOcupada(int x, int y, int largura, int altura) {
+        return ocupacao.areaOcupada(x, y, largura, altura);
+    }
+
+    /**
+     * Verifica se uma área cabe inteira dentro do mapa.
+     *
+     * @param x Posição X da área
+     * @param y Posição Y da área
+     * @param largura Largura da área
+     * @param altura Altura da área
+     * @return true se a área está dentro dos limites do mapa
+     */
+    public boolean dentroDoMapa(int x, int y, int largura, int altura) {
+        return x >= 0 && y >= 0 && x + largura <= larguraMapa && y + altura <= alturaMapa;
+    }
+
+    /**
+     * Recria o mapa de ocupação com as dimensões atuais e marca novamente todos os prédios.
+     */
+    private void reconstruirOcupacao() {
+        ocupacao = new GradeOcupacao(larguraMapa, alturaMapa);
+        for (Predio predio : Predios) {
+            marcarOcupacao(predio);
+        }
+    }
+
+    private static void validarDimensao(int dimensao) {
+        if (dimensao < TAMANHO_MINIMO_MAPA || dimensao > TAMANHO_MAXIMO_MAPA) {
+            throw new IllegalArgumentException("Dimensão do mapa deve estar entre "
+                    + TAMANHO_MINIMO_MAPA + " e " + TAMANHO_MAXIMO_MAPA + ": " + dimensao);
+        }
+    }
+
+    /**
+     * Retorna o prédio onde um robô está alocado, consultando o índice de ocupação.
+     *
+     * @param robo O robô a ser procurado
+     * @return O prédio onde o robô está, ou null se não estiver em nenhum
+     */
+    public Predio getPredioDoRobo(Robo robo) {
+        return predioPorRobo.get(robo);
+    }
+
+    /**
+     * Registra no índice de ocupação que um robô entrou em um prédio.
+     * Chamado pelos próprios prédios vinculados à cidade.
+     *
+     * @param robo O robô que entrou
+     * @param predio O prédio de destino
+     */
+    void registrarOcupante(Robo robo, Predio predio) {
+        predioPorRobo.put(robo, predio);
+        versaoEstrutura++;
+    }
+
+    /**
+     * Remove do índice de ocupação a alocação de um robô em um prédio.
+     * Só remove se o robô estiver indexado naquele prédio.
+     *
+     * @param robo O robô que saiu
+     * @param predio O prédio de onde o robô saiu
+     */
+    void removerOcupante(Robo robo, Predio predio) {
+        predioPorRobo.remove(robo, predio);
+        versaoEstrutura++;
+    }
+
+    /**
+     * Contador de mudanças na estrutura da cidade: prédios adicionados ou substituídos e
+     * robôs que entraram ou saíram de prédios. Os atributos dos robôs, os recursos e as filas
+     * de treinamento não mudam o contador.
+     *
+     * <p>Junto com {@link TabelaRobos#versaoSlots()}, indica ao diário de turnos se o estado
+     * ainda pode ser descrito como uma alteração do último checkpoint.
+     *
+     * @return A versão atual da estrutura
+     */
+    public long versaoEstrutura() {
+        return versaoEstrutura;
     }
 
     /**
@@ -161,19 +467,19 @@ public class City {
     }
 
     public double getDinheiro() {
-        return dinheiro;
+        return Double.longBitsToDouble(dinheiro.get());
     }
 
     public void setDinheiro(double dinheiro) {
-        this.dinheiro = dinheiro;
+        this.dinheiro.set(Double.doubleToRawLongBits(dinheiro));
     }
 
     public int getPecas() {
-        return pecas;
+        return pecas.get();
     }
 
     public void setPecas(int pecas) {
-        this.pecas = pecas;
+        this.pecas.set(pecas);
     }
 
     public String getNome() {
@@ -197,7 +503,27 @@ public class City {
     }
 
     public void setRobos(List<Robo> Robos) {
-        this.robos = Robos;
+        if (Robos == this.robos) {
+            return;
+        }
+        // Libera os robôs atuais antes, pois a nova lista pode conter alguns deles
+        long proximoId = this.robos.getProximoId();
+        this.robos.clear();
+        this.robos = new TabelaRobos();
+        this.robos.garantirProximoId(proximoId);
+        this.robos.addAll(Robos);
+    }
+
+    /**
+     * Retorna a tabela em colunas que armazena os atributos dos robôs da cidade.
+     * É a mesma instância retornada por {@link #getRobos()}, exposta com o tipo concreto
+     * para permitir varreduras por slot.
+     *
+     * @return A tabela de robôs da cidade
+     */
+    @JsonIgnore
+    public TabelaRobos getTabelaRobos() {
+        return robos;
     }
 
     public List<Predio> getPredios() {
@@ -205,7 +531,61 @@ public class City {
     }
 
     public void setPredios(List<Predio> Predios) {
+        versaoEstrutura++;
         this.Predios = Predios;
+        predioPorRobo.clear();
+        prediosPorId.limpar();
+        ocupacao.limpar();
+        for (Predio predio : Predios) {
+            vincularPredio(predio);
+        }
+    }
+
+    /**
+     * Contador de ids dos robôs, salvo junto com a cidade para que ids não se repitam
+     * depois de carregar um save.
+     *
+     * @return O id que será atribuído ao próximo robô
+     */
+    public long getProximoIdRobo() {
+        return robos.getProximoId();
+    }
+
+    public void setProximoIdRobo(long proximoIdRobo) {
+        robos.garantirProximoId(proximoIdRobo);
+    }
+
+    /**
+     * Contador de ids dos prédios, salvo junto com a cidade.
+     *
+     * @return O id que será atribuído ao próximo prédio
+     */
+    public long getProximoIdPredio() {
+        return proximoIdPredio;
+    }
+
+    public void setProximoIdPredio(long proximoIdPredio) {
+        this.proximoIdPredio = Math.max(this.proximoIdPredio, proximoIdPredio);
+    }
+
+    public int getLarguraMapa() {
+        return larguraMapa;
+    }
+
+    public void setLarguraMapa(int larguraMapa) {
+        validarDimensao(larguraMapa);
+        this.larguraMapa = larguraMapa;
+        reconstruirOcupacao();
+    }
+
+    public int getAlturaMapa() {
+        return alturaMapa;
+    }
+
+    public void setAlturaMapa(int alturaMapa) {
+        validarDimensao(alturaMapa);
+        this.alturaMapa = alturaMapa;
+        reconstruirOcupacao();
     }
 
     public double getFelicidadeMedia() {
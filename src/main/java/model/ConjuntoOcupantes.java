@@ -0,0 +1,189 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Conjunto dos robôs alocados em um prédio, sem repetição e na ordem de entrada.
+ *
+ * <p>Guarda os robôs em um array na ordem de entrada (acesso por índice, usado pela interface
+ * e pela serialização) e, por identidade, a posição de cada um no array (pertinência e remoção
+ * em O(1)). A pertinência não usa {@link Robo#equals(Object)}: o id, e com ele o hash, muda
+ * quando o robô entra em uma cidade, e um robô pode entrar no prédio antes disso.
+ *
+ * <p>Remover um robô apenas esvazia a posição dele no array. As posições vazias são compactadas,
+ * preservando a ordem, no próximo acesso por índice, então uma sequência de remoções custa uma
+ * única compactação.
+ *
+ * <p>É exposto como {@code List<Robo>} pelos prédios, então o formato do save não muda.
+ * Não aceita {@code set}: um ocupante sai com {@code remove} e outro entra com {@code add}.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+final class ConjuntoOcupantes extends AbstractList<Robo> implements RandomAccess {
+
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private Robo[] ordem; // null = posição esvaziada por uma remoção
+    private int fim; // Posições usadas em ordem, contando as vazias
+    private int vazias;
+    private final Map<Robo, Integer> posicoes;
+
+    ConjuntoOcupantes() {
+        ordem = new Robo[CAPACIDADE_INICIAL];
+        posicoes = new IdentityHashMap<>();
+    }
+
+    /**
+     * Cria o conjunto com os robôs informados, descartando repetidos.
+     *
+     * @param robos Os robôs iniciais
+     */
+    ConjuntoOcupantes(Collection<Robo> robos) {
+        ordem = new Robo[Math.max(robos.size(), CAPACIDADE_INICIAL)];
+        posicoes = new IdentityHashMap<>(robos.size());
+        for (Robo robo : robos) {
+            add(robo);
+        }
+    }
+
+    /**
+     * Adiciona o robô ao final, se ele ainda não estiver no conjunto.
+     *
+     * @return true se o robô foi adicionado
+     */
+    @Override
+    public boolean add(Robo robo) {
+        if (posicoes.containsKey(robo)) {
+            return false;
+        }
+        if (fim == ordem.length) {
+            compactar();
+            if (fim == ordem.length) {
+                ordem = Arrays.copyOf(ordem, ordem.length * 2);
+            }
+        }
+        ordem[fim] = robo;
+        posicoes.put(robo, fim);
+        fim++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int indice, Robo robo) {
+        if (posicoes.containsKey(robo)) {
+            throw new IllegalArgumentException("Robô já está no prédio.");
+        }
+        compactar();
+        Objects.checkIndex(indice, fim + 1);
+        if (fim == ordem.length) {
+            ordem = Arrays.copyOf(ordem, ordem.length * 2);
+        }
+        System.arraycopy(ordem, indice, ordem, indice + 1, fim - indice);
+        ordem[indice] = robo;
+        fim++;
+        for (int i = indice; i < fim; i++) {
+            posicoes.put(ordem[i], i);
+        }
+        modCount++;
+    }
+
+    @Override
+    public Robo get(int indice) {
+        compactar();
+        Objects.checkIndex(indice, fim);
+        return ordem[indice];
+    }
+
+    @Override
+    public int size() {
+        return fim - vazias;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return posicoes.containsKey(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!posicoes.containsKey(o)) {
+            return -1;
+        }
+        compactar();
+        return posicoes.get(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * Remove o robô em O(1), esvaziando a posição dele.
+     *
+     * @return true se o robô estava no conjunto
+     */
+    @Override
+    public boolean remove(Object o) {
+        Integer posicao = posicoes.remove(o);
+        if (posicao == null) {
+            return false;
+        }
+        ordem[posicao] = null;
+        if (posicao == fim - 1) {
+            fim--; // O último não deixa posição vazia
+        } else {
+            vazias++;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Robo remove(int indice) {
+        Robo robo = get(indice);
+        remove(robo);
+        return robo;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(ordem, 0, fim, null);
+        fim = 0;
+        vazias = 0;
+        posicoes.clear();
+        modCount++;
+    }
+
+    /**
+     * Fecha as posições esvaziadas pelas remoções, mantendo a ordem de entrada.
+     * Não altera o conteúdo, então não conta como modificação da lista.
+     */
+    private void compactar() {
+        if (vazias == 0) {
+            return;
+        }
+        int destino = 0;
+        for (int i = 0; i < fim; i++) {
+            Robo robo = ordem[i];
+            if (robo != null) {
+                if (destino != i) {
+                    ordem[destino] = robo;
+                    posicoes.put(robo, destino);
+                }
+                destino++;
+            }
+        }
+        Arrays.fill(ordem, destino, fim, null);
+        fim = destino;
+        vazias = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+/**
+ * Destino dos recursos produzidos pelos prédios a cada turno.
+ *
+ * <p>A {@link City} é a implementação padrão: os recursos entram direto no saldo da cidade.
+ * O processamento paralelo de turnos usa implementações que acumulam os valores
+ * localmente e só os aplicam na cidade ao final.
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public interface ContaRecursos {
+
+    /**
+     * Adiciona dinheiro à conta.
+     *
+     * @param valor Valor a ser adicionado
+     */
+    void addDinheiro(double valor);
+
+    /**
+     * Adiciona peças à conta.
+     *
+     * @param valor Quantidade de peças a ser adicionada
+     */
+    void addPecas(int valor);
+}
@@ -28,4 +28,13 @@ public class Engenheiro extends Robo {
     public Engenheiro(int x, int y){
         super(TipoDeRobo.ENGENHEIRO, x, y);
     }
+
+    private Engenheiro(Engenheiro original) {
+        super(original);
+    }
+
+    @Override
+    protected Robo copiar() {
+        return new Engenheiro(this);
+    }
 }
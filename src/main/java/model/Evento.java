@@ -0,0 +1,83 @@
+package model;
+
+/**
+ * Registro de um evento aleatório ocorrido em um turno.
+ * 
+ * <p>Guarda apenas os dados do evento. O texto exibido ao jogador é montado por
+ * {@link #descrever()} somente quando alguém vai mostrá-lo, então simulações sem interface
+ * não pagam pela formatação. Os campos que não se aplicam ao tipo ficam zerados.
+ * 
+ * @param tipo O tipo do evento
+ * @param turno O turno em que o evento ocorreu
+ * @param robosInfelizes Robôs infelizes no momento da greve (0 se não houve motivo)
+ * @param felicidadeMedia Felicidade média no momento da greve
+ * @param pecas Peças encontradas na descoberta
+ * @param dinheiro Dinheiro encontrado na descoberta
+ * @param reducaoImpacto Fração do impacto evitada pelos seguranças (0 a 0.25)
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public record Evento(TipoEvento tipo, int turno, int robosInfelizes, double felicidadeMedia,
+                     int pecas, double dinheiro, double reducaoImpacto) {
+
+    /**
+     * @param turno O turno do evento
+     * @param reducaoImpacto Fração do impacto evitada pelos seguranças
+     * @return Um apagão
+     */
+    public static Evento apagao(int turno, double reducaoImpacto) {
+        return new Evento(TipoEvento.APAGAO, turno, 0, 0.0, 0, 0.0, reducaoImpacto);
+    }
+
+    /**
+     * @param turno O turno do evento
+     * @param robosInfelizes Robôs infelizes que motivaram a greve, ou 0 se não houve motivo
+     * @param felicidadeMedia Felicidade média no início da greve
+     * @param reducaoImpacto Fração do impacto evitada pelos seguranças
+     * @return Uma greve
+     */
+    public static Evento greve(int turno, int robosInfelizes, double felicidadeMedia, double reducaoImpacto) {
+        return new Evento(TipoEvento.GREVE, turno, robosInfelizes, felicidadeMedia, 0, 0.0, reducaoImpacto);
+    }
+
+    /**
+     * @param turno O turno do evento
+     * @param pecas Peças encontradas
+     * @param dinheiro Dinheiro encontrado
+     * @return Uma descoberta de peças raras
+     */
+    public static Evento descobertaPecasRaras(int turno, int pecas, double dinheiro) {
+        return new Evento(TipoEvento.DESCOBERTA_PECAS_RARAS, turno, 0, 0.0, pecas, dinheiro, 0.0);
+    }
+
+    /**
+     * Monta a mensagem do evento para exibição.
+     * 
+     * @return O texto do evento
+     */
+    public String descrever() {
+        String mensagem;
+        switch (tipo) {
+            case APAGAO:
+                mensagem = "⚡ APAGÃO DE ENERGIA! Todos os robôs foram gravemente afetados (energia e felicidade -40)";
+                break;
+            case GREVE:
+                if (robosInfelizes > 0) {
+                    mensagem = String.format("⚠️ GREVE! %d robô(s) infeliz(es) (felicidade média: %.1f%%) iniciaram uma greve! Os robôs pararam de trabalhar.",
+                            robosInfelizes, felicidadeMedia);
+                } else {
+                    mensagem = "⚠️ GREVE! Os robôs estão insatisfeitos e pararam de trabalhar. Produção reduzida neste turno.";
+                }
+                break;
+            case DESCOBERTA_PECAS_RARAS:
+                return String.format("💎 DESCOBERTA DE PEÇAS RARAS! +%d peças e +%.2f de dinheiro encontrados! Todos os robôs ficaram mais felizes (+15 felicidade).",
+                        pecas, dinheiro);
+            default:
+                throw new IllegalStateException("Tipo de evento desconhecido: " + tipo);
+        }
+        if (reducaoImpacto > 0) {
+            mensagem += String.format(" (Seguranças reduziram o impacto em %.0f%%)", reducaoImpacto * 100);
+        }
+        return mensagem;
+    }
+}
@@ -0,0 +1,165 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Grade esparsa que marca quais células do mapa estão ocupadas por prédios.
+ *
+ * <p>O mapa é dividido em blocos (chunks) de 64x64 células. Cada bloco é um {@code long[64]},
+ * uma palavra de 64 bits por linha, e só é alocado quando alguma célula dele é ocupada.
+ * Assim uma cidade de 2000x2000 com prédios em poucas regiões paga memória apenas pelos
+ * blocos usados, e verificar uma área custa uma operação de máscara por linha de cada bloco.
+ *
+ * <p>Células fora dos limites do mapa são ignoradas: marcar uma área parcialmente fora
+ * marca apenas a parte interna, e consultar uma área fora do mapa retorna livre
+ * (os limites são validados por quem constrói).
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public class GradeOcupacao {
+
+    /** Lado de um bloco, em células. Igual ao número de bits de um long. */
+    public static final int TAMANHO_BLOCO = 64;
+
+    private final int largura;
+    private final int altura;
+    private final int blocosX;
+    private final long[][] blocos; // índice by * blocosX + bx; null = bloco vazio
+    private int blocosAlocados;
+
+    /**
+     * Cria uma grade vazia.
+     *
+     * @param largura Largura do mapa em células
+     * @param altura Altura do mapa em células
+     */
+    public GradeOcupacao(int largura, int altura) {
+        this.largura = largura;
+        this.altura = altura;
+        this.blocosX = (largura + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        int blocosY = (altura + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        this.blocos = new long[blocosX * blocosY][];
+    }
+
+    /**
+     * Marca uma área retangular como ocupada.
+     *
+     * @param x Posição X da área
+     * @param y Posição Y da área
+     * @param larguraArea Largura da área
+     * @param alturaArea Altura da área
+     */
+    public void ocupar(int x, int y, int larguraArea, int alturaArea) {
+        int inicioX = Math.max(0, x);
+        int fimX = Math.min(largura, x + larguraArea);
+        int inicioY = Math.max(0, y);
+        int fimY = Math.min(altura, y + alturaArea);
+
+        for (int linha = inicioY; linha < fimY; linha++) {
+            int by = linha / TAMANHO_BLOCO;
+            int linhaNoBloco = linha % TAMANHO_BLOCO;
+            for (int coluna = inicioX; coluna < fimX; ) {
+                int bx = coluna / TAMANHO_BLOCO;
+                int fimNoBloco = Math.min(fimX, (bx + 1) * TAMANHO_BLOCO);
+                long[] bloco = blocos[by * blocosX + bx];
+                if (bloco == null) {
+                    bloco = new long[TAMANHO_BLOCO];
+                    blocos[by * blocosX + bx] = bloco;
+                    blocosAlocados++;
+                }
+                bloco[linhaNoBloco] |= mascara(coluna % TAMANHO_BLOCO, fimNoBloco - coluna);
+                coluna = fimNoBloco;
+            }
+        }
+    }
+
+    /**
+     * Verifica se alguma célula da área está ocupada.
+     *
+     * @param x Posição X da área
+     * @param y Posição Y da área
+     * @param larguraArea Largura da área
+     * @param alturaArea Altura da área
+     * @return true se ao menos uma célula da área está ocupada
+     */
+    public boolean areaOcupada(int x, int y, int larguraArea, int alturaArea) {
+        int inicioX = Math.max(0, x);
+        int fimX = Math.min(largura, x + larguraArea);
+        int inicioY = Math.max(0, y);
+        int fimY = Math.min(altura, y + alturaArea);
+
+        for (int linha = inicioY; linha < fimY; linha++) {
+            int by = linha / TAMANHO_BLOCO;
+            int linhaNoBloco = linha % TAMANHO_BLOCO;
+            for (int coluna = inicioX; coluna < fimX; ) {
+                int bx = coluna / TAMANHO_BLOCO;
+                int fimNoBloco = Math.min(fimX, (bx + 1) * TAMANHO_BLOCO);
+                long[] bloco = blocos[by * blocosX + bx];
+                if (bloco != null
+                        && (bloco[linhaNoBloco] & mascara(coluna % TAMANHO_BLOCO, fimNoBloco - coluna)) != 0) {
+                    return true;
+                }
+                coluna = fimNoBloco;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica se uma célula está ocupada.
+     *
+     * @param x Posição X da célula
+     * @param y Posição Y da célula
+     * @return true se a célula está dentro do mapa e ocupada
+     */
+    public boolean celulaOcupada(int x, int y) {
+        return areaOcupada(x, y, 1, 1);
+    }
+
+    /**
+     * Cria uma cópia independente da grade, copiando apenas os blocos alocados.
+     *
+     * @return A cópia
+     */
+    public GradeOcupacao copiar() {
+        GradeOcupacao copia = new GradeOcupacao(largura, altura);
+        for (int i = 0; i < blocos.length; i++) {
+            if (blocos[i] != null) {
+                copia.blocos[i] = blocos[i].clone();
+            }
+        }
+        copia.blocosAlocados = blocosAlocados;
+        return copia;
+    }
+
+    /**
+     * Libera todas as células e devolve os blocos alocados.
+     */
+    public void limpar() {
+        Arrays.fill(blocos, null);
+        blocosAlocados = 0;
+    }
+
+    /**
+     * @return Quantidade de blocos 64x64 alocados (para diagnóstico de memória)
+     */
+    public int getBlocosAlocados() {
+        return blocosAlocados;
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    /**
+     * Máscara com {@code quantidade} bits ligados a partir do bit {@code inicio}.
+     */
+    private static long mascara(int inicio, int quantidade) {
+        return (-1L >>> (TAMANHO_BLOCO - quantidade)) << inicio;
+    }
+}
@@ -0,0 +1,158 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de identificadores numéricos ({@code long}) para objetos, com chaves primitivas.
+ *
+ * <p>Usa endereçamento aberto com sondagem linear sobre um array de {@code long}, sem
+ * criar objetos {@code Long} nem nós por entrada como um {@code HashMap<Long, V>}.
+ * A remoção desloca as entradas seguintes para trás, então não há marcadores de
+ * remoção e a busca nunca degrada com o tempo.
+ *
+ * <p>O identificador 0 significa "sem id" e não pode ser usado como chave.
+ *
+ * @param <V> Tipo dos valores
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+final class MapaIds<V> {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private long[] chaves;   // 0 = posição livre
+    private Object[] valores;
+    private int tamanho;
+
+    MapaIds() {
+        chaves = new long[CAPACIDADE_INICIAL];
+        valores = new Object[CAPACIDADE_INICIAL];
+    }
+
+    /**
+     * @param id O identificador
+     * @return O valor associado, ou null se não houver
+     */
+    @SuppressWarnings("unchecked")
+    V get(long id) {
+        if (id == 0) {
+            return null;
+        }
+        int mascara = chaves.length - 1;
+        for (int i = posicao(id, mascara); chaves[i] != 0; i = (i + 1) & mascara) {
+            if (chaves[i] == id) {
+                return (V) valores[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param id O identificador
+     * @return true se há um valor associado ao id
+     */
+    boolean contem(long id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Associa um valor a um id, substituindo o anterior.
+     *
+     * @param id O identificador (diferente de 0)
+     * @param valor O valor (não nulo)
+     * @throws IllegalArgumentException Se o id for 0
+     */
+    void put(long id, V valor) {
+        if (id == 0) {
+            throw new IllegalArgumentException("O id 0 é reservado.");
+        }
+        if ((tamanho + 1) * 4 > chaves.length * 3) {
+            redimensionar(chaves.length * 2);
+        }
+        int mascara = chaves.length - 1;
+        int i = posicao(id, mascara);
+        while (chaves[i] != 0) {
+            if (chaves[i] == id) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = id;
+        valores[i] = valor;
+        tamanho++;
+    }
+
+    /**
+     * Remove a associação de um id.
+     *
+     * @param id O identificador
+     * @return true se havia um valor associado
+     */
+    boolean remover(long id) {
+        if (id == 0) {
+            return false;
+        }
+        int mascara = chaves.length - 1;
+        int i = posicao(id, mascara);
+        while (chaves[i] != id) {
+            if (chaves[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        // Desloca para trás as entradas seguintes do mesmo agrupamento
+        int livre = i;
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = posicao(chaves[j], mascara);
+            // A entrada em j pode ocupar a posição livre se o seu lugar ideal não fica entre livre e j
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                chaves[livre] = chaves[j];
+                valores[livre] = valores[j];
+                livre = j;
+            }
+        }
+        chaves[livre] = 0;
+        valores[livre] = null;
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * Remove todas as associações, mantendo a capacidade.
+     */
+    void limpar() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, null);
+        tamanho = 0;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private void redimensionar(int capacidade) {
+        long[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        chaves = new long[capacidade];
+        valores = new Object[capacidade];
+        int mascara = capacidade - 1;
+        for (int k = 0; k < chavesAntigas.length; k++) {
+            if (chavesAntigas[k] != 0) {
+                int i = posicao(chavesAntigas[k], mascara);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chavesAntigas[k];
+                valores[i] = valoresAntigos[k];
+            }
+        }
+    }
+
+    private static int posicao(long id, int mascara) {
+        // Ids densos são sequenciais: espalha os bits antes de aplicar a máscara
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -1,8 +1,10 @@
 package model;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import java.util.UUID;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe abstrata que representa um prédio na cidade.
@@ -11,6 +13,9 @@ import java.util.UUID;
  * <p>Os prédios possuem posição, dimensões, custos de construção e um efeito
  * que é aplicado a cada turno na cidade.
  * 
+ * <p>Cada prédio tem um id numérico denso, atribuído pela cidade quando ele é adicionado
+ * (0 enquanto o prédio não pertence a nenhuma cidade).
+ * 
  * <p>Esta classe é serializada/deserializada usando Jackson com suporte a polimorfismo.
  * 
  * @author Sistema Cidade dos Robôs
@@ -33,7 +38,7 @@ import java.util.UUID;
 })
 public abstract class Predio {
 
-    private String id;
+    private long id; // 0 = ainda sem id
     private TipoPredio tipo;
     private double custoDinheiro;
     private int custoPecas;
@@ -41,13 +46,12 @@ public abstract class Predio {
     private int posY;
     private int largura;
     private int altura;
+    private City cidade; // Cidade que indexa os ocupantes deste prédio (não serializado)
 
     /**
      * Construtor padrão para deserialização JSON (Jackson).
-     * Gera um ID único para o prédio.
      */
     public Predio() {
-        this.id = UUID.randomUUID().toString();
     }
 
     /**
@@ -62,7 +66,6 @@ public abstract class Predio {
      * @param altura Altura do prédio em células
      */
     public Predio(TipoPredio tipo, double dinheiro, int pecas, int x, int y, int largura, int altura){
-        this.id = UUID.randomUUID().toString();
         this.tipo = tipo;
         this.custoDinheiro = dinheiro;
         this.custoPecas = pecas;
@@ -72,6 +75,42 @@ public abstract class Predio {
         this.altura = altura;
     }
 
+    /**
+     * Construtor de cópia, usado pelos snapshots da cidade. Copia identidade, posição,
+     * dimensões e custos; o prédio copiado ainda não está vinculado a nenhuma cidade.
+     *
+     * @param original O prédio a ser copiado
+     */
+    protected Predio(Predio original) {
+        this.id = original.id;
+        this.tipo = original.tipo;
+        this.custoDinheiro = original.custoDinheiro;
+        this.custoPecas = original.custoPecas;
+        this.posX = original.posX;
+        this.posY = original.posY;
+        this.largura = original.largura;
+        this.altura = original.altura;
+    }
+
+    /**
+     * Cria uma cópia independente do prédio para um snapshot da cidade.
+     *
+     * @param copiaDoRobo Função que devolve a cópia de cada robô ocupante
+     * @return A cópia do prédio, com os ocupantes substituídos pelas suas cópias
+     */
+    protected abstract Predio copiar(UnaryOperator<Robo> copiaDoRobo);
+
+    /**
+     * Copia um conjunto de ocupantes trocando cada robô pela sua cópia.
+     */
+    protected static List<Robo> copiarOcupantes(List<Robo> ocupantes, UnaryOperator<Robo> copiaDoRobo) {
+        List<Robo> copias = new ConjuntoOcupantes();
+        for (Robo robo : ocupantes) {
+            copias.add(copiaDoRobo.apply(robo));
+        }
+        return copias;
+    }
+
     /**
      * Método abstrato que define o efeito do prédio na cidade a cada turno.
      * Cada tipo de prédio implementa seu próprio efeito.
@@ -80,11 +119,141 @@ public abstract class Predio {
      */
     public abstract void efeito(City city);
 
-    public String getId() {
+    /**
+     * Aplica o efeito do prédio enviando os recursos produzidos para uma conta específica.
+     *
+     * <p>Por padrão ignora a conta e chama {@link #efeito(City)}. Prédios que produzem
+     * recursos sobrescrevem este método para que o processamento paralelo possa acumular
+     * a produção localmente.
+     *
+     * @param city A cidade onde o prédio está localizado
+     * @param conta A conta que recebe os recursos produzidos
+     */
+    public void efeito(City city, ContaRecursos conta) {
+        efeito(city);
+    }
+
+    /**
+     * Indica se o efeito deste prédio pode ser executado em paralelo com os de outros prédios.
+     *
+     * <p>Só pode ser paralelo o efeito que altera apenas os robôs alocados no próprio prédio
+     * e envia recursos pela {@link ContaRecursos}, sem modificar listas da cidade.
+     *
+     * @return true se o efeito pode ser executado em paralelo
+     */
+    public boolean permiteEfeitoParalelo() {
+        return false;
+    }
+
+    /**
+     * Adiciona um robô ao prédio. Por padrão o prédio não aceita robôs (ex: Centro).
+     *
+     * @param robo O robô a ser adicionado
+     * @return true se o robô foi adicionado com sucesso, false caso contrário
+     */
+    public boolean addRobo(Robo robo) {
+        return false;
+    }
+
+    /**
+     * Remove um robô do prédio. Por padrão não faz nada.
+     *
+     * @param robo O robô a ser removido
+     */
+    public void removeRobo(Robo robo) {
+    }
+
+    /**
+     * Retorna os robôs alocados no prédio. Usado pela cidade para montar o índice de ocupação.
+     *
+     * @return Lista de robôs no prédio (vazia se o prédio não aceita robôs)
+     */
+    protected List<Robo> listarOcupantes() {
+        return List.of();
+    }
+
+    /**
+     * Vincula o prédio à cidade, para que entradas e saídas de robôs atualizem o índice de ocupação.
+     *
+     * @param cidade A cidade que contém o prédio
+     */
+    void vincularCidade(City cidade) {
+        this.cidade = cidade;
+    }
+
+    /**
+     * Informa à cidade que um robô entrou no prédio.
+     *
+     * @param robo O robô que entrou
+     */
+    protected void notificarEntrada(Robo robo) {
+        if (cidade != null) {
+            cidade.registrarOcupante(robo, this);
+        }
+    }
+
+    /**
+     * Informa à cidade que um robô saiu do prédio.
+     *
+     * @param robo O robô que saiu
+     */
+    protected void notificarSaida(Robo robo) {
+        if (cidade != null) {
+            cidade.removerOcupante(robo, this);
+        }
+    }
+
+    /**
+     * Informa à cidade que a lista de ocupantes foi substituída por completo.
+     *
+     * @param anteriores Robôs que estavam no prédio
+     * @param novos Robôs que passaram a estar no prédio
+     */
+    protected void notificarTroca(List<Robo> anteriores, List<Robo> novos) {
+        if (cidade == null) {
+            return;
+        }
+        if (anteriores != null) {
+            for (Robo robo : anteriores) {
+                cidade.removerOcupante(robo, this);
+            }
+        }
+        for (Robo robo : novos) {
+            cidade.registrarOcupante(robo, this);
+        }
+    }
+
+    public long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    /**
+     * Define o id a partir do valor lido do JSON. UUIDs em texto de saves antigos são
+     * descartados e o prédio recebe um id numérico novo ao ser vinculado à cidade.
+     */
+    @JsonSetter("id")
+    private void lerId(Object valor) {
+        this.id = Robo.idSerializado(valor);
+    }
+
+    /**
+     * Atribui o id do prédio. Chamado apenas pela {@link City}.
+     */
+    void atribuirId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Restaura o id gravado em um save, antes de o prédio entrar na cidade.
+     * A cidade mantém o id ao receber o prédio, se ele ainda não estiver em uso.
+     *
+     * @param id O id salvo
+     * @throws IllegalStateException Se o prédio já pertence a uma cidade
+     */
+    public void restaurarId(long id) {
+        if (cidade != null) {
+            throw new IllegalStateException("O id só pode ser restaurado antes de o prédio entrar na cidade.");
+        }
         this.id = id;
     }
 
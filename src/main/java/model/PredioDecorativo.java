@@ -1,7 +1,7 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe para prédios decorativos que não têm função no jogo.
@@ -16,7 +16,7 @@ public class PredioDecorativo extends Predio {
     // Construtor padrão para Jackson
     public PredioDecorativo() {
         super();
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
         this.maxRobos = 3; // Permite até 3 robôs explorando
     }
 
@@ -30,7 +30,7 @@ public class PredioDecorativo extends Predio {
      */
     public PredioDecorativo(TipoPredio tipo, int x, int y, int largura, int altura) {
         super(tipo, 0.0, 0, x, y, largura, altura);
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
         // Define maxRobos baseado no tipo (alguns podem ser maiores)
         if (tipo == TipoPredio.MONUMENTO || tipo == TipoPredio.JARDIM_ZEN) {
             this.maxRobos = 5; // Monumentos e jardins podem ter mais robôs
@@ -39,6 +39,17 @@ public class PredioDecorativo extends Predio {
         }
     }
 
+    private PredioDecorativo(PredioDecorativo original, UnaryOperator<Robo> copiaDoRobo) {
+        super(original);
+        this.Robos = copiarOcupantes(original.getRobos(), copiaDoRobo);
+        this.maxRobos = original.maxRobos;
+    }
+
+    @Override
+    protected Predio copiar(UnaryOperator<Robo> copiaDoRobo) {
+        return new PredioDecorativo(this, copiaDoRobo);
+    }
+
     /**
      * Adiciona um robô ao prédio decorativo (apenas para exploração).
      * @param robo O robô a ser adicionado
@@ -50,6 +61,7 @@ public class PredioDecorativo extends Predio {
         }
         if (!this.Robos.contains(robo) && this.Robos.size() < maxRobos) {
             this.Robos.add(robo);
+            notificarEntrada(robo);
             return true;
         }
         return false;
@@ -60,7 +72,9 @@ public class PredioDecorativo extends Predio {
      * @param robo O robô a ser removido
      */
     public void removeRobo(Robo robo) {
-        this.Robos.remove(robo);
+        if (this.Robos.remove(robo)) {
+            notificarSaida(robo);
+        }
     }
 
     /**
@@ -69,7 +83,7 @@ public class PredioDecorativo extends Predio {
      */
     public List<Robo> getRobos() {
         if (Robos == null) {
-            Robos = new ArrayList<>();
+            Robos = new ConjuntoOcupantes();
         }
         return Robos;
     }
@@ -79,11 +93,18 @@ public class PredioDecorativo extends Predio {
      * @param robos Lista de robôs
      */
     public void setRobos(List<Robo> robos) {
+        List<Robo> anteriores = this.Robos;
         if (robos == null) {
-            this.Robos = new ArrayList<>();
+            this.Robos = new ConjuntoOcupantes();
         } else {
-            this.Robos = new ArrayList<>(robos);
+            this.Robos = new ConjuntoOcupantes(robos);
         }
+        notificarTroca(anteriores, this.Robos);
+    }
+
+    @Override
+    protected List<Robo> listarOcupantes() {
+        return getRobos();
     }
 
     /**
@@ -96,5 +117,12 @@ public class PredioDecorativo extends Predio {
         // Prédios decorativos não têm função
         // Robôs podem estar aqui apenas para exploração visual
     }
-}
 
+    /**
+     * Prédios decorativos não têm efeito, então podem ser processados em paralelo.
+     */
+    @Override
+    public boolean permiteEfeitoParalelo() {
+        return true;
+    }
+}
@@ -1,8 +1,8 @@
 package model;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import java.util.UUID;
 
 /**
  * Classe abstrata que representa um robô na cidade.
@@ -11,6 +11,15 @@ import java.util.UUID;
  * <p>Os robôs possuem energia, felicidade e integridade que variam durante o jogo.
  * Podem trabalhar, entrar em manutenção, dormir e serem afetados por eventos aleatórios.
  * 
+ * <p>Dentro de uma cidade esses atributos não ficam no próprio objeto: o robô é uma visão
+ * sobre um slot da {@link TabelaRobos} da cidade. Fora dela (recém-criado, lido de um save
+ * antes de entrar na cidade ou removido), os atributos ficam em campos do próprio robô, e a
+ * cidade os copia para as colunas quando o robô entra nela. Só as ações (trabalhar, dormir,
+ * eventos) de um robô fora da cidade criam uma tabela avulsa de uma única linha para ele.
+ * 
+ * <p>Cada robô tem um id numérico denso, atribuído pela cidade quando ele entra nela
+ * (0 enquanto o robô não pertence a nenhuma cidade).
+ * 
  * <p>Esta classe é serializada/deserializada usando Jackson com suporte a polimorfismo.
  * 
  * @author Sistema Cidade dos Robôs
@@ -27,16 +36,21 @@ import java.util.UUID;
     @JsonSubTypes.Type(value = Seguranca.class, name = "SEGURANCA")
 })
 public abstract class Robo {
-    private String id;
+    private long id; // 0 = ainda sem id
+    private String idLegado; // UUID lido de um save antigo, até a carga religar os ocupantes
     private TipoDeRobo tipo;
-    private double energia;
-    private double felicidade;
-    private double integridade;
-    private int TurnosDesdeAManutencao;
     private int posX;
     private int posY;
-    private boolean emManutencao;
+    private TabelaRobos tabela; // null = fora de qualquer cidade, atributos nos campos abaixo
+    private int slot;
+
+    // Atributos enquanto o robô não tem tabela
+    private double energia = 100.0;
+    private double felicidade = 100.0;
+    private double integridade = 100.0;
+    private int turnosDesdeManutencao;
     private int turnosRestantesManutencao;
+    private boolean emManutencao;
 
     /**
      * Construtor principal para criar um robô.
@@ -46,16 +60,9 @@ public abstract class Robo {
      * @param y Posição Y inicial do robô no mapa
      */
     public Robo(TipoDeRobo tipo, int x, int y){
-        this.id = UUID.randomUUID().toString();
         this.tipo = tipo;
-        this.energia = 100.0;
-        this.felicidade = 100.0;
-        this.integridade = 100.0;
-        this.TurnosDesdeAManutencao = 0;
         this.posX = x;
-        this.posY = y;
-        this.emManutencao = false;
-        this.turnosRestantesManutencao = 0;
+        this.posY = y; // energia, felicidade e integridade em 100%, sem manutenção
     }
 
     /**
@@ -63,15 +70,83 @@ public abstract class Robo {
      * Inicializa todos os campos com valores padrão.
      */
     public Robo(){
-        this.id = UUID.randomUUID().toString();
-        this.energia = 100.0;
-        this.felicidade = 100.0;
-        this.integridade = 100.0;
-        this.TurnosDesdeAManutencao = 0;
         this.posX = 0;
         this.posY = 0;
-        this.emManutencao = false;
-        this.turnosRestantesManutencao = 0;
+    }
+
+    /**
+     * Construtor de cópia, usado pelos snapshots da cidade. Copia identidade, tipo, posição e
+     * atributos; a cópia ainda não tem tabela.
+     *
+     * @param original O robô a ser copiado
+     */
+    protected Robo(Robo original) {
+        this.id = original.id;
+        this.tipo = original.tipo;
+        this.posX = original.posX;
+        this.posY = original.posY;
+        this.energia = original.getEnergia();
+        this.felicidade = original.getFelicidade();
+        this.integridade = original.getIntegridade();
+        this.turnosDesdeManutencao = original.getTurnosDesdeAManutencao();
+        this.turnosRestantesManutencao = original.getTurnosRestantesManutencao();
+        this.emManutencao = original.isEmManutencao();
+    }
+
+    /**
+     * Cria a cópia deste robô, do mesmo subtipo, ainda sem tabela.
+     * Chamado apenas pela {@link TabelaRobos} ao criar snapshots.
+     *
+     * @return A cópia não vinculada
+     */
+    protected abstract Robo copiar();
+
+    /**
+     * Associa este robô a um slot de uma tabela. Chamado apenas pela {@link TabelaRobos}.
+     *
+     * @param tabela A tabela que armazena os atributos do robô
+     * @param slot O slot do robô na tabela
+     */
+    void vincular(TabelaRobos tabela, int slot) {
+        this.tabela = tabela;
+        this.slot = slot;
+    }
+
+    /**
+     * Tira o robô da tabela, guardando nos campos os atributos do slot que ele ocupava.
+     * Chamado apenas pela {@link TabelaRobos} ao remover o robô.
+     */
+    void desvincular() {
+        this.energia = getEnergia();
+        this.felicidade = getFelicidade();
+        this.integridade = getIntegridade();
+        this.turnosDesdeManutencao = getTurnosDesdeAManutencao();
+        this.turnosRestantesManutencao = getTurnosRestantesManutencao();
+        this.emManutencao = isEmManutencao();
+        this.tabela = null;
+        this.slot = 0;
+    }
+
+    /**
+     * @return A tabela do robô, ou null se ele está fora de qualquer cidade
+     */
+    TabelaRobos tabela() {
+        return tabela;
+    }
+
+    /**
+     * Tabela usada pelas ações do robô. Fora de uma cidade, cria na primeira ação uma tabela
+     * avulsa com os atributos guardados nos campos.
+     */
+    private TabelaRobos linha() {
+        if (tabela == null) {
+            TabelaRobos.avulsa(this);
+        }
+        return tabela;
+    }
+
+    int slot() {
+        return slot;
     }
 
     /**
@@ -86,23 +161,14 @@ public abstract class Robo {
             consumoBase *= 1.5;
         }
 
-        this.energia = Math.max(0, this.energia - consumoBase);
-        this.integridade = Math.max(0, this.integridade - 5.0);
-
-
-        if (this.energia <= 40.0 || this.integridade <= 40.0) {
-            this.felicidade = Math.max(0, this.felicidade - 10.0);
-
-        }
-
+        linha().trabalho(slot, consumoBase);
     }
 
     /**
      * Inicia a manutenção do robô. O robô ficará em manutenção por 2 turnos.
      */
     public void iniciarManutencao(){
-        this.emManutencao = true;
-        this.turnosRestantesManutencao = 2; // 2 turnos de manutenção
+        linha().iniciarManutencao(slot);
     }
     
     /**
@@ -110,17 +176,7 @@ public abstract class Robo {
      * Quando a manutenção terminar, restaura integridade e felicidade.
      */
     public void processarManutencao(){
-        if (emManutencao && turnosRestantesManutencao > 0) {
-            turnosRestantesManutencao--;
-            
-            // Quando a manutenção terminar
-            if (turnosRestantesManutencao <= 0) {
-                this.integridade = 100.0;
-                this.TurnosDesdeAManutencao = 0;
-                this.felicidade = Math.min(100.0, this.felicidade + 20.0);
-                this.emManutencao = false;
-            }
-        }
+        linha().processarManutencao(slot);
     }
     
     /**
@@ -138,8 +194,7 @@ public abstract class Robo {
      * Aumenta felicidade em 20% e energia em 40% (limitado a 100%).
      */
     public void dormir(){
-        this.felicidade = Math.min(100.0, this.felicidade + 20.0);
-        this.energia = Math.min(100.0, this.energia + 40.0);
+        linha().dormir(slot);
     }
 
     /**
@@ -147,8 +202,7 @@ public abstract class Robo {
      * Reduz energia e felicidade em 40 pontos.
      */
     public void apagao(){
-        this.felicidade = Math.max(0, this.felicidade - 40.0);
-        this.energia = Math.max(0, this.energia - 40.0);
+        linha().apagao(slot);
     }
 
     /**
@@ -156,9 +210,9 @@ public abstract class Robo {
      * Reduz felicidade em 30 pontos. Durante a greve, os robôs não trabalham.
      */
     public void greve(){
-        this.felicidade = Math.max(0, this.felicidade - 30.0);
         // Durante a greve, os robôs não trabalham, então não consomem energia
         // mas ficam insatisfeitos
+        linha().greve(slot);
     }
 
     /**
@@ -166,8 +220,8 @@ public abstract class Robo {
      * Aumenta felicidade em 15 pontos (limitado a 100%).
      */
     public void descobertaPecasRaras(){
-        this.felicidade = Math.min(100.0, this.felicidade + 15.0);
         // Os robôs ficam felizes com a descoberta de peças raras
+        linha().descobertaPecasRaras(slot);
     }
 
     /**
@@ -176,61 +230,150 @@ public abstract class Robo {
      * Se o robô está em manutenção, processa a manutenção ao invés de consumir recursos.
      */
     public void consumoDiario() {
-        // Se está em manutenção, processa a manutenção e não consome recursos
-        if (emManutencao) {
-            processarManutencao();
-            return; // Robôs em manutenção não consomem energia/integridade
-        }
-        
-        this.energia = Math.max(0, this.energia - 10);
-        this.integridade = Math.max(0, this.integridade - 5.0);
+        linha().consumoDiario(slot);
+    }
 
 
-        if (this.energia <= 40.0 || this.integridade <= 40.0) {
-            this.felicidade = Math.max(0, this.felicidade - 10.0);
+    private void marcarAlterado() {
+        if (tabela != null) {
+            tabela.marcarAlterado(slot);
         }
-        TurnosDesdeAManutencao++;
     }
 
-
-    public String getId() {
+    public long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    /**
+     * Define o id a partir do valor lido do JSON. Saves antigos guardam um UUID em texto:
+     * o robô recebe um id numérico novo ao entrar na cidade, e o UUID fica guardado até a
+     * carga usá-lo para religar as cópias do robô nos prédios ({@link #descartarIdLegado()}).
+     */
+    @JsonSetter("id")
+    private void lerId(Object valor) {
+        this.id = idSerializado(valor);
+        this.idLegado = id == 0 && valor instanceof String texto ? texto : null;
+    }
+
+    /**
+     * Retorna e esquece o UUID lido de um save antigo.
+     *
+     * @return O UUID em texto, ou null se o id lido era numérico
+     */
+    public String descartarIdLegado() {
+        String valor = idLegado;
+        idLegado = null;
+        return valor;
+    }
+
+    /**
+     * Atribui o id do robô. Chamado apenas pela {@link TabelaRobos} da cidade.
+     */
+    void atribuirId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Restaura o id gravado em um save, antes de o robô entrar na cidade.
+     * A cidade mantém o id ao receber o robô, se ele ainda não estiver em uso.
+     *
+     * @param id O id salvo
+     * @throws IllegalStateException Se o robô já pertence a uma cidade
+     */
+    public void restaurarId(long id) {
+        if (tabela != null && !tabela.isAvulsa()) {
+            throw new IllegalStateException("O id só pode ser restaurado antes de o robô entrar na cidade.");
+        }
         this.id = id;
     }
 
+    /**
+     * Dois robôs são iguais se têm o mesmo id. Robôs ainda sem id (fora de qualquer cidade)
+     * só são iguais a si mesmos.
+     *
+     * <p>O id é atribuído quando o robô entra na cidade e só é único dentro dela, então o hash
+     * muda nesse momento. Os ocupantes dos prédios e o índice de ocupação da cidade guardam os
+     * robôs por identidade e não dependem desta igualdade.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Robo outro && id != 0 && id == outro.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id != 0 ? Long.hashCode(id) : System.identityHashCode(this);
+    }
+
+    /**
+     * Converte o id lido de um save: números são mantidos, textos (UUIDs de saves antigos)
+     * viram 0, o que faz a cidade atribuir um id novo.
+     */
+    static long idSerializado(Object valor) {
+        if (valor instanceof Number numero) {
+            return numero.longValue();
+        }
+        if (valor instanceof String texto) {
+            try {
+                return Long.parseLong(texto);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
     public TipoDeRobo getTipo() {
         return tipo;
     }
 
     public void setTipo(TipoDeRobo tipo) {
-        this.tipo = tipo;
+        if (tabela != null) {
+            tabela.trocarTipo(this.tipo, tipo);
+        }
+        if (this.tipo != tipo) {
+            this.tipo = tipo;
+            marcarAlterado();
+        }
     }
 
     public double getEnergia() {
-        return energia;
+        return tabela != null ? tabela.getEnergia(slot) : energia;
     }
 
     public void setEnergia(double energia) {
-        this.energia = energia;
+        if (tabela != null) {
+            tabela.setEnergia(slot, energia);
+        } else {
+            this.energia = energia;
+        }
     }
 
     public double getFelicidade() {
-        return felicidade;
+        return tabela != null ? tabela.getFelicidade(slot) : felicidade;
     }
 
     public void setFelicidade(double felicidade) {
-        this.felicidade = felicidade;
+        if (tabela != null) {
+            tabela.setFelicidade(slot, felicidade);
+        } else {
+            this.felicidade = felicidade;
+        }
     }
 
     public double getIntegridade() {
-        return integridade;
+        return tabela != null ? tabela.getIntegridade(slot) : integridade;
     }
 
     public void setIntegridade(double integridade) {
-        this.integridade = integridade;
+        if (tabela != null) {
+            tabela.setIntegridade(slot, integridade);
+        } else {
+            this.integridade = integridade;
+        }
     }
 
     public int getPosX() {
@@ -238,7 +381,10 @@ public abstract class Robo {
     }
 
     public void setPosX(int posX) {
-        this.posX = posX;
+        if (this.posX != posX) {
+            this.posX = posX;
+            marcarAlterado();
+        }
     }
 
     public int getPosY() {
@@ -246,30 +392,45 @@ public abstract class Robo {
     }
 
     public void setPosY(int posY) {
-        this.posY = posY;
+        if (this.posY != posY) {
+            this.posY = posY;
+            marcarAlterado();
+        }
     }
 
     public int getTurnosDesdeAManutencao() {
-        return TurnosDesdeAManutencao;
+        return tabela != null ? tabela.getTurnosDesdeManutencao(slot) : turnosDesdeManutencao;
     }
 
     public void setTurnosDesdeAManutencao(int turnosDesdeAManutencao) {
-        TurnosDesdeAManutencao = turnosDesdeAManutencao;
+        if (tabela != null) {
+            tabela.setTurnosDesdeManutencao(slot, turnosDesdeAManutencao);
+        } else {
+            this.turnosDesdeManutencao = turnosDesdeAManutencao;
+        }
     }
 
     public boolean isEmManutencao() {
-        return emManutencao;
+        return tabela != null ? tabela.isEmManutencao(slot) : emManutencao;
     }
 
     public void setEmManutencao(boolean emManutencao) {
-        this.emManutencao = emManutencao;
+        if (tabela != null) {
+            tabela.setEmManutencao(slot, emManutencao);
+        } else {
+            this.emManutencao = emManutencao;
+        }
     }
 
     public int getTurnosRestantesManutencao() {
-        return turnosRestantesManutencao;
+        return tabela != null ? tabela.getTurnosRestantesManutencao(slot) : turnosRestantesManutencao;
     }
 
     public void setTurnosRestantesManutencao(int turnosRestantesManutencao) {
-        this.turnosRestantesManutencao = turnosRestantesManutencao;
+        if (tabela != null) {
+            tabela.setTurnosRestantesManutencao(slot, turnosRestantesManutencao);
+        } else {
+            this.turnosRestantesManutencao = turnosRestantesManutencao;
+        }
     }
 }
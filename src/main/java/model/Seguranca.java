@@ -27,4 +27,13 @@ public class Seguranca extends Robo {
     public Seguranca(int x, int y){
         super(TipoDeRobo.SEGURANCA, x , y);
     }
+
+    private Seguranca(Seguranca original) {
+        super(original);
+    }
+
+    @Override
+    protected Robo copiar() {
+        return new Seguranca(this);
+    }
 }
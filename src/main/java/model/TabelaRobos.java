@@ -0,0 +1,755 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Armazenamento em colunas (structure-of-arrays) dos atributos dos robôs.
+ *
+ * <p>Cada robô ocupa um slot denso na tabela e seus atributos (energia, felicidade,
+ * integridade e estado de manutenção) ficam em arrays primitivos paralelos indexados
+ * por esse slot. Os objetos {@link Robo} são apenas visões sobre uma linha da tabela,
+ * de modo que a API existente continua funcionando.
+ *
+ * <p>As operações por turno (consumo diário, eventos e média de felicidade) podem então
+ * ser feitas como varreduras lineares sobre os arrays, sem percorrer objetos espalhados
+ * pelo heap.
+ *
+ * <p>A soma das felicidades e a quantidade de robôs infelizes são mantidas de forma
+ * incremental: toda escrita na coluna de felicidade passa por {@link #setFelicidade(int, double)},
+ * que atualiza os agregados. Assim a média e a contagem de infelizes são leituras O(1).
+ * A soma é guardada em ponto fixo (long) para não acumular erro de arredondamento com
+ * milhões de atualizações e para não depender da ordem em que elas acontecem.
+ *
+ * <p>A tabela também conta quantos robôs de cada {@link TipoDeRobo} ela contém, atualizando
+ * a contagem ao inserir e remover robôs, para que a consulta por tipo não precise varrer
+ * nem alocar listas.
+ *
+ * <p>A tabela de uma cidade atribui a cada robô que entra nela um id numérico denso,
+ * tirado de um contador próprio, e mantém um índice id -> robô com chaves primitivas
+ * ({@link #buscarPorId(long)}).
+ *
+ * <p>Cada slot tem ainda uma marca de alteração, ligada por toda escrita que muda algum
+ * atributo do robô (inclusive posição e tipo). Ao ligar a marca, o slot entra em uma lista
+ * dos slots alterados, então o diário de turnos grava apenas os robôs que mudaram desde o
+ * último registro percorrendo só essa lista ({@link #contarAlterados()},
+ * {@link #slotAlterado(int)} e {@link #limparAlterados()}), com custo proporcional à alteração
+ * e não ao tamanho da cidade. Mudanças que deslocam os slots existentes (remoções e inserções
+ * fora do fim) incrementam {@link #versaoSlots()}, o que invalida as marcas.
+ *
+ * <p>A tabela também implementa {@code List<Robo>} e é usada diretamente como a lista de
+ * robôs da cidade, mantendo a ordem de inserção. Um robô que ainda não pertence a nenhuma
+ * cidade (ou que foi removido de uma) guarda os atributos nos próprios campos: criar ou
+ * carregar um robô não cria tabela, e ao entrar na cidade os atributos vão direto para as
+ * colunas. Uma tabela avulsa de uma única linha só é criada quando um robô fora da cidade
+ * executa uma ação ({@link Robo#trabalho()}, {@link Robo#dormir()}, eventos).
+ *
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public class TabelaRobos extends AbstractList<Robo> implements RandomAccess {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    /** Felicidade abaixo da qual um robô é considerado infeliz. */
+    public static final double LIMITE_INFELIZ = 50.0;
+
+    // Escala do ponto fixo da soma de felicidade (2^32: precisão ~2e-10 por robô)
+    private static final double ESCALA_FELICIDADE = 4294967296.0;
+
+    private final boolean avulsa;
+    private int tamanho;
+    private Robo[] robos;
+    private double[] energia;
+    private double[] felicidade;
+    private double[] integridade;
+    private int[] turnosDesdeManutencao;
+    private int[] turnosRestantesManutencao;
+    private boolean[] emManutencao;
+    private boolean[] alterado;
+    private int[] slotsAlterados; // Slots com a marca ligada, na ordem em que foram marcados
+    private int qtdAlterados;
+    private boolean listaAlteradosInvalida; // Slots deslocados: a lista não vale até limparAlterados
+    private long versaoSlots;
+
+    // Agregados mantidos incrementalmente
+    private long somaFelicidadeFixa;
+    private int qtdInfelizes;
+    private final int[] qtdPorTipo = new int[TipoDeRobo.values().length];
+
+    // Identidade dos robôs da cidade (tabelas avulsas não atribuem ids)
+    private final MapaIds<Robo> porId;
+    private long proximoId = 1;
+
+    /**
+     * Cria uma tabela vazia para os robôs de uma cidade.
+     */
+    public TabelaRobos() {
+        this(CAPACIDADE_INICIAL, false);
+    }
+
+    private TabelaRobos(int capacidade, boolean avulsa) {
+        this.avulsa = avulsa;
+        this.porId = avulsa ? null : new MapaIds<>();
+        this.robos = new Robo[capacidade];
+        this.energia = new double[capacidade];
+        this.felicidade = new double[capacidade];
+        this.integridade = new double[capacidade];
+        this.turnosDesdeManutencao = new int[capacidade];
+        this.turnosRestantesManutencao = new int[capacidade];
+        this.emManutencao = new boolean[capacidade];
+        this.alterado = new boolean[capacidade];
+        this.slotsAlterados = new int[capacidade];
+    }
+
+    /**
+     * @return true se esta é a tabela de um único robô fora de qualquer cidade
+     */
+    boolean isAvulsa() {
+        return avulsa;
+    }
+
+    /**
+     * Cria a tabela avulsa de um robô fora de qualquer cidade, com os atributos guardados nos
+     * campos dele. Chamado apenas por {@link Robo} na primeira ação do robô fora da cidade.
+     *
+     * @param robo O robô dono da tabela, ainda sem tabela
+     * @return A tabela avulsa com o robô no slot 0
+     */
+    static TabelaRobos avulsa(Robo robo) {
+        TabelaRobos tabela = new TabelaRobos(1, true);
+        tabela.preencherLinha(0, robo);
+        tabela.robos[0] = robo;
+        tabela.tamanho = 1;
+        tabela.recalcularAgregados();
+        robo.vincular(tabela, 0);
+        return tabela;
+    }
+
+    /**
+     * Cria uma cópia independente da tabela para um snapshot: as colunas são copiadas
+     * em bloco e cada robô ganha uma cópia vinculada ao mesmo slot.
+     *
+     * @param copias Mapa preenchido com original -> cópia de cada robô copiado
+     * @return A nova tabela
+     */
+    TabelaRobos copiar(Map<Robo, Robo> copias) {
+        TabelaRobos copia = new TabelaRobos(Math.max(tamanho, 1), false);
+        System.arraycopy(energia, 0, copia.energia, 0, tamanho);
+        System.arraycopy(felicidade, 0, copia.felicidade, 0, tamanho);
+        System.arraycopy(integridade, 0, copia.integridade, 0, tamanho);
+        System.arraycopy(turnosDesdeManutencao, 0, copia.turnosDesdeManutencao, 0, tamanho);
+        System.arraycopy(turnosRestantesManutencao, 0, copia.turnosRestantesManutencao, 0, tamanho);
+        System.arraycopy(emManutencao, 0, copia.emManutencao, 0, tamanho);
+        copia.somaFelicidadeFixa = somaFelicidadeFixa;
+        copia.qtdInfelizes = qtdInfelizes;
+        System.arraycopy(qtdPorTipo, 0, copia.qtdPorTipo, 0, qtdPorTipo.length);
+        for (int i = 0; i < tamanho; i++) {
+            Robo robo = robos[i].copiar();
+            robo.vincular(copia, i);
+            copia.robos[i] = robo;
+            copia.porId.put(robo.getId(), robo);
+            copias.put(robos[i], robo);
+        }
+        copia.tamanho = tamanho;
+        copia.proximoId = proximoId;
+        return copia;
+    }
+
+    // --- Implementação de List<Robo> ---
+
+    @Override
+    public Robo get(int slot) {
+        Objects.checkIndex(slot, tamanho);
+        return robos[slot];
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Insere um robô na tabela, copiando seus atributos para as colunas.
+     * O robô passa a ser uma visão sobre o novo slot. Se ainda não tem id, ou se o id
+     * já pertence a outro robô desta tabela, recebe um id novo.
+     *
+     * @param indice Posição de inserção
+     * @param robo O robô a ser inserido
+     * @throws IllegalArgumentException Se o robô já pertence a esta ou a outra cidade
+     */
+    @Override
+    public void add(int indice, Robo robo) {
+        Objects.checkIndex(indice, tamanho + 1);
+        TabelaRobos origem = robo.tabela();
+        if (origem == this) {
+            throw new IllegalArgumentException("Robô já está nesta cidade: " + robo.getId());
+        }
+        if (origem != null && !origem.avulsa) {
+            throw new IllegalArgumentException("Robô já pertence a outra cidade: " + robo.getId());
+        }
+        garantirCapacidade(tamanho + 1);
+        if (indice < tamanho) {
+            invalidarAlterados();
+        }
+        deslocar(indice, indice + 1, tamanho - indice);
+        if (origem != null) {
+            copiarLinha(origem, robo.slot(), this, indice);
+        } else {
+            preencherLinha(indice, robo);
+        }
+        alterado[indice] = false; // Robôs novos são identificados pelo slot, não pela marca
+        robos[indice] = robo;
+        tamanho++;
+        somarAgregados(felicidade[indice], 1);
+        contarTipo(robo.getTipo(), 1);
+        registrarId(robo);
+        renumerar(indice);
+        modCount++;
+    }
+
+    /**
+     * Remove o robô do slot indicado. O robô removido continua utilizável,
+     * passando a viver em uma tabela avulsa com uma cópia dos seus atributos.
+     *
+     * @param slot O slot a ser removido
+     * @return O robô removido
+     */
+    @Override
+    public Robo remove(int slot) {
+        Objects.checkIndex(slot, tamanho);
+        Robo robo = robos[slot];
+        robo.desvincular();
+        somarAgregados(felicidade[slot], -1);
+        contarTipo(robo.getTipo(), -1);
+        porId.remover(robo.getId());
+        deslocar(slot + 1, slot, tamanho - slot - 1);
+        tamanho--;
+        robos[tamanho] = null;
+        invalidarAlterados();
+        renumerar(slot);
+        modCount++;
+        return robo;
+    }
+
+    @Override
+    public Robo set(int slot, Robo robo) {
+        Robo anterior = remove(slot);
+        add(slot, robo);
+        return anterior;
+    }
+
+    /**
+     * Posição do robô na tabela, por identidade: o próprio robô sabe em qual slot está.
+     * Uma cópia (de um snapshot ou de outra cidade) com o mesmo id não está nesta tabela.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Robo robo && robo.tabela() == this) {
+            return robo.slot();
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = indexOf(o);
+        if (slot < 0) {
+            return false;
+        }
+        remove(slot);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < tamanho; i++) {
+            robos[i].desvincular();
+            robos[i] = null;
+        }
+        tamanho = 0;
+        somaFelicidadeFixa = 0;
+        qtdInfelizes = 0;
+        Arrays.fill(qtdPorTipo, 0);
+        porId.limpar();
+        invalidarAlterados();
+        modCount++;
+    }
+
+    // --- Identidade ---
+
+    /**
+     * Busca um robô da tabela pelo id, sem percorrer a lista.
+     *
+     * @param id O id do robô
+     * @return O robô, ou null se não houver robô com esse id nesta tabela
+     */
+    public Robo buscarPorId(long id) {
+        return porId.get(id);
+    }
+
+    /**
+     * @return O id que será atribuído ao próximo robô sem id
+     */
+    public long getProximoId() {
+        return proximoId;
+    }
+
+    /**
+     * Garante que os próximos ids atribuídos sejam maiores ou iguais a {@code minimo}.
+     * Nunca faz o contador voltar, para não repetir ids já usados.
+     *
+     * @param minimo O menor valor aceito para o próximo id
+     */
+    public void garantirProximoId(long minimo) {
+        proximoId = Math.max(proximoId, minimo);
+    }
+
+    private void registrarId(Robo robo) {
+        long id = robo.getId();
+        if (id <= 0 || porId.contem(id)) {
+            id = proximoId++;
+            robo.atribuirId(id);
+        } else if (id >= proximoId) {
+            proximoId = id + 1;
+        }
+        porId.put(id, robo);
+    }
+
+    // --- Acesso às colunas ---
+
+    public double getEnergia(int slot) {
+        return energia[slot];
+    }
+
+    public void setEnergia(int slot, double valor) {
+        if (energia[slot] != valor) {
+            energia[slot] = valor;
+            marcarAlterado(slot);
+        }
+    }
+
+    public double getFelicidade(int slot) {
+        return felicidade[slot];
+    }
+
+    public void setFelicidade(int slot, double valor) {
+        if (felicidade[slot] == valor) {
+            return;
+        }
+        somarAgregados(felicidade[slot], -1);
+        felicidade[slot] = valor;
+        somarAgregados(valor, 1);
+        marcarAlterado(slot);
+    }
+
+    public double getIntegridade(int slot) {
+        return integridade[slot];
+    }
+
+    public void setIntegridade(int slot, double valor) {
+        if (integridade[slot] != valor) {
+            integridade[slot] = valor;
+            marcarAlterado(slot);
+        }
+    }
+
+    public int getTurnosDesdeManutencao(int slot) {
+        return turnosDesdeManutencao[slot];
+    }
+
+    public void setTurnosDesdeManutencao(int slot, int valor) {
+        if (turnosDesdeManutencao[slot] != valor) {
+            turnosDesdeManutencao[slot] = valor;
+            marcarAlterado(slot);
+        }
+    }
+
+    public int getTurnosRestantesManutencao(int slot) {
+        return turnosRestantesManutencao[slot];
+    }
+
+    public void setTurnosRestantesManutencao(int slot, int valor) {
+        if (turnosRestantesManutencao[slot] != valor) {
+            turnosRestantesManutencao[slot] = valor;
+            marcarAlterado(slot);
+        }
+    }
+
+    public boolean isEmManutencao(int slot) {
+        return emManutencao[slot];
+    }
+
+    public void setEmManutencao(int slot, boolean valor) {
+        if (emManutencao[slot] != valor) {
+            emManutencao[slot] = valor;
+            marcarAlterado(slot);
+        }
+    }
+
+    // --- Marcas de alteração ---
+
+    /**
+     * Indica se algum atributo do robô do slot mudou desde a última chamada a
+     * {@link #limparAlterados()}. Robôs inseridos depois dela não são marcados.
+     *
+     * @param slot O slot do robô
+     * @return true se o robô foi alterado
+     */
+    public boolean isAlterado(int slot) {
+        return alterado[slot];
+    }
+
+    /**
+     * Quantidade de slots marcados como alterados desde a última chamada a
+     * {@link #limparAlterados()}. Inclui robôs inseridos depois dela que já foram alterados.
+     * Só vale enquanto {@link #versaoSlots()} não mudar.
+     *
+     * @return A quantidade de slots alterados
+     */
+    public int contarAlterados() {
+        return qtdAlterados;
+    }
+
+    /**
+     * Slot alterado na posição indicada da lista de alterados, na ordem em que foram marcados.
+     *
+     * @param i Posição na lista, de 0 a {@link #contarAlterados()} - 1
+     * @return O slot alterado
+     */
+    public int slotAlterado(int i) {
+        Objects.checkIndex(i, qtdAlterados);
+        return slotsAlterados[i];
+    }
+
+    /**
+     * Desliga a marca de alteração de todos os slots. Percorre apenas os slots marcados,
+     * a não ser que os slots tenham sido deslocados desde a última chamada.
+     */
+    public void limparAlterados() {
+        if (listaAlteradosInvalida) {
+            Arrays.fill(alterado, 0, tamanho, false);
+            listaAlteradosInvalida = false;
+        } else {
+            for (int i = 0; i < qtdAlterados; i++) {
+                alterado[slotsAlterados[i]] = false;
+            }
+        }
+        qtdAlterados = 0;
+    }
+
+    /**
+     * Marca o robô do slot como alterado. Chamado pelos setters das colunas e pelas visões
+     * {@link Robo} quando mudam atributos guardados fora das colunas (posição e tipo).
+     */
+    void marcarAlterado(int slot) {
+        if (!alterado[slot]) {
+            alterado[slot] = true;
+            if (!listaAlteradosInvalida) {
+                slotsAlterados[qtdAlterados++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Descarta a lista de alterados depois de um deslocamento de slots: as marcas continuam
+     * nos robôs, mas os slots guardados na lista deixam de corresponder a eles.
+     */
+    private void invalidarAlterados() {
+        versaoSlots++;
+        qtdAlterados = 0;
+        listaAlteradosInvalida = true;
+    }
+
+    /**
+     * Contador de mudanças que deslocam os slots existentes: remoções, inserções fora do fim
+     * e {@link #clear()}. Inserir no fim não muda o contador.
+     *
+     * @return A versão atual dos slots
+     */
+    public long versaoSlots() {
+        return versaoSlots;
+    }
+
+    // --- Comportamento por linha (usado pelas visões Robo) ---
+
+    /**
+     * Simula o trabalho do robô do slot, consumindo energia e integridade.
+     *
+     * @param slot O slot do robô
+     * @param consumoEnergia Energia consumida pelo trabalho
+     */
+    public void trabalho(int slot, double consumoEnergia) {
+        setEnergia(slot, Math.max(0, energia[slot] - consumoEnergia));
+        setIntegridade(slot, Math.max(0, integridade[slot] - 5.0));
+
+        if (energia[slot] <= 40.0 || integridade[slot] <= 40.0) {
+            setFelicidade(slot, Math.max(0, felicidade[slot] - 10.0));
+        }
+    }
+
+    /**
+     * Inicia a manutenção do robô do slot por 2 turnos.
+     *
+     * @param slot O slot do robô
+     */
+    public void iniciarManutencao(int slot) {
+        setEmManutencao(slot, true);
+        setTurnosRestantesManutencao(slot, 2);
+    }
+
+    /**
+     * Processa um turno de manutenção do robô do slot. Quando a manutenção
+     * terminar, restaura integridade e felicidade.
+     *
+     * @param slot O slot do robô
+     */
+    public void processarManutencao(int slot) {
+        if (emManutencao[slot] && turnosRestantesManutencao[slot] > 0) {
+            setTurnosRestantesManutencao(slot, turnosRestantesManutencao[slot] - 1);
+
+            // Quando a manutenção terminar
+            if (turnosRestantesManutencao[slot] <= 0) {
+                setIntegridade(slot, 100.0);
+                setTurnosDesdeManutencao(slot, 0);
+                setFelicidade(slot, Math.min(100.0, felicidade[slot] + 20.0));
+                setEmManutencao(slot, false);
+            }
+        }
+    }
+
+    /**
+     * Descanso do robô do slot: +20 de felicidade e +40 de energia (limitados a 100).
+     *
+     * @param slot O slot do robô
+     */
+    public void dormir(int slot) {
+        setFelicidade(slot, Math.min(100.0, felicidade[slot] + 20.0));
+        setEnergia(slot, Math.min(100.0, energia[slot] + 40.0));
+    }
+
+    /**
+     * Efeito de um apagão no robô do slot: -40 de energia e felicidade.
+     *
+     * @param slot O slot do robô
+     */
+    public void apagao(int slot) {
+        setFelicidade(slot, Math.max(0, felicidade[slot] - 40.0));
+        setEnergia(slot, Math.max(0, energia[slot] - 40.0));
+    }
+
+    /**
+     * Efeito de uma greve no robô do slot: -30 de felicidade.
+     *
+     * @param slot O slot do robô
+     */
+    public void greve(int slot) {
+        setFelicidade(slot, Math.max(0, felicidade[slot] - 30.0));
+    }
+
+    /**
+     * Efeito de uma descoberta de peças raras no robô do slot: +15 de felicidade.
+     *
+     * @param slot O slot do robô
+     */
+    public void descobertaPecasRaras(int slot) {
+        setFelicidade(slot, Math.min(100.0, felicidade[slot] + 15.0));
+    }
+
+    /**
+     * Consumo diário do robô do slot. Robôs em manutenção apenas processam a manutenção.
+     *
+     * @param slot O slot do robô
+     */
+    public void consumoDiario(int slot) {
+        if (emManutencao[slot]) {
+            processarManutencao(slot);
+            return; // Robôs em manutenção não consomem energia/integridade
+        }
+
+        setEnergia(slot, Math.max(0, energia[slot] - 10));
+        setIntegridade(slot, Math.max(0, integridade[slot] - 5.0));
+
+        if (energia[slot] <= 40.0 || integridade[slot] <= 40.0) {
+            setFelicidade(slot, Math.max(0, felicidade[slot] - 10.0));
+        }
+        setTurnosDesdeManutencao(slot, turnosDesdeManutencao[slot] + 1);
+    }
+
+    // --- Agregados ---
+
+    /**
+     * Soma da felicidade de todos os robôs, mantida incrementalmente. O(1).
+     *
+     * @return A soma das felicidades
+     */
+    public double somaFelicidade() {
+        return somaFelicidadeFixa / ESCALA_FELICIDADE;
+    }
+
+    /**
+     * Quantidade de robôs com felicidade abaixo de {@link #LIMITE_INFELIZ}, mantida
+     * incrementalmente. O(1).
+     *
+     * @return A quantidade de robôs infelizes
+     */
+    public int contarInfelizes() {
+        return qtdInfelizes;
+    }
+
+    /**
+     * Quantidade de robôs de um tipo na tabela. O(1), sem alocação.
+     *
+     * @param tipo O tipo de robô
+     * @return A quantidade de robôs do tipo
+     */
+    public int contarPorTipo(TipoDeRobo tipo) {
+        return tipo == null ? 0 : qtdPorTipo[tipo.ordinal()];
+    }
+
+    /**
+     * Atualiza a contagem por tipo quando o tipo de um robô desta tabela é alterado.
+     * Chamado apenas por {@link Robo#setTipo(TipoDeRobo)}.
+     */
+    void trocarTipo(TipoDeRobo anterior, TipoDeRobo novo) {
+        if (avulsa) {
+            return;
+        }
+        contarTipo(anterior, -1);
+        contarTipo(novo, 1);
+    }
+
+    /**
+     * Recalcula os agregados com uma varredura sobre a coluna de felicidade.
+     *
+     * <p>Necessário apenas depois de escritas concorrentes em slots distintos (ex: efeitos
+     * de prédios aplicados em paralelo), que podem perder atualizações dos agregados. Pelo
+     * mesmo motivo a lista de slots alterados é refeita a partir das marcas.
+     */
+    public void recalcularAgregados() {
+        long soma = 0;
+        int infelizes = 0;
+        int alterados = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += paraPontoFixo(felicidade[i]);
+            if (felicidade[i] < LIMITE_INFELIZ) {
+                infelizes++;
+            }
+            if (alterado[i]) {
+                slotsAlterados[alterados++] = i;
+            }
+        }
+        somaFelicidadeFixa = soma;
+        qtdInfelizes = infelizes;
+        if (!listaAlteradosInvalida) {
+            qtdAlterados = alterados;
+        }
+    }
+
+    // --- Varreduras ---
+
+    /**
+     * Conta quantos robôs têm felicidade abaixo de um limite.
+     *
+     * @param limite O limite (exclusivo)
+     * @return A quantidade de robôs abaixo do limite
+     */
+    public int contarFelicidadeAbaixo(double limite) {
+        int count = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (felicidade[i] < limite) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // --- Auxiliares internos ---
+
+    private void somarAgregados(double valorFelicidade, int sinal) {
+        somaFelicidadeFixa += sinal * paraPontoFixo(valorFelicidade);
+        if (valorFelicidade < LIMITE_INFELIZ) {
+            qtdInfelizes += sinal;
+        }
+    }
+
+    private void contarTipo(TipoDeRobo tipo, int sinal) {
+        if (tipo != null) {
+            qtdPorTipo[tipo.ordinal()] += sinal;
+        }
+    }
+
+    private static long paraPontoFixo(double valor) {
+        return Math.round(valor * ESCALA_FELICIDADE);
+    }
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo <= robos.length) {
+            return;
+        }
+        int capacidade = Math.max(minimo, robos.length * 2);
+        robos = Arrays.copyOf(robos, capacidade);
+        energia = Arrays.copyOf(energia, capacidade);
+        felicidade = Arrays.copyOf(felicidade, capacidade);
+        integridade = Arrays.copyOf(integridade, capacidade);
+        turnosDesdeManutencao = Arrays.copyOf(turnosDesdeManutencao, capacidade);
+        turnosRestantesManutencao = Arrays.copyOf(turnosRestantesManutencao, capacidade);
+        emManutencao = Arrays.copyOf(emManutencao, capacidade);
+        alterado = Arrays.copyOf(alterado, capacidade);
+        slotsAlterados = Arrays.copyOf(slotsAlterados, capacidade);
+    }
+
+    private void deslocar(int de, int para, int quantidade) {
+        if (quantidade <= 0) {
+            return;
+        }
+        System.arraycopy(robos, de, robos, para, quantidade);
+        System.arraycopy(energia, de, energia, para, quantidade);
+        System.arraycopy(felicidade, de, felicidade, para, quantidade);
+        System.arraycopy(integridade, de, integridade, para, quantidade);
+        System.arraycopy(turnosDesdeManutencao, de, turnosDesdeManutencao, para, quantidade);
+        System.arraycopy(turnosRestantesManutencao, de, turnosRestantesManutencao, para, quantidade);
+        System.arraycopy(emManutencao, de, emManutencao, para, quantidade);
+        System.arraycopy(alterado, de, alterado, para, quantidade);
+    }
+
+    private void renumerar(int aPartirDe) {
+        for (int i = aPartirDe; i < tamanho; i++) {
+            robos[i].vincular(this, i);
+        }
+    }
+
+    /**
+     * Copia para o slot os atributos de um robô sem tabela, guardados nos campos dele.
+     */
+    private void preencherLinha(int slot, Robo robo) {
+        energia[slot] = robo.getEnergia();
+        felicidade[slot] = robo.getFelicidade();
+        integridade[slot] = robo.getIntegridade();
+        turnosDesdeManutencao[slot] = robo.getTurnosDesdeAManutencao();
+        turnosRestantesManutencao[slot] = robo.getTurnosRestantesManutencao();
+        emManutencao[slot] = robo.isEmManutencao();
+    }
+
+    private static void copiarLinha(TabelaRobos origem, int slotOrigem, TabelaRobos destino, int slotDestino) {
+        destino.energia[slotDestino] = origem.energia[slotOrigem];
+        destino.felicidade[slotDestino] = origem.felicidade[slotOrigem];
+        destino.integridade[slotDestino] = origem.integridade[slotOrigem];
+        destino.turnosDesdeManutencao[slotDestino] = origem.turnosDesdeManutencao[slotOrigem];
+        destino.turnosRestantesManutencao[slotDestino] = origem.turnosRestantesManutencao[slotOrigem];
+        destino.emManutencao[slotDestino] = origem.emManutencao[slotOrigem];
+    }
+}
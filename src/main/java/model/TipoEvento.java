@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Enum que define os tipos de eventos aleatórios que podem ocorrer em um turno.
+ * 
+ * <ul>
+ *   <li>APAGAO: Reduz energia e felicidade de todos os robôs</li>
+ *   <li>GREVE: Reduz a felicidade e impede o trabalho</li>
+ *   <li>DESCOBERTA_PECAS_RARAS: Rende peças e dinheiro e deixa os robôs mais felizes</li>
+ * </ul>
+ * 
+ * @author Sistema Cidade dos Robôs
+ * @version 1.0
+ */
+public enum TipoEvento {
+    /** Apagão de energia */
+    APAGAO,
+    /** Greve dos robôs */
+    GREVE,
+    /** Descoberta de peças raras */
+    DESCOBERTA_PECAS_RARAS
+}
@@ -27,4 +27,13 @@ public class Trabalhador extends Robo {
     public Trabalhador(int x, int y){
         super(TipoDeRobo.TRABALHADOR, x, y);
     }
+
+    private Trabalhador(Trabalhador original) {
+        super(original);
+    }
+
+    @Override
+    protected Robo copiar() {
+        return new Trabalhador(this);
+    }
 }
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,12 +10,15 @@ import java.util.List;
  * <p>Armazena informações sobre um turno específico, incluindo seu número,
  * eventos que ocorreram durante o turno e decisões do jogador.
  * 
+ * <p>Os eventos são guardados como {@link Evento}, com os dados de cada ocorrência; o texto
+ * só é montado quando pedido por {@link #getEventosOcorridos()} ou {@link Evento#descrever()}.
+ * 
  * @author Sistema Cidade dos Robôs
  * @version 1.0
  */
 public class Turno {
     private int nTurno;
-    private List<String> eventosOcorridos;
+    private final List<Evento> eventos;
     private String decisaoJogador;
 
     /**
@@ -24,35 +28,93 @@ public class Turno {
      */
     public Turno(int numero) {
         this.nTurno = numero;
-        this.eventosOcorridos = new ArrayList<>();
+        this.eventos = new ArrayList<>();
         this.decisaoJogador = "Nenhuma"; // Valor inicial
     }
 
     /**
      * Registra um evento que ocorreu durante este turno.
      * 
-     * @param descricaoEvento Descrição do evento ocorrido
+     * @param evento O evento ocorrido
      */
-    public void registrarEvento(String descricaoEvento) {
-        this.eventosOcorridos.add(descricaoEvento);
+    public void registrarEvento(Evento evento) {
+        this.eventos.add(evento);
     }
 
+    /**
+     * Prepara este objeto para representar outro turno, descartando os eventos registrados.
+     * A lista de eventos é esvaziada e reaproveitada, sem nova alocação.
+     * 
+     * @param numero O número do novo turno
+     */
+    public void reiniciar(int numero) {
+        this.nTurno = numero;
+        this.eventos.clear();
+        this.decisaoJogador = "Nenhuma";
+    }
 
+    /**
+     * Cria uma cópia independente do turno, com os mesmos eventos.
+     * 
+     * @return A cópia
+     */
+    public Turno copiar() {
+        Turno copia = new Turno(nTurno);
+        copia.eventos.addAll(eventos);
+        copia.decisaoJogador = decisaoJogador;
+        return copia;
+    }
 
-    public int getnTurno() {
-        return nTurno;
+    /**
+     * @return Os eventos do turno, na ordem em que ocorreram (somente leitura)
+     */
+    public List<Evento> getEventos() {
+        return Collections.unmodifiableList(eventos);
     }
 
-    public void setnTurno(int nTurno) {
-        this.nTurno = nTurno;
+    /**
+     * @return true se algum evento ocorreu neste turno
+     */
+    public boolean temEventos() {
+        return !eventos.isEmpty();
+    }
+
+    /**
+     * Conta os eventos de um tipo neste turno.
+     * 
+     * @param tipo O tipo de evento
+     * @return A quantidade de eventos do tipo
+     */
+    public int contarEventos(TipoEvento tipo) {
+        int quantidade = 0;
+        for (int i = 0; i < eventos.size(); i++) {
+            if (eventos.get(i).tipo() == tipo) {
+                quantidade++;
+            }
+        }
+        return quantidade;
     }
 
+    /**
+     * Monta as mensagens dos eventos do turno. A formatação acontece a cada chamada;
+     * quem só precisa dos dados deve usar {@link #getEventos()}.
+     * 
+     * @return As descrições dos eventos, na ordem em que ocorreram
+     */
     public List<String> getEventosOcorridos() {
-        return eventosOcorridos;
+        List<String> descricoes = new ArrayList<>(eventos.size());
+        for (Evento evento : eventos) {
+            descricoes.add(evento.descrever());
+        }
+        return descricoes;
+    }
+
+    public int getnTurno() {
+        return nTurno;
     }
 
-    public void setEventosOcorridos(List<String> eventosOcorridos) {
-        this.eventosOcorridos = eventosOcorridos;
+    public void setnTurno(int nTurno) {
+        this.nTurno = nTurno;
     }
 
     public String getDecisaoJogador() {
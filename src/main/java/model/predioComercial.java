@@ -1,7 +1,7 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe que representa um prédio comercial.
@@ -29,7 +29,7 @@ public class predioComercial extends Predio {
         super(TipoPredio.COMERCIAL, 500, 300, 0, 0, 2, 2);
         this.taxaDinheiro = 50.0;
         this.taxaPecas = 25;
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
     }
 
     /**
@@ -41,10 +41,22 @@ public class predioComercial extends Predio {
     public predioComercial(int x, int y){
         super(TipoPredio.COMERCIAL, 500, 300, x, y, 2, 2);
         this.taxaDinheiro = 50.0;
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
         this.taxaPecas = 25;
     }
 
+    private predioComercial(predioComercial original, UnaryOperator<Robo> copiaDoRobo) {
+        super(original);
+        this.taxaDinheiro = original.taxaDinheiro;
+        this.taxaPecas = original.taxaPecas;
+        this.Robos = copiarOcupantes(original.getRobos(), copiaDoRobo);
+    }
+
+    @Override
+    protected Predio copiar(UnaryOperator<Robo> copiaDoRobo) {
+        return new predioComercial(this, copiaDoRobo);
+    }
+
     /**
      * Adiciona um robô ao prédio comercial.
      * Apenas trabalhadores e engenheiros podem trabalhar aqui.
@@ -59,6 +71,7 @@ public class predioComercial extends Predio {
         }
         if (!this.Robos.contains(robo) && this.Robos.size() < maxRobos){
             this.Robos.add(robo);
+            notificarEntrada(robo);
             return true;
         }
         return false;
@@ -70,12 +83,14 @@ public class predioComercial extends Predio {
      * @param robo O robô a ser removido
      */
     public void removeRobo(Robo robo){
-        this.Robos.remove(robo);
+        if (this.Robos.remove(robo)) {
+            notificarSaida(robo);
+        }
     }
 
     public List<Robo> getRobos() {
         if (Robos == null) {
-            Robos = new ArrayList<>();
+            Robos = new ConjuntoOcupantes();
         }
         // Retorna a lista original para Jackson poder serializar corretamente
         return Robos;
@@ -83,11 +98,18 @@ public class predioComercial extends Predio {
     
     // Setter para Jackson deserializar
     public void setRobos(List<Robo> robos) {
+        List<Robo> anteriores = this.Robos;
         if (robos == null) {
-            this.Robos = new ArrayList<>();
+            this.Robos = new ConjuntoOcupantes();
         } else {
-            this.Robos = new ArrayList<>(robos);
+            this.Robos = new ConjuntoOcupantes(robos);
         }
+        notificarTroca(anteriores, this.Robos);
+    }
+
+    @Override
+    protected List<Robo> listarOcupantes() {
+        return getRobos();
     }
     
     // Getters e setters para campos adicionais
@@ -123,6 +145,17 @@ public class predioComercial extends Predio {
      */
     @Override
     public void efeito(City city){
+        efeito(city, city);
+    }
+
+    /**
+     * Aplica o efeito do prédio comercial enviando a produção para a conta informada.
+     * 
+     * @param city A cidade onde o prédio está localizado
+     * @param conta A conta que recebe o dinheiro e as peças produzidos
+     */
+    @Override
+    public void efeito(City city, ContaRecursos conta){
         // Só gera recursos se houver robôs trabalhando no prédio
         if (Robos.isEmpty()){
             return; // Sem robôs, sem produção
@@ -131,18 +164,19 @@ public class predioComercial extends Predio {
         int qtdEngenheiros = 0;
         int qtdTrabalhadores = 0;
         
-        // Processa cada robô trabalhando
-        for (Robo robo : Robos){
+        // Processa cada robô trabalhando (laço indexado: não cria iterador a cada turno)
+        for (int i = 0; i < Robos.size(); i++){
+            Robo robo = Robos.get(i);
             // Só trabalha se estiver com energia e integridade suficientes
             if (robo.getIntegridade() > 30 && robo.getEnergia() > 30 && !robo.isEmManutencao()) {
                 if (robo.getTipo() == TipoDeRobo.ENGENHEIRO) {
                     // Engenheiro descobre peças
                     qtdEngenheiros++;
-                    city.addPecas(taxaPecas);
+                    conta.addPecas(taxaPecas);
                 } else if (robo.getTipo() == TipoDeRobo.TRABALHADOR) {
                     // Trabalhador gera dinheiro
                     qtdTrabalhadores++;
-                    city.addDinheiro(taxaDinheiro);
+                    conta.addDinheiro(taxaDinheiro);
                 }
                 robo.trabalho();
             }
@@ -151,7 +185,16 @@ public class predioComercial extends Predio {
         // Bônus de engenheiros: aumenta a produção dos trabalhadores (máximo 1 engenheiro conta)
         if (qtdEngenheiros > 0 && qtdTrabalhadores > 0) {
             double bonusDinheiro = taxaDinheiro * qtdTrabalhadores * 0.20;
-            city.addDinheiro(bonusDinheiro);
+            conta.addDinheiro(bonusDinheiro);
         }
     }
+
+    /**
+     * O efeito comercial só altera os robôs do próprio prédio e produz pela conta,
+     * então pode ser executado em paralelo.
+     */
+    @Override
+    public boolean permiteEfeitoParalelo() {
+        return true;
+    }
 }
@@ -1,7 +1,7 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Classe que representa um prédio residencial.
@@ -24,7 +24,7 @@ public class predioResidencial extends Predio {
      */
     public predioResidencial() {
         super(TipoPredio.RESIDENCIAL, 500, 300, 0, 0, 2, 2);
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
     }
 
     /**
@@ -35,7 +35,17 @@ public class predioResidencial extends Predio {
      */
     public predioResidencial(int x, int y){
         super(TipoPredio.RESIDENCIAL, 500, 300, x, y, 2 , 2);
-        this.Robos = new ArrayList<>();
+        this.Robos = new ConjuntoOcupantes();
+    }
+
+    private predioResidencial(predioResidencial original, UnaryOperator<Robo> copiaDoRobo) {
+        super(original);
+        this.Robos = copiarOcupantes(original.getRobos(), copiaDoRobo);
+    }
+
+    @Override
+    protected Predio copiar(UnaryOperator<Robo> copiaDoRobo) {
+        return new predioResidencial(this, copiaDoRobo);
     }
 
     /**
@@ -48,6 +58,7 @@ public class predioResidencial extends Predio {
     public boolean addRobo(Robo robo){
         if (!this.Robos.contains(robo) && this.Robos.size() < maxRobos){
             this.Robos.add(robo);
+            notificarEntrada(robo);
             return true;
         }
         return false;
@@ -59,12 +70,14 @@ public class predioResidencial extends Predio {
      * @param robo O robô a ser removido
      */
     public void removeRobo(Robo robo){
-        this.Robos.remove(robo);
+        if (this.Robos.remove(robo)) {
+            notificarSaida(robo);
+        }
     }
 
     public List<Robo> getRobos() {
         if (Robos == null) {
-            Robos = new ArrayList<>();
+            Robos = new ConjuntoOcupantes();
         }
         // Retorna a lista original para Jackson poder serializar corretamente
         return Robos;
@@ -72,11 +85,18 @@ public class predioResidencial extends Predio {
     
     // Setter para Jackson deserializar
     public void setRobos(List<Robo> robos) {
+        List<Robo> anteriores = this.Robos;
         if (robos == null) {
-            this.Robos = new ArrayList<>();
+            this.Robos = new ConjuntoOcupantes();
         } else {
-            this.Robos = new ArrayList<>(robos);
+            this.Robos = new ConjuntoOcupantes(robos);
         }
+        notificarTroca(anteriores, this.Robos);
+    }
+
+    @Override
+    protected List<Robo> listarOcupantes() {
+        return getRobos();
     }
 
     /**
@@ -89,10 +109,17 @@ public class predioResidencial extends Predio {
      */
     @Override
     public void efeito(City city){
-        if (!Robos.isEmpty()){
-            for (Robo robo : Robos){
-                robo.dormir();
-            }
+        // Laço indexado: não cria iterador a cada turno
+        for (int i = 0; i < Robos.size(); i++){
+            Robos.get(i).dormir();
         }
     }
+
+    /**
+     * O descanso só altera os robôs do próprio prédio, então pode ser executado em paralelo.
+     */
+    @Override
+    public boolean permiteEfeitoParalelo() {
+        return true;
+    }
 }
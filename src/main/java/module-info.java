@@ -3,6 +3,7 @@ module org.example.pbl3java {
     requires javafx.fxml;
     requires com.fasterxml.jackson.databind;
     requires java.desktop;
+    requires jdk.management;
 
     // Exportações para JavaFX
     opens org.example.pbl3java to javafx.fxml;
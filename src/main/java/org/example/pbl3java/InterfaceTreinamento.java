@@ -32,6 +32,7 @@ public class InterfaceTreinamento {
     
     // Componentes da interface
     private ComboBox<TipoDeRobo> comboBoxTipoRobo;
+    private TextField campoQuantidade;
     private ListView<String> listaFilaTreinamento;
     private Label labelCustoDinheiro;
     private Label labelCustoPecas;
@@ -174,6 +175,16 @@ public class InterfaceTreinamento {
         );
         secao.getChildren().add(descricaoTipos);
         
+        // Quantidade de robôs do lote
+        Label labelQuantidade = new Label("Quantidade:");
+        labelQuantidade.setFont(Font.font("Arial", 12));
+        labelQuantidade.setTextFill(Color.WHITE);
+        campoQuantidade = new TextField("1");
+        campoQuantidade.setPrefColumnCount(6);
+        HBox linhaQuantidade = new HBox(10, labelQuantidade, campoQuantidade);
+        linhaQuantidade.setAlignment(Pos.CENTER_LEFT);
+        secao.getChildren().add(linhaQuantidade);
+        
         // Botão Treinar
         Button btnTreinar = new Button("🎓 Iniciar Treinamento");
         btnTreinar.setPrefWidth(Double.MAX_VALUE);
@@ -265,13 +276,27 @@ public class InterfaceTreinamento {
             if (fila.isEmpty()) {
                 listaFilaTreinamento.getItems().add("Fila vazia - Nenhum robô em treinamento");
             } else {
-                for (int i = 0; i < fila.size(); i++) {
-                    RoboEmTreinamento treinamento = fila.get(i);
-                    String info = String.format("%d. %s - %d turno(s) restante(s)", 
-                        i + 1, 
+                // Agrupa robôs consecutivos do mesmo tipo e tempo, para que lotes grandes
+                // ocupem uma linha só
+                int inicio = 0;
+                while (inicio < fila.size()) {
+                    RoboEmTreinamento treinamento = fila.get(inicio);
+                    int fim = inicio + 1;
+                    while (fim < fila.size()
+                            && fila.get(fim).getTipo() == treinamento.getTipo()
+                            && fila.get(fim).getTempoRestante() == treinamento.getTempoRestante()) {
+                        fim++;
+                    }
+                    String posicao = fim - inicio == 1
+                            ? String.valueOf(inicio + 1)
+                            : (inicio + 1) + "-" + fim;
+                    String info = String.format("%s. %s x%d - %d turno(s) restante(s)", 
+                        posicao, 
                         treinamento.getTipo(), 
+                        fim - inicio,
                         treinamento.getTempoRestante());
                     listaFilaTreinamento.getItems().add(info);
+                    inicio = fim;
                 }
             }
         }
@@ -279,7 +304,22 @@ public class InterfaceTreinamento {
     
     private void iniciarTreinamento() {
         if (comboBoxTipoRobo.getValue() != null && cidade != null) {
-            boolean sucesso = roboController.treinarRobo(cidade, comboBoxTipoRobo.getValue());
+            int quantidade;
+            try {
+                quantidade = Integer.parseInt(campoQuantidade.getText().trim());
+            } catch (NumberFormatException e) {
+                quantidade = -1;
+            }
+            if (quantidade <= 0) {
+                Alert erro = new Alert(Alert.AlertType.WARNING);
+                erro.setTitle("Quantidade Inválida");
+                erro.setHeaderText(null);
+                erro.setContentText("Informe um número inteiro positivo de robôs.");
+                erro.showAndWait();
+                return;
+            }
+            
+            boolean sucesso = roboController.treinarRobos(cidade, comboBoxTipoRobo.getValue(), quantidade);
             
             if (sucesso) {
                 atualizarInformacoes();
@@ -287,7 +327,7 @@ public class InterfaceTreinamento {
                 Alert sucessoAlert = new Alert(Alert.AlertType.INFORMATION);
                 sucessoAlert.setTitle("Treinamento Iniciado");
                 sucessoAlert.setHeaderText(null);
-                sucessoAlert.setContentText("Treinamento de " + comboBoxTipoRobo.getValue() + " iniciado com sucesso!\nO robô estará pronto em 3 turnos.");
+                sucessoAlert.setContentText("Treinamento de " + quantidade + " " + comboBoxTipoRobo.getValue() + " iniciado com sucesso!\nOs robôs estarão prontos em 3 turnos.");
                 sucessoAlert.showAndWait();
             } else {
                 Alert erro = new Alert(Alert.AlertType.ERROR);
@@ -298,8 +338,8 @@ public class InterfaceTreinamento {
                     erro.setContentText("Centro não encontrado na cidade!");
                 } else {
                     erro.setContentText("Recursos insuficientes!\nNecessário: " + 
-                        centro.getCustoTreinamentoDinheiro() + "💰 e " + 
-                        centro.getCustoTreinamentoPecas() + "🔧");
+                        centro.getCustoTreinamentoDinheiro() * quantidade + "💰 e " + 
+                        (long) centro.getCustoTreinamentoPecas() * quantidade + "🔧");
                 }
                 erro.showAndWait();
             }
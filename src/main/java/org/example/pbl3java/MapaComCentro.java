@@ -20,15 +20,16 @@ import model.Predio;
 import model.Robo;
 import model.predioComercial;
 import model.predioResidencial;
-import controller.RoboController;
 
 public class MapaComCentro extends Application {
 
-    // 1. Definições de Tamanho (Devem ser consistentes com a classe Cidade)
-    private static final int GRID_SIZE = 30;
+    // 1. Definições de Tamanho (as dimensões do grid vêm da cidade exibida)
     private static final double CELL_SIZE = 40.0;
+    private static final int AUTOSAVE_TURNOS = 10; // Autosave em segundo plano a cada 10 turnos
+    private int larguraGrid;
+    private int alturaGrid;
+    private Image terreno; // Imagem do chão, carregada uma única vez para todas as células
     private PredioController predioController = new PredioController();
-    private RoboController roboController = new RoboController();
     private JogoController jogoController;
     private PainelInformacoes painelInformacoes;
 
@@ -54,26 +55,34 @@ public class MapaComCentro extends Application {
 
         // Inicializa o JogoController
         this.jogoController = new JogoController(cidadeAtual);
+        this.jogoController.setAutosave(AUTOSAVE_TURNOS);
+
+        // Dimensões do grid definidas pela cidade
+        this.larguraGrid = cidadeAtual.getLarguraMapa();
+        this.alturaGrid = cidadeAtual.getAlturaMapa();
+        this.terreno = new Image(getClass().getResourceAsStream("/chao.png"));
 
         // Inicializa o GridPane e o ScrollPane
         mapaCidade = new GridPane();
         mapaCidade.setHgap(0);
         mapaCidade.setVgap(0);
         // Define tamanho baseado no número de células e tamanho fixo da célula
-        double tamanhoMapa = GRID_SIZE * CELL_SIZE;
-        mapaCidade.setPrefSize(tamanhoMapa, tamanhoMapa);
-        mapaCidade.setMinSize(tamanhoMapa, tamanhoMapa);
-        mapaCidade.setMaxSize(tamanhoMapa, tamanhoMapa);
+        double larguraMapa = larguraGrid * CELL_SIZE;
+        double alturaMapa = alturaGrid * CELL_SIZE;
+        mapaCidade.setPrefSize(larguraMapa, alturaMapa);
+        mapaCidade.setMinSize(larguraMapa, alturaMapa);
+        mapaCidade.setMaxSize(larguraMapa, alturaMapa);
         mapaCidade.setStyle("-fx-background-color: transparent;"); // Transparente, o fundo vem do ScrollPane
 
         // Configura colunas e linhas com tamanho fixo
-        for (int i = 0; i < GRID_SIZE; i++) {
+        for (int i = 0; i < larguraGrid; i++) {
             ColumnConstraints col = new ColumnConstraints(CELL_SIZE);
             col.setMinWidth(CELL_SIZE);
             col.setMaxWidth(CELL_SIZE);
             col.setHgrow(Priority.NEVER);
             mapaCidade.getColumnConstraints().add(col);
-            
+        }
+        for (int i = 0; i < alturaGrid; i++) {
             RowConstraints row = new RowConstraints(CELL_SIZE);
             row.setMinHeight(CELL_SIZE);
             row.setMaxHeight(CELL_SIZE);
@@ -82,8 +91,8 @@ public class MapaComCentro extends Application {
         }
 
         // Adiciona todas as células do chão
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
+        for (int i = 0; i < larguraGrid; i++) {
+            for (int j = 0; j < alturaGrid; j++) {
                 // CRIA e configura o visual da célula com o handler de clique
                 Node cellVisual = criarCelulaMapa(i, j);
                 // Adiciona o visual à grade na posição (i, j)
@@ -93,9 +102,9 @@ public class MapaComCentro extends Application {
 
         // 3. Cria uma camada Pane para prédios e robôs (permite sobreposição)
         layerPredios = new Pane();
-        layerPredios.setPrefSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
-        layerPredios.setMinSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
-        layerPredios.setMaxSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
+        layerPredios.setPrefSize(larguraMapa, alturaMapa);
+        layerPredios.setMinSize(larguraMapa, alturaMapa);
+        layerPredios.setMaxSize(larguraMapa, alturaMapa);
         layerPredios.setStyle("-fx-background-color: transparent;"); // Transparente, não cinza
         layerPredios.setMouseTransparent(true); // Permite cliques passarem para o GridPane (importante!)
         
@@ -104,9 +113,9 @@ public class MapaComCentro extends Application {
         container.getChildren().addAll(mapaCidade, layerPredios);
         container.setStyle("-fx-background-color: transparent;"); // Remove qualquer fundo cinza
         // Garante que o container tenha o tamanho correto do mapa
-        container.setPrefSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
-        container.setMinSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
-        container.setMaxSize(GRID_SIZE * CELL_SIZE, GRID_SIZE * CELL_SIZE);
+        container.setPrefSize(larguraMapa, alturaMapa);
+        container.setMinSize(larguraMapa, alturaMapa);
+        container.setMaxSize(larguraMapa, alturaMapa);
 
         // 5. Desenha os Prédios na camada de prédios
         desenharPredios(cidadeAtual);
@@ -169,7 +178,7 @@ public class MapaComCentro extends Application {
             int largura = predio.getLargura();
             int altura = predio.getAltura();
             
-            if (posX < 0 || posY < 0 || posX + largura > GRID_SIZE || posY + altura > GRID_SIZE) {
+            if (posX < 0 || posY < 0 || posX + largura > larguraGrid || posY + altura > alturaGrid) {
                 System.err.println("Prédio fora dos limites do mapa: " + predio.getTipo() + " em (" + posX + ", " + posY + ")");
                 continue; // Pula prédios fora dos limites
             }
@@ -341,7 +350,7 @@ public class MapaComCentro extends Application {
             roboImageView.setSmooth(true);
 
             // Verifica se o robô está em um prédio
-            Predio predioDoRobo = roboController.encontrarPredioDoRobo(robo, cidade);
+            Predio predioDoRobo = cidade.getPredioDoRobo(robo);
             
             int posX, posY;
             
@@ -411,7 +420,7 @@ public class MapaComCentro extends Application {
             }
 
             // Valida se a posição está dentro dos limites do mapa
-            if (posX < 0 || posX >= GRID_SIZE || posY < 0 || posY >= GRID_SIZE) {
+            if (posX < 0 || posX >= larguraGrid || posY < 0 || posY >= alturaGrid) {
                 continue; // Posição inválida, pula este robô
             }
 
@@ -461,8 +470,7 @@ public class MapaComCentro extends Application {
      */
     private Node criarCelulaMapa(int x, int y) {
 
-        // Carrega a imagem do chão corretamente
-        Image terreno = new Image(getClass().getResourceAsStream("/chao.png"));
+        // Usa a imagem do chão carregada em start()
         if (terreno.isError() || terreno.getWidth() <= 0) {
             System.err.println("Erro ao carregar imagem do chão: /chao.png");
             // Cria uma célula vazia se a imagem não carregar (transparente)
@@ -494,6 +502,11 @@ public class MapaComCentro extends Application {
         // 2. Adiciona o Manipulador de Clique na célula inteira
         cellPane.setOnMouseClicked(event -> {
 
+            // Durante o avanço rápido a cidade está sendo simulada em outra thread
+            if (painelInformacoes != null && painelInformacoes.isAvancoRapidoEmAndamento()) {
+                return;
+            }
+
             // As variáveis x e y já são as coordenadas corretas
             int coluna = x;
             int linha = y;
@@ -2,6 +2,7 @@ package org.example.pbl3java;
 
 import controller.JogoController;
 import controller.RoboController;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -15,8 +16,13 @@ import model.TipoDeRobo;
 import model.TipoPredio;
 import model.Predio;
 import model.Centro;
+import model.Evento;
+import model.Turno;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Painel lateral que exibe informações sobre a cidade e permite controlar o jogo.
@@ -40,6 +46,8 @@ public class PainelInformacoes extends VBox {
     
     // Botões de controle
     private Button btnProximoTurno;
+    private Button btnAvancarVarios;
+    private TextField campoQtdTurnos;
     private Button btnSalvarCidade;
     private Button btnVoltarMenu;
     private Stage stagePrincipal; // Referência ao Stage principal do jogo
@@ -55,6 +63,13 @@ public class PainelInformacoes extends VBox {
     private Button btnSelecionarResidencial;
     private Label labelTipoSelecionado;
     private InterfaceGerenciamentoRobos interfaceGerenciamentoRobos;
+
+    // Avanço rápido: os turnos rodam em uma thread de fundo e a tela é redesenhada
+    // no máximo a cada INTERVALO_QUADRO_NANOS, e não a cada turno
+    private static final long INTERVALO_QUADRO_NANOS = 100_000_000L; // 10 quadros por segundo
+    private static final int MAX_EVENTOS_EXIBIDOS = 10;
+    private Thread threadAvanco;
+    private volatile boolean cancelarAvanco;
     
     public PainelInformacoes(City cidade, JogoController jogoController) {
         this.cidade = cidade;
@@ -372,6 +387,20 @@ public class PainelInformacoes extends VBox {
         btnProximoTurno.setStyle("-fx-font-size: 13px; -fx-font-weight: bold; -fx-background-color: #27ae60; -fx-text-fill: white;");
         btnProximoTurno.setOnAction(e -> avancarTurno());
         secaoBotoes.getChildren().add(btnProximoTurno);
+
+        // Avanço rápido: quantidade de turnos + botão (vira "Parar" durante a execução)
+        HBox linhaAvanco = new HBox(5);
+        campoQtdTurnos = new TextField("10");
+        campoQtdTurnos.setPrefColumnCount(4);
+        campoQtdTurnos.setPrefHeight(30);
+        btnAvancarVarios = new Button("⏩ Avançar Turnos");
+        btnAvancarVarios.setMaxWidth(Double.MAX_VALUE);
+        btnAvancarVarios.setPrefHeight(30);
+        btnAvancarVarios.setStyle("-fx-font-size: 11px; -fx-background-color: #16a085; -fx-text-fill: white;");
+        btnAvancarVarios.setOnAction(e -> avancarVariosTurnos());
+        HBox.setHgrow(btnAvancarVarios, Priority.ALWAYS);
+        linhaAvanco.getChildren().addAll(campoQtdTurnos, btnAvancarVarios);
+        secaoBotoes.getChildren().add(linhaAvanco);
         
         // Botão Salvar Cidade (menor)
         btnSalvarCidade = new Button("💾 Salvar Cidade");
@@ -425,9 +454,9 @@ public class PainelInformacoes extends VBox {
         labelFelicidade.setText(String.format("%.1f%%", cidade.getFelicidadeMedia()));
         
         // Robôs por tipo
-        int qtdTrabalhadores = roboController.listarRobosPorTipo(cidade, TipoDeRobo.TRABALHADOR).size();
-        int qtdEngenheiros = roboController.listarRobosPorTipo(cidade, TipoDeRobo.ENGENHEIRO).size();
-        int qtdSegurancas = roboController.listarRobosPorTipo(cidade, TipoDeRobo.SEGURANCA).size();
+        int qtdTrabalhadores = roboController.contarRobosPorTipo(cidade, TipoDeRobo.TRABALHADOR);
+        int qtdEngenheiros = roboController.contarRobosPorTipo(cidade, TipoDeRobo.ENGENHEIRO);
+        int qtdSegurancas = roboController.contarRobosPorTipo(cidade, TipoDeRobo.SEGURANCA);
         
         labelTrabalhadores.setText(String.valueOf(qtdTrabalhadores));
         labelEngenheiros.setText(String.valueOf(qtdEngenheiros));
@@ -445,6 +474,9 @@ public class PainelInformacoes extends VBox {
      * Abre a interface de treinamento.
      */
     private void abrirInterfaceTreinamento() {
+        if (isAvancoRapidoEmAndamento()) {
+            return; // A cidade está sendo simulada em outra thread
+        }
         if (interfaceTreinamento != null) {
             interfaceTreinamento.atualizarCidade(cidade);
             interfaceTreinamento.mostrar();
@@ -466,7 +498,7 @@ public class PainelInformacoes extends VBox {
             for (Predio predio : cidade.getPredios()) {
                 if (predio instanceof Centro) {
                     Centro centro = (Centro) predio;
-                    int tamanhoFila = centro.getFilaDeTreinamento().size();
+                    int tamanhoFila = centro.contarEmTreinamento();
                     labelFilaTreinamento.setText("Fila: " + tamanhoFila);
                     break;
                 }
@@ -486,6 +518,9 @@ public class PainelInformacoes extends VBox {
      * Abre a interface de gerenciamento de robôs.
      */
     private void abrirInterfaceGerenciamento() {
+        if (isAvancoRapidoEmAndamento()) {
+            return; // A cidade está sendo simulada em outra thread
+        }
         if (interfaceGerenciamentoRobos != null) {
             interfaceGerenciamentoRobos.atualizarCidade(cidade);
             interfaceGerenciamentoRobos.mostrar();
@@ -519,55 +554,176 @@ public class PainelInformacoes extends VBox {
     }
     
     /**
-     * Adiciona um evento à área de eventos.
+     * Avança para o próximo turno.
      */
-    public void adicionarEvento(String evento) {
-        if (areaEventos != null) {
-            String textoAtual = areaEventos.getText();
-            String novoTexto = "Turno " + cidade.getTurnoAtual() + ": " + evento;
-            if (!textoAtual.isEmpty()) {
-                areaEventos.setText(novoTexto + "\n" + textoAtual);
-            } else {
-                areaEventos.setText(novoTexto);
-            }
+    private void avancarTurno() {
+        if (jogoController != null && !isAvancoRapidoEmAndamento()) {
+            jogoController.proximoTurno();
+            atualizarTela();
             
-            // Limita a 10 eventos mais recentes
-            String[] linhas = areaEventos.getText().split("\n");
-            if (linhas.length > 10) {
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < 10; i++) {
-                    if (i > 0) sb.append("\n");
-                    sb.append(linhas[i]);
+            // Adiciona eventos do turno à área de eventos
+            // Não mostra mensagem se não houver eventos - é normal não ter eventos em alguns turnos
+            if (jogoController.getUltimoTurno() != null) {
+                registrarEventos(List.of(jogoController.getUltimoTurno()));
+            }
+        }
+    }
+
+    /**
+     * Avança a quantidade de turnos digitada em uma thread de fundo.
+     * 
+     * <p>A tela é redesenhada no máximo 10 vezes por segundo e uma última vez ao final, de modo
+     * que a velocidade é limitada pela simulação e não pela reconstrução do mapa. Durante cada
+     * redesenho a simulação fica parada, então a tela nunca lê a cidade no meio de um turno.
+     * Se o avanço já estiver em andamento, o botão o interrompe.
+     */
+    private void avancarVariosTurnos() {
+        if (jogoController == null) {
+            return;
+        }
+        if (isAvancoRapidoEmAndamento()) {
+            cancelarAvanco = true;
+            return;
+        }
+
+        int quantidade;
+        try {
+            quantidade = Integer.parseInt(campoQtdTurnos.getText().trim());
+        } catch (NumberFormatException e) {
+            quantidade = -1;
+        }
+        if (quantidade <= 0) {
+            Alert erro = new Alert(Alert.AlertType.WARNING);
+            erro.setTitle("Quantidade Inválida");
+            erro.setHeaderText(null);
+            erro.setContentText("Informe um número de turnos maior que zero.");
+            erro.showAndWait();
+            return;
+        }
+
+        final int total = quantidade;
+        cancelarAvanco = false;
+        btnProximoTurno.setDisable(true);
+        btnSalvarCidade.setDisable(true);
+        btnVoltarMenu.setDisable(true);
+        btnAvancarVarios.setText("⏹ Parar");
+
+        threadAvanco = new Thread(() -> executarAvanco(total), "avanco-rapido");
+        threadAvanco.setDaemon(true);
+        threadAvanco.start();
+    }
+
+    /**
+     * Laço do avanço rápido, executado fora da thread do JavaFX.
+     */
+    private void executarAvanco(int total) {
+        List<Turno> turnosComEventos = new ArrayList<>();
+        long proximoQuadro = System.nanoTime() + INTERVALO_QUADRO_NANOS;
+        try {
+            for (int i = 0; i < total && !cancelarAvanco; i++) {
+                turnosComEventos.addAll(jogoController.avancarTurnos(1));
+
+                if (System.nanoTime() >= proximoQuadro) {
+                    List<Turno> lote = turnosComEventos;
+                    turnosComEventos = new ArrayList<>();
+                    executarNaTelaEEsperar(() -> {
+                        atualizarTela();
+                        registrarEventos(lote);
+                    });
+                    proximoQuadro = System.nanoTime() + INTERVALO_QUADRO_NANOS;
                 }
-                areaEventos.setText(sb.toString());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            List<Turno> restantes = turnosComEventos;
+            Platform.runLater(() -> {
+                atualizarTela();
+                registrarEventos(restantes);
+                finalizarAvanco();
+            });
         }
     }
-    
+
     /**
-     * Avança para o próximo turno.
+     * Executa uma ação na thread do JavaFX e espera ela terminar.
      */
-    private void avancarTurno() {
-        if (jogoController != null) {
-            jogoController.proximoTurno();
-            atualizarInformacoes();
-            
-            // Atualiza o mapa após avançar o turno (novos robôs podem ter sido criados)
-            if (mapaComCentro != null) {
-                mapaComCentro.atualizarMapa();
+    private void executarNaTelaEEsperar(Runnable acao) throws InterruptedException {
+        CountDownLatch concluido = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                acao.run();
+            } finally {
+                concluido.countDown();
             }
-            
-            // Adiciona eventos do turno à área de eventos
-            if (jogoController.getUltimoTurno() != null) {
-                var eventos = jogoController.getUltimoTurno().getEventosOcorridos();
-                if (!eventos.isEmpty()) {
-                    for (String evento : eventos) {
-                        adicionarEvento(evento);
-                    }
+        });
+        concluido.await();
+    }
+
+    private void finalizarAvanco() {
+        threadAvanco = null;
+        btnProximoTurno.setDisable(false);
+        btnSalvarCidade.setDisable(false);
+        btnVoltarMenu.setDisable(false);
+        btnAvancarVarios.setText("⏩ Avançar Turnos");
+    }
+
+    /**
+     * Indica se um avanço rápido está rodando. Enquanto estiver, a cidade não deve ser
+     * alterada pela interface (ex: construção de prédios pelo mapa).
+     * @return true se há um avanço rápido em andamento
+     */
+    public boolean isAvancoRapidoEmAndamento() {
+        return threadAvanco != null;
+    }
+
+    /**
+     * Atualiza o painel e o mapa com o estado atual da cidade.
+     */
+    private void atualizarTela() {
+        atualizarInformacoes();
+        
+        // Atualiza o mapa após avançar o turno (novos robôs podem ter sido criados)
+        if (mapaComCentro != null) {
+            mapaComCentro.atualizarMapa();
+        }
+    }
+
+    /**
+     * Adiciona os eventos de vários turnos à área de eventos de uma só vez,
+     * mantendo apenas os mais recentes.
+     * 
+     * <p>É aqui que a mensagem de cada {@link Evento} é montada, no momento em que é exibida.
+     * 
+     * @param turnos Turnos em ordem cronológica
+     */
+    private void registrarEventos(List<Turno> turnos) {
+        if (areaEventos == null || turnos.isEmpty()) {
+            return;
+        }
+        // Coleta do mais recente para o mais antigo, no máximo MAX_EVENTOS_EXIBIDOS linhas
+        List<String> linhas = new ArrayList<>(MAX_EVENTOS_EXIBIDOS);
+        for (int t = turnos.size() - 1; t >= 0 && linhas.size() < MAX_EVENTOS_EXIBIDOS; t--) {
+            Turno turno = turnos.get(t);
+            // Só os eventos que vão aparecer na tela têm a mensagem montada
+            List<Evento> eventos = turno.getEventos();
+            for (int e = eventos.size() - 1; e >= 0 && linhas.size() < MAX_EVENTOS_EXIBIDOS; e--) {
+                linhas.add("Turno " + turno.getnTurno() + ": " + eventos.get(e).descrever());
+            }
+        }
+        if (linhas.isEmpty()) {
+            return;
+        }
+        // Completa com as linhas que já estavam na tela
+        if (linhas.size() < MAX_EVENTOS_EXIBIDOS && !areaEventos.getText().isEmpty()) {
+            for (String linha : areaEventos.getText().split("\n")) {
+                if (linhas.size() >= MAX_EVENTOS_EXIBIDOS) {
+                    break;
                 }
-                // Não mostra mensagem se não houver eventos - é normal não ter eventos em alguns turnos
+                linhas.add(linha);
             }
         }
+        areaEventos.setText(String.join("\n", linhas));
     }
     
     /**
@@ -575,20 +731,25 @@ public class PainelInformacoes extends VBox {
      */
     private void salvarCidade() {
         if (jogoController != null && cidade != null) {
-            try {
-                jogoController.salvarCity();
-                Alert sucesso = new Alert(Alert.AlertType.INFORMATION);
-                sucesso.setTitle("Cidade Salva");
-                sucesso.setHeaderText(null);
-                sucesso.setContentText("A cidade \"" + cidade.getNome() + "\" foi salva com sucesso!");
-                sucesso.showAndWait();
-            } catch (IOException e) {
-                Alert erro = new Alert(Alert.AlertType.ERROR);
-                erro.setTitle("Erro ao Salvar");
-                erro.setHeaderText(null);
-                erro.setContentText("Não foi possível salvar a cidade: " + e.getMessage());
-                erro.showAndWait();
-            }
+            // Apenas o snapshot é feito aqui; a escrita do arquivo acontece em segundo plano
+            String nomeCidade = cidade.getNome();
+            btnSalvarCidade.setDisable(true);
+            jogoController.salvarEmSegundoPlano().whenComplete((ok, falha) -> Platform.runLater(() -> {
+                btnSalvarCidade.setDisable(isAvancoRapidoEmAndamento());
+                if (falha == null) {
+                    Alert sucesso = new Alert(Alert.AlertType.INFORMATION);
+                    sucesso.setTitle("Cidade Salva");
+                    sucesso.setHeaderText(null);
+                    sucesso.setContentText("A cidade \"" + nomeCidade + "\" foi salva com sucesso!");
+                    sucesso.show();
+                } else {
+                    Alert erro = new Alert(Alert.AlertType.ERROR);
+                    erro.setTitle("Erro ao Salvar");
+                    erro.setHeaderText(null);
+                    erro.setContentText("Não foi possível salvar a cidade: " + falha.getMessage());
+                    erro.show();
+                }
+            }));
         }
     }
     
@@ -0,0 +1,174 @@
+package org.example.pbl3java;
+
+import controller.AgendadorSimulacoes;
+import controller.JogoController;
+import controller.PersistenceController;
+import controller.PipelineTurno;
+import model.City;
+import model.TipoDeRobo;
+
+import java.io.IOException;
+
+/**
+ * Ponto de entrada sem interface gráfica para simular uma cidade salva.
+ *
+ * <p>Carrega a cidade do diretório de saves, executa N turnos o mais rápido possível
+ * e exibe turnos por segundo e o estado final. Útil para testes de carga e de longa
+ * duração em servidores sem display, pois não inicializa o JavaFX.
+ *
+ * <p>Uso: {@code SimuladorHeadless <nomeCidade> <turnos> [--salvar] [--paralelo] [--semente N]}
+ * <ul>
+ *   <li>{@code --salvar}: grava a cidade de volta no arquivo ao final</li>
+ *   <li>{@code --paralelo}: processa os efeitos dos prédios em paralelo</li>
+ *   <li>{@code --semente N}: fixa a semente dos eventos, tornando a execução reproduzível</li>
+ * </ul>
+ *
+ * <p>Com {@code --todas} no lugar do nome, todas as cidades do diretório de saves são
+ * simuladas ao mesmo tempo pelo {@link AgendadorSimulacoes}, uma por virtual thread. As
+ * opções valem para cada cidade; com {@code --semente} todas usam a mesma semente.
+ */
+public class SimuladorHeadless {
+
+    // Máximo de cargas/gravações simultâneas no modo --todas
+    private static final int MAX_OPERACOES_DISCO = 8;
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Uso: SimuladorHeadless <nomeCidade|--todas> <turnos> [--salvar] [--paralelo] [--semente N]");
+            System.exit(2);
+        }
+
+        String nomeCidade = args[0];
+        int turnos;
+        try {
+            turnos = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            System.err.println("Quantidade de turnos inválida: " + args[1]);
+            System.exit(2);
+            return;
+        }
+
+        boolean salvar = false;
+        boolean paralelo = false;
+        Long semente = null;
+        for (int i = 2; i < args.length; i++) {
+            if ("--salvar".equals(args[i])) {
+                salvar = true;
+            } else if ("--paralelo".equals(args[i])) {
+                paralelo = true;
+            } else if ("--semente".equals(args[i]) && i + 1 < args.length) {
+                try {
+                    semente = Long.parseLong(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Semente inválida: " + args[i]);
+                    System.exit(2);
+                }
+            } else {
+                System.err.println("Opção desconhecida: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        if ("--todas".equals(nomeCidade)) {
+            simularTodas(turnos, salvar, paralelo, semente);
+            return;
+        }
+
+        try {
+            City cidade = PersistenceController.carregarCidade(nomeCidade);
+            JogoController jogoController = semente != null
+                    ? new JogoController(cidade, semente)
+                    : new JogoController(cidade);
+            jogoController.setModoParalelo(paralelo);
+            // Os turnos não são guardados: reaproveita o mesmo Turno e evita pausas do GC
+            jogoController.setModoSemAlocacao(true);
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < turnos; i++) {
+                jogoController.proximoTurno();
+            }
+            long duracao = System.nanoTime() - inicio;
+
+            imprimirResumo(cidade, turnos, duracao);
+            imprimirEtapas(jogoController);
+
+            if (salvar) {
+                jogoController.salvarCity();
+                System.out.println("Cidade salva: " + nomeCidade);
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao simular a cidade " + nomeCidade + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Simula todas as cidades salvas em paralelo e exibe a vazão agregada.
+     */
+    private static void simularTodas(int turnos, boolean salvar, boolean paralelo, Long semente) {
+        AgendadorSimulacoes agendador = new AgendadorSimulacoes(MAX_OPERACOES_DISCO);
+        agendador.setModoParalelo(paralelo);
+        agendador.setSemente(semente);
+        try {
+            AgendadorSimulacoes.Relatorio relatorio = agendador.simularTodas(turnos, salvar);
+            for (AgendadorSimulacoes.ResultadoCidade resultado : relatorio.resultados()) {
+                if (resultado.sucesso()) {
+                    System.out.printf("%s: %d turnos em %.3f s%n", resultado.nomeCidade(),
+                            resultado.turnos(), resultado.duracaoNanos() / 1_000_000_000.0);
+                } else {
+                    System.err.println(resultado.nomeCidade() + ": falhou - " + resultado.erro());
+                }
+            }
+            System.out.println("=== Simulação de " + relatorio.resultados().size() + " cidade(s) ===");
+            System.out.printf("Turnos totais: %d em %.3f s (%.1f turnos/s)%n", relatorio.totalTurnos(),
+                    relatorio.duracaoNanos() / 1_000_000_000.0, relatorio.turnosPorSegundo());
+            if (relatorio.falhas() > 0) {
+                System.err.println("Cidades com falha: " + relatorio.falhas());
+                System.exit(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Simulação interrompida.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Exibe o tempo médio e a alocação de cada etapa do turno.
+     */
+    private static void imprimirEtapas(JogoController jogoController) {
+        System.out.println("Etapas do turno:");
+        for (PipelineTurno.EstatisticaEtapa etapa : jogoController.getPipeline().getEstatisticas()) {
+            long execucoes = etapa.getExecucoes();
+            String alocacao = etapa.getBytesAlocados() < 0 || execucoes == 0
+                    ? "n/d"
+                    : (etapa.getBytesAlocados() / execucoes) + " B/turno";
+            System.out.printf("  %-16s %10.1f us/turno  %s%n", etapa.getNome(),
+                    etapa.getNanosMedio() / 1000.0, alocacao);
+        }
+    }
+
+    /**
+     * Exibe o desempenho da simulação e o estado final da cidade.
+     */
+    private static void imprimirResumo(City cidade, int turnos, long duracaoNanos) {
+        double segundos = duracaoNanos / 1_000_000_000.0;
+        double turnosPorSegundo = segundos > 0 ? turnos / segundos : Double.POSITIVE_INFINITY;
+
+        int trabalhadores = cidade.contarRobosPorTipo(TipoDeRobo.TRABALHADOR);
+        int engenheiros = cidade.contarRobosPorTipo(TipoDeRobo.ENGENHEIRO);
+        int segurancas = cidade.contarRobosPorTipo(TipoDeRobo.SEGURANCA);
+
+        System.out.println("=== Simulação: " + cidade.getNome() + " ===");
+        System.out.printf("Turnos executados: %d em %.3f s (%.1f turnos/s)%n", turnos, segundos, turnosPorSegundo);
+        System.out.println("Turno atual: " + cidade.getTurnoAtual());
+        System.out.printf("Dinheiro: %.2f%n", cidade.getDinheiro());
+        System.out.println("Peças: " + cidade.getPecas());
+        System.out.printf("Felicidade média: %.1f%%%n", cidade.getFelicidadeMedia());
+        System.out.println("Robôs: " + cidade.getRobos().size()
+                + " (trabalhadores " + trabalhadores
+                + ", engenheiros " + engenheiros
+                + ", seguranças " + segurancas + ")");
+        System.out.println("Prédios: " + cidade.getPredios().size());
+    }
+}
@@ -0,0 +1,45 @@
+package persistencia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec de compressão dos arquivos de save.
+ * <p>
+ * Um codec comprime e descomprime por streaming, envolvendo o stream do arquivo. Na leitura
+ * o codec é descoberto pelos primeiros bytes do arquivo, então cada codec precisa reconhecer
+ * o próprio cabeçalho. Codecs além dos padrão são adicionados com {@link Compressao#registrar}.
+ */
+public interface CodecCompressao {
+
+        /**
+         * @return O nome do codec (ex: "deflate")
+         */
+        String getNome();
+
+        /**
+         * Verifica se o arquivo foi gravado por este codec.
+         * @param cabecalho Os primeiros bytes do arquivo.
+         * @param tamanho Quantos bytes do cabecalho foram lidos (pode ser menor que o array).
+         * @return true se os bytes correspondem ao cabeçalho do codec.
+         */
+        boolean reconhece(byte[] cabecalho, int tamanho);
+
+        /**
+         * Envolve um stream de saída, comprimindo o que for escrito nele.
+         * Fechar o stream retornado finaliza a compressão e fecha o stream original.
+         * @param saida O stream do arquivo.
+         * @return O stream que recebe os bytes sem compressão.
+         * @throws IOException Se o codec não conseguir iniciar a compressão.
+         */
+        OutputStream comprimir(OutputStream saida) throws IOException;
+
+        /**
+         * Envolve um stream de entrada, descomprimindo o que for lido dele.
+         * @param entrada O stream do arquivo, posicionado no início.
+         * @return O stream com os bytes descomprimidos.
+         * @throws IOException Se o cabeçalho do codec for inválido.
+         */
+        InputStream descomprimir(InputStream entrada) throws IOException;
+}
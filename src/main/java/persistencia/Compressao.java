@@ -0,0 +1,207 @@
+package persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Registro dos codecs de compressão e abertura de arquivos de save comprimidos.
+ * <p>
+ * A gravação usa o codec escolhido por quem salva. A leitura lê os primeiros bytes do
+ * arquivo e usa o primeiro codec registrado que os reconhecer; se nenhum reconhecer, o
+ * arquivo é lido sem descompressão. Assim saves antigos, sem compressão, continuam sendo lidos.
+ * <p>
+ * A compressão é feita por streaming: os bytes sem compressão nunca ficam todos em memória.
+ */
+public final class Compressao {
+
+        /** Bytes lidos do início do arquivo para descobrir o codec. */
+        public static final int TAMANHO_CABECALHO = 8;
+
+        private static final int TAMANHO_BUFFER = 64 * 1024;
+
+        /** Sem compressão: os bytes são gravados como estão. */
+        public static final CodecCompressao NENHUMA = new CodecCompressao() {
+            @Override
+            public String getNome() {
+                return "nenhuma";
+            }
+
+            @Override
+            public boolean reconhece(byte[] cabecalho, int tamanho) {
+                return false; // Usada quando nenhum outro codec reconhece o arquivo
+            }
+
+            @Override
+            public OutputStream comprimir(OutputStream saida) {
+                return saida;
+            }
+
+            @Override
+            public InputStream descomprimir(InputStream entrada) {
+                return entrada;
+            }
+        };
+
+        /** Deflate do {@code java.util.zip}, no formato zlib (cabeçalho de 2 bytes). */
+        public static final CodecCompressao DEFLATE = new CodecCompressao() {
+            @Override
+            public String getNome() {
+                return "deflate";
+            }
+
+            @Override
+            public boolean reconhece(byte[] cabecalho, int tamanho) {
+                // Método 8 (deflate) no primeiro byte e os dois bytes múltiplos de 31
+                if (tamanho < 2) {
+                    return false;
+                }
+                int cmf = cabecalho[0] & 0xFF;
+                int flg = cabecalho[1] & 0xFF;
+                return (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+            }
+
+            @Override
+            public OutputStream comprimir(OutputStream saida) {
+                // Com um Deflater próprio o stream não o libera ao fechar: libera aqui
+                return new DeflaterOutputStream(saida, new Deflater(), TAMANHO_BUFFER) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            def.end();
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public InputStream descomprimir(InputStream entrada) {
+                // Com um Inflater próprio o stream não o libera ao fechar: libera aqui
+                return new InflaterInputStream(entrada, new Inflater(), TAMANHO_BUFFER) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inf.end();
+                        }
+                    }
+                };
+            }
+        };
+
+        private static final List<CodecCompressao> codecs = new CopyOnWriteArrayList<>(List.of(DEFLATE));
+
+        private Compressao() {
+        }
+
+        /**
+         * Registra um codec para ser reconhecido na leitura. Codecs registrados depois são
+         * consultados depois dos anteriores.
+         * @param codec O codec a ser registrado.
+         */
+        public static void registrar(CodecCompressao codec) {
+            if (!codecs.contains(codec)) {
+                codecs.add(codec);
+            }
+        }
+
+        /**
+         * Busca um codec pelo nome.
+         * @param nome O nome do codec.
+         * @return O codec, ou null se nenhum codec registrado tiver o nome.
+         */
+        public static CodecCompressao buscar(String nome) {
+            if (NENHUMA.getNome().equals(nome)) {
+                return NENHUMA;
+            }
+            for (CodecCompressao codec : codecs) {
+                if (codec.getNome().equals(nome)) {
+                    return codec;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Descobre o codec de um cabeçalho.
+         * @param cabecalho Os primeiros bytes do arquivo.
+         * @param tamanho Quantos bytes foram lidos.
+         * @return O codec que reconhece o cabeçalho, ou {@link #NENHUMA}.
+         */
+        public static CodecCompressao detectar(byte[] cabecalho, int tamanho) {
+            for (CodecCompressao codec : codecs) {
+                if (codec.reconhece(cabecalho, tamanho)) {
+                    return codec;
+                }
+            }
+            return NENHUMA;
+        }
+
+        /**
+         * Descobre o codec de um arquivo lendo o seu início.
+         * @param arquivo O arquivo.
+         * @return O codec do arquivo, ou {@link #NENHUMA} se não estiver comprimido.
+         * @throws IOException Se o arquivo não puder ser lido.
+         */
+        public static CodecCompressao detectar(Path arquivo) throws IOException {
+            try (InputStream entrada = Files.newInputStream(arquivo)) {
+                byte[] cabecalho = new byte[TAMANHO_CABECALHO];
+                return detectar(cabecalho, entrada.readNBytes(cabecalho, 0, cabecalho.length));
+            }
+        }
+
+        /**
+         * Abre o arquivo para gravação com buffer, comprimindo com o codec informado.
+         * @param arquivo O arquivo, criado ou sobrescrito.
+         * @param codec O codec de compressão.
+         * @return O stream que recebe os bytes sem compressão.
+         * @throws IOException Se o arquivo não puder ser aberto.
+         */
+        public static OutputStream abrirEscrita(Path arquivo, CodecCompressao codec) throws IOException {
+            FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                return codec.comprimir(new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER));
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Abre o arquivo para leitura com buffer, descomprimindo com o codec detectado no início.
+         * @param arquivo O arquivo.
+         * @return O stream com os bytes descomprimidos.
+         * @throws IOException Se o arquivo não puder ser aberto ou o cabeçalho for inválido.
+         */
+        public static InputStream abrirLeitura(Path arquivo) throws IOException {
+            FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+            try {
+                BufferedInputStream entrada = new BufferedInputStream(Channels.newInputStream(canal), TAMANHO_BUFFER);
+                entrada.mark(TAMANHO_CABECALHO);
+                byte[] cabecalho = new byte[TAMANHO_CABECALHO];
+                int lidos = entrada.readNBytes(cabecalho, 0, cabecalho.length);
+                entrada.reset();
+                return detectar(cabecalho, lidos).descomprimir(entrada);
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+}
@@ -0,0 +1,349 @@
+package persistencia;
+
+import model.Centro;
+import model.City;
+import model.Evento;
+import model.Predio;
+import model.Robo;
+import model.TabelaRobos;
+import model.TipoEvento;
+import model.Turno;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Diário de turnos: arquivo só de acréscimo gravado ao lado do save da cidade.
+ * <p>
+ * O save completo (o checkpoint) é escrito de tempos em tempos; entre dois checkpoints cada
+ * turno acrescenta ao diário apenas o que mudou: recursos, contadores de ids, os robôs cujos
+ * atributos mudaram, os robôs novos (ex: recém-treinados), as filas de treinamento que estão
+ * andando e os eventos do turno. Assim o custo de gravar um turno acompanha o tamanho da
+ * alteração, e não o da cidade. Ao carregar, o checkpoint é lido e os registros do diário
+ * posteriores a ele são reaplicados ({@link #reaplicar(City, Path)}).
+ * <p>
+ * O arquivo começa com {@link #MAGIA}, {@link #VERSAO_FORMATO}, o nome da cidade e o turno do
+ * checkpoint, seguidos dos registros. Cada registro é uma seção no formato da
+ * {@link SaidaBinaria} (identificação, tamanho e conteúdo); o tamanho só é preenchido depois
+ * que o conteúdo foi escrito, então um registro interrompido (tamanho zero ou maior que o
+ * arquivo) marca o fim do diário e é descartado na leitura.
+ * <p>
+ * Os registros descrevem alterações de uma estrutura fixa: o conjunto de prédios, a ocupação e
+ * os slots dos robôs existentes. Quando a estrutura muda, {@link #registrar(Turno)} retorna
+ * false e quem grava precisa escrever um checkpoint novo e iniciar outro diário.
+ */
+public class DiarioTurnos implements Closeable {
+
+        /** Identificador do formato no início do arquivo ("CRDT"). */
+        public static final int MAGIA = 0x43524454;
+        /** Versão atual do formato do diário. */
+        public static final int VERSAO_FORMATO = 1;
+
+        static final int REGISTRO_TURNO = 1;
+
+        private static final int TAMANHO_BUFFER = 64 * 1024;
+        private static final TipoEvento[] TIPOS_EVENTO = TipoEvento.values();
+
+        private final FileChannel canal;
+        private final SaidaBinaria saida;
+        private final City cidade;
+        private final TabelaRobos robos;
+        private final long versaoEstrutura;
+        private final long versaoSlots;
+        private final List<Centro> centros = new ArrayList<>();
+        private final boolean[] filaGravada; // Centros com fila no último registro
+        private int robosRegistrados;
+
+        private DiarioTurnos(FileChannel canal, City cidade) {
+            this.canal = canal;
+            this.saida = new SaidaBinaria(canal, TAMANHO_BUFFER);
+            this.cidade = cidade;
+            this.robos = cidade.getTabelaRobos();
+            this.versaoEstrutura = cidade.versaoEstrutura();
+            this.versaoSlots = robos.versaoSlots();
+            this.robosRegistrados = robos.size();
+            for (Predio predio : cidade.getPredios()) {
+                if (predio instanceof Centro centro) {
+                    centros.add(centro);
+                }
+            }
+            this.filaGravada = new boolean[centros.size()];
+            for (int i = 0; i < filaGravada.length; i++) {
+                filaGravada[i] = centros.get(i).contarEmTreinamento() > 0;
+            }
+        }
+
+        /**
+         * Inicia um diário novo a partir do estado atual da cidade, que deve ser o do checkpoint
+         * que acabou de ser salvo. O arquivo é criado ou sobrescrito.
+         * @param cidade A cidade cujos turnos serão registrados.
+         * @param arquivo O arquivo do diário.
+         * @return O diário aberto, que deve ser fechado por quem o iniciou.
+         * @throws IOException Se o arquivo não puder ser criado.
+         */
+        public static DiarioTurnos iniciar(City cidade, Path arquivo) throws IOException {
+            FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                DiarioTurnos diario = new DiarioTurnos(canal, cidade);
+                diario.saida.escreverInt(MAGIA);
+                diario.saida.escreverInt(VERSAO_FORMATO);
+                diario.saida.escreverTexto(cidade.getNome());
+                diario.saida.escreverVarLong(cidade.getTurnoAtual());
+                diario.saida.descarregar();
+                canal.force(true); // O diário passa a ser a continuação do checkpoint salvo
+                cidade.getTabelaRobos().limparAlterados();
+                return diario;
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Acrescenta ao diário as alterações da cidade desde o registro anterior.
+         * @param turno O turno que acabou de ser processado, com os seus eventos.
+         * @return false, sem gravar nada, se a estrutura da cidade mudou e é preciso um checkpoint novo.
+         * @throws IOException Se ocorrer um erro durante a escrita.
+         */
+        public boolean registrar(Turno turno) throws IOException {
+            if (cidade.getTabelaRobos() != robos || robos.versaoSlots() != versaoSlots
+                    || cidade.versaoEstrutura() != versaoEstrutura) {
+                return false;
+            }
+
+            long secao = saida.abrirSecao(REGISTRO_TURNO);
+            saida.escreverVarLong(cidade.getTurnoAtual());
+            saida.escreverDouble(cidade.getDinheiro());
+            saida.escreverInt(cidade.getPecas());
+            saida.escreverDouble(cidade.getFelicidadeMedia());
+            saida.escreverVarLong(cidade.getProximoIdRobo());
+            saida.escreverVarLong(cidade.getProximoIdPredio());
+
+            // Robôs alterados: só os slots da lista de alterados, sem varrer a tabela. Os robôs
+            // novos também podem estar nela, mas são gravados inteiros logo abaixo
+            int marcados = robos.contarAlterados();
+            int alterados = 0;
+            for (int i = 0; i < marcados; i++) {
+                if (robos.slotAlterado(i) < robosRegistrados) {
+                    alterados++;
+                }
+            }
+            saida.escreverVarLong(alterados);
+            long idAnterior = 0;
+            for (int i = 0; i < marcados; i++) {
+                int slot = robos.slotAlterado(i);
+                if (slot < robosRegistrados) {
+                    Robo robo = robos.get(slot);
+                    saida.escreverVarLongComSinal(robo.getId() - idAnterior);
+                    idAnterior = robo.getId();
+                    PersistenciaBinariaCidade.escreverRobo(saida, robo);
+                }
+            }
+
+            // Robôs novos: sempre inseridos no fim da tabela
+            saida.escreverVarLong(robos.size() - robosRegistrados);
+            idAnterior = 0;
+            for (int slot = robosRegistrados; slot < robos.size(); slot++) {
+                Robo robo = robos.get(slot);
+                saida.escreverVarLongComSinal(robo.getId() - idAnterior);
+                idAnterior = robo.getId();
+                PersistenciaBinariaCidade.escreverRobo(saida, robo);
+            }
+
+            // Filas: só as que têm robôs em treinamento ou que tinham no registro anterior
+            int filas = 0;
+            for (int i = 0; i < centros.size(); i++) {
+                if (filaGravada[i] || centros.get(i).contarEmTreinamento() > 0) {
+                    filas++;
+                }
+            }
+            saida.escreverVarLong(filas);
+            for (int i = 0; i < centros.size(); i++) {
+                Centro centro = centros.get(i);
+                if (filaGravada[i] || centro.contarEmTreinamento() > 0) {
+                    saida.escreverVarLong(centro.getId());
+                    PersistenciaBinariaCidade.escreverFila(saida, centro);
+                    filaGravada[i] = centro.contarEmTreinamento() > 0;
+                }
+            }
+
+            if (turno != null && turno.temEventos()) {
+                List<Evento> eventos = turno.getEventos();
+                saida.escreverVarLong(eventos.size());
+                for (int i = 0; i < eventos.size(); i++) {
+                    escreverEvento(saida, eventos.get(i));
+                }
+            } else {
+                saida.escreverVarLong(0);
+            }
+            saida.fecharSecao(secao);
+
+            robos.limparAlterados();
+            robosRegistrados = robos.size();
+            return true;
+        }
+
+        /**
+         * Reaplica sobre a cidade carregada do checkpoint os registros do diário posteriores a ela.
+         * <p>
+         * O diário só é usado se for da mesma cidade e tiver começado no turno da cidade ou antes
+         * (um save mais novo que o diário já contém os registros anteriores a ele). Um registro
+         * interrompido no fim do arquivo é ignorado.
+         * @param cidade A cidade lida do save.
+         * @param arquivo O arquivo do diário.
+         * @return Os turnos reaplicados, em ordem, com os eventos que cada um registrou.
+         * @throws IOException Se ocorrer um erro de leitura ou o diário não corresponder à cidade.
+         */
+        public static List<Turno> reaplicar(City cidade, Path arquivo) throws IOException {
+            List<Turno> reaplicados = new ArrayList<>();
+            if (!Files.exists(arquivo)) {
+                return reaplicados;
+            }
+
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                EntradaBinaria entrada = new EntradaBinaria(canal, TAMANHO_BUFFER);
+                long tamanhoArquivo = canal.size();
+                try {
+                    if (entrada.lerInt() != MAGIA) {
+                        throw new IOException("Arquivo não é um diário de turnos: " + arquivo.getFileName());
+                    }
+                    int versao = entrada.lerInt();
+                    if (versao < 1 || versao > VERSAO_FORMATO) {
+                        throw new IOException("Versão do diário de turnos não suportada: " + versao);
+                    }
+                    String nome = entrada.lerTexto();
+                    long turnoCheckpoint = entrada.lerVarLong();
+                    if (!Objects.equals(nome, cidade.getNome()) || turnoCheckpoint > cidade.getTurnoAtual()) {
+                        return reaplicados; // Diário de outro save
+                    }
+                } catch (EOFException e) {
+                    return reaplicados; // Cabeçalho interrompido: diário vazio
+                }
+
+                while (entrada.posicao() < tamanhoArquivo) {
+                    int tipo;
+                    long fim;
+                    try {
+                        tipo = entrada.lerByte();
+                        long tamanho = entrada.lerInt() & 0xFFFFFFFFL;
+                        fim = tamanho + entrada.posicao();
+                        if (tamanho == 0 || fim > tamanhoArquivo) {
+                            break; // Registro interrompido
+                        }
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (tipo == REGISTRO_TURNO) {
+                        Turno turno = lerRegistro(entrada, cidade);
+                        if (turno != null) {
+                            reaplicados.add(turno);
+                        }
+                    }
+                    if (entrada.posicao() > fim) {
+                        throw new IOException("Diário de turnos inválido: registro maior que o tamanho gravado");
+                    }
+                    entrada.pularPara(fim);
+                }
+            }
+            return reaplicados;
+        }
+
+        /**
+         * Aplica um registro à cidade.
+         * @return O turno reaplicado, ou null se o registro é anterior ao estado da cidade.
+         */
+        private static Turno lerRegistro(EntradaBinaria entrada, City cidade) throws IOException {
+            long numero = entrada.lerVarLong();
+            if (numero <= cidade.getTurnoAtual()) {
+                return null; // Já contido no save
+            }
+            if (numero != cidade.getTurnoAtual() + 1L) {
+                throw new IOException("Diário de turnos inválido: turno " + numero
+                        + " depois do turno " + cidade.getTurnoAtual());
+            }
+            Turno turno = new Turno((int) numero);
+            cidade.setTurnoAtual((int) numero);
+            cidade.setDinheiro(entrada.lerDouble());
+            cidade.setPecas(entrada.lerInt());
+            cidade.setFelicidadeMedia(entrada.lerDouble());
+            long proximoIdRobo = entrada.lerVarLong();
+            long proximoIdPredio = entrada.lerVarLong();
+
+            long alterados = entrada.lerVarLong();
+            long id = 0;
+            for (long i = 0; i < alterados; i++) {
+                id += entrada.lerVarLongComSinal();
+                Robo robo = cidade.buscarRobo(id);
+                if (robo == null) {
+                    throw new IOException("Diário de turnos inválido: robô " + id + " não está na cidade");
+                }
+                PersistenciaBinariaCidade.lerRobo(entrada, robo);
+            }
+
+            long novos = entrada.lerVarLong();
+            id = 0;
+            for (long i = 0; i < novos; i++) {
+                id += entrada.lerVarLongComSinal();
+                cidade.addRobo(PersistenciaBinariaCidade.lerRobo(entrada, id));
+            }
+            cidade.setProximoIdRobo(proximoIdRobo);
+            cidade.setProximoIdPredio(proximoIdPredio);
+
+            long filas = entrada.lerVarLong();
+            for (long i = 0; i < filas; i++) {
+                long idCentro = entrada.lerVarLong();
+                if (!(cidade.buscarPredio(idCentro) instanceof Centro centro)) {
+                    throw new IOException("Diário de turnos inválido: prédio " + idCentro + " não é um Centro");
+                }
+                PersistenciaBinariaCidade.lerFila(entrada, centro);
+            }
+
+            long eventos = entrada.lerVarLong();
+            for (long i = 0; i < eventos; i++) {
+                turno.registrarEvento(lerEvento(entrada, turno.getnTurno()));
+            }
+            return turno;
+        }
+
+        private static void escreverEvento(SaidaBinaria saida, Evento evento) throws IOException {
+            saida.escreverByte(evento.tipo().ordinal());
+            saida.escreverVarInt(evento.robosInfelizes());
+            saida.escreverDouble(evento.felicidadeMedia());
+            saida.escreverVarInt(evento.pecas());
+            saida.escreverDouble(evento.dinheiro());
+            saida.escreverDouble(evento.reducaoImpacto());
+        }
+
+        private static Evento lerEvento(EntradaBinaria entrada, int turno) throws IOException {
+            int ordinal = entrada.lerByte();
+            if (ordinal >= TIPOS_EVENTO.length) {
+                throw new IOException("Diário de turnos inválido: tipo de evento " + ordinal);
+            }
+            return new Evento(TIPOS_EVENTO[ordinal], turno, entrada.lerVarInt(), entrada.lerDouble(),
+                    entrada.lerVarInt(), entrada.lerDouble(), entrada.lerDouble());
+        }
+
+        /**
+         * Fecha o arquivo do diário. Os registros já foram gravados por {@link #registrar(Turno)};
+         * aqui eles são forçados para o disco, já que o diário é fechado antes de cada checkpoint.
+         * @throws IOException Se ocorrer um erro ao fechar o arquivo.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (canal.isOpen()) {
+                    canal.force(true);
+                }
+            } finally {
+                canal.close();
+            }
+        }
+}
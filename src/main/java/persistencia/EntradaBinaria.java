@@ -0,0 +1,114 @@
+package persistencia;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitura dos primitivos gravados pela {@link SaidaBinaria}, com buffer próprio sobre o canal.
+ * <p>
+ * O fim do arquivo no meio de um valor é tratado como save truncado ({@link EOFException}).
+ */
+final class EntradaBinaria {
+
+        /** Maior varint aceito: 10 bytes bastam para 64 bits. */
+        private static final int MAXIMO_BYTES_VARINT = 10;
+
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+
+        EntradaBinaria(FileChannel canal, int tamanhoBuffer) {
+            this.canal = canal;
+            this.buffer = ByteBuffer.allocate(tamanhoBuffer).flip(); // Começa vazio
+        }
+
+        int lerByte() throws IOException {
+            garantir(1);
+            return buffer.get() & 0xFF;
+        }
+
+        int lerInt() throws IOException {
+            garantir(4);
+            return buffer.getInt();
+        }
+
+        double lerDouble() throws IOException {
+            garantir(8);
+            return buffer.getDouble();
+        }
+
+        long lerVarLong() throws IOException {
+            long valor = 0;
+            for (int i = 0; i < MAXIMO_BYTES_VARINT; i++) {
+                int b = lerByte();
+                valor |= (long) (b & 0x7F) << (7 * i);
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Save binário inválido: varint longo demais");
+        }
+
+        long lerVarLongComSinal() throws IOException {
+            long valor = lerVarLong();
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        int lerVarInt() throws IOException {
+            return Math.toIntExact(lerVarLongComSinal());
+        }
+
+        String lerTexto() throws IOException {
+            long tamanho = lerVarLong();
+            if (tamanho == 0) {
+                return null;
+            }
+            if (tamanho - 1 > Integer.MAX_VALUE - 8) {
+                throw new IOException("Save binário inválido: texto de " + (tamanho - 1) + " bytes");
+            }
+            byte[] bytes = new byte[(int) (tamanho - 1)];
+            for (int i = 0; i < bytes.length; ) {
+                garantir(1);
+                int parte = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.get(bytes, i, parte);
+                i += parte;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return A posição de leitura no arquivo (descontando o que ainda está no buffer)
+         */
+        long posicao() throws IOException {
+            return canal.position() - buffer.remaining();
+        }
+
+        /**
+         * Avança a leitura até a posição informada, descartando os bytes no caminho.
+         */
+        void pularPara(long destino) throws IOException {
+            long pular = destino - posicao();
+            if (pular <= buffer.remaining()) {
+                buffer.position(buffer.position() + (int) pular);
+            } else {
+                canal.position(destino);
+                buffer.clear().flip();
+            }
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (canal.read(buffer) < 0) {
+                    buffer.flip();
+                    throw new EOFException("Save binário truncado");
+                }
+            }
+            buffer.flip();
+        }
+}
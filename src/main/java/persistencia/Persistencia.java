@@ -7,6 +7,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -15,6 +17,10 @@ import java.util.List;
  * Esta classe utiliza a biblioteca Jackson para serializar (salvar) e desserializar (carregar)
  * listas de objetos genericos (entidades) em arquivos, garantindo que os dados sejam
  * armazenados de forma permanente.
+ * <p>
+ * Os arquivos podem ser comprimidos com um {@link CodecCompressao}. A leitura descobre o
+ * codec pelos primeiros bytes do arquivo, entao arquivos comprimidos e sem compressao sao
+ * lidos da mesma forma.
  */
 public class Persistencia {
 
@@ -22,8 +28,9 @@ public class Persistencia {
          * Instancia unica do ObjectMapper da biblioteca Jackson.
          * E estatica e final para garantir eficiencia e unicidade no processo de serializacao/desserializacao.
          * Configurado para preservar todos os campos e ignorar propriedades desconhecidas.
+         * Compartilhada com a {@link PersistenciaCidade}, para que os dois caminhos gerem o mesmo JSON.
          */
-        private static final ObjectMapper objectMapper = new ObjectMapper()
+        static final ObjectMapper objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
                 .configure(SerializationFeature.WRITE_ENUMS_USING_TO_STRING, true)
@@ -40,13 +47,30 @@ public class Persistencia {
          * @throws IOException Se ocorrer um erro durante a escrita no arquivo (ex: falta de permissao).
          */
         public static <T> void salvar(List<T> entidade, String nomeArqv) throws IOException{
-            objectMapper.writeValue(new File(nomeArqv), entidade);
+            salvar(entidade, nomeArqv, Compressao.NENHUMA);
+        }
+
+        /**
+         * Serializa uma lista de entidades genericas e as salva em um arquivo JSON comprimido.
+         * <p>
+         * O JSON e comprimido enquanto e gerado, sem ficar inteiro em memoria.
+         * @param <T> O tipo de entidade que a lista contem.
+         * @param entidade A lista de objetos T a ser salva.
+         * @param nomeArqv O nome do arquivo onde os dados serao escritos.
+         * @param codec O codec de compressao (ou {@link Compressao#NENHUMA}).
+         * @throws IOException Se ocorrer um erro durante a escrita no arquivo (ex: falta de permissao).
+         */
+        public static <T> void salvar(List<T> entidade, String nomeArqv, CodecCompressao codec) throws IOException{
+            try (OutputStream saida = Compressao.abrirEscrita(new File(nomeArqv).toPath(), codec)) {
+                objectMapper.writeValue(saida, entidade);
+            }
         }
 
         /**
          * Desserializa o conteudo de um arquivo JSON para uma lista de entidades genericas.
          * <p>
          * Se o arquivo nao existir ou estiver vazio, retorna uma nova lista vazia para evitar erros.
+         * Arquivos comprimidos sao descomprimidos durante a leitura.
          * @param <T> O tipo de entidade que a lista deve conter.
          * @param nomeArqv O nome do arquivo JSON a ser lido.
          * @param referencia O TypeReference que informa ao Jackson o tipo generico exato (List<T>).
@@ -60,7 +84,9 @@ public class Persistencia {
                 return new ArrayList<>();
             }
 
-            return objectMapper.readValue(arqv, referencia);
+            try (InputStream entrada = Compressao.abrirLeitura(arqv.toPath())) {
+                return objectMapper.readValue(entrada, referencia);
+            }
         }
 }
 
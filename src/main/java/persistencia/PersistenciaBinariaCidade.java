@@ -0,0 +1,442 @@
+package persistencia;
+
+import model.Centro;
+import model.City;
+import model.Engenheiro;
+import model.Predio;
+import model.PredioDecorativo;
+import model.Robo;
+import model.RoboEmTreinamento;
+import model.Seguranca;
+import model.TipoDeRobo;
+import model.TipoPredio;
+import model.Trabalhador;
+import model.predioComercial;
+import model.predioResidencial;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura e gravação de uma cidade em formato binário compacto.
+ * <p>
+ * O arquivo começa com um cabeçalho de 8 bytes ({@link #MAGIA} e {@link #VERSAO_FORMATO})
+ * seguido de seções. Cada seção é um byte de identificação, o tamanho em 4 bytes e o
+ * conteúdo; um leitor pula seções que não conhece, e o byte {@link #SECAO_FIM} encerra o arquivo.
+ * As seções são gravadas nesta ordem, que a leitura exige:
+ * <ol>
+ *   <li>{@link #SECAO_CIDADE}: nome, recursos, turno, dimensões do mapa e contadores de ids</li>
+ *   <li>{@link #SECAO_ROBOS}: os robôs da cidade</li>
+ *   <li>{@link #SECAO_PREDIOS}: os prédios, com os ocupantes referenciados pelo id do robô</li>
+ *   <li>{@link #SECAO_FILAS}: as filas de treinamento dos Centros, em sequências de itens iguais</li>
+ * </ol>
+ * <p>
+ * Atributos de ponto flutuante são gravados com 8 bytes, sem perda. Contagens, posições e
+ * tempos são varints, e os ids são gravados como a diferença para o id anterior, então ids
+ * densos ocupam um byte. Tipos de robô e de prédio são gravados pelo ordinal do enum:
+ * mudar a ordem dos enums exige uma nova versão do formato.
+ */
+public class PersistenciaBinariaCidade {
+
+        /** Identificador do formato no início do arquivo ("CROB"). */
+        public static final int MAGIA = 0x43524F42;
+        /** Versão atual do formato binário. */
+        public static final int VERSAO_FORMATO = 1;
+
+        static final int SECAO_FIM = 0;
+        static final int SECAO_CIDADE = 1;
+        static final int SECAO_ROBOS = 2;
+        static final int SECAO_PREDIOS = 3;
+        static final int SECAO_FILAS = 4;
+
+        private static final int TAMANHO_BUFFER = 64 * 1024;
+        private static final int FLAG_EM_MANUTENCAO = 1;
+
+        private static final TipoDeRobo[] TIPOS_ROBO = TipoDeRobo.values();
+        private static final TipoPredio[] TIPOS_PREDIO = TipoPredio.values();
+
+        /**
+         * Grava a cidade no arquivo, sobrescrevendo o conteúdo anterior.
+         * @param cidade A cidade a ser salva.
+         * @param arquivo O arquivo de destino.
+         * @throws IOException Se ocorrer um erro durante a escrita.
+         */
+        public static void salvar(City cidade, Path arquivo) throws IOException {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                SaidaBinaria saida = new SaidaBinaria(canal, TAMANHO_BUFFER);
+                saida.escreverInt(MAGIA);
+                saida.escreverInt(VERSAO_FORMATO);
+
+                long secao = saida.abrirSecao(SECAO_CIDADE);
+                saida.escreverTexto(cidade.getNome());
+                saida.escreverDouble(cidade.getDinheiro());
+                saida.escreverInt(cidade.getPecas());
+                saida.escreverInt(cidade.getTurnoAtual());
+                saida.escreverDouble(cidade.getFelicidadeMedia());
+                saida.escreverInt(cidade.getLarguraMapa());
+                saida.escreverInt(cidade.getAlturaMapa());
+                saida.escreverVarLong(cidade.getProximoIdRobo());
+                saida.escreverVarLong(cidade.getProximoIdPredio());
+                saida.fecharSecao(secao);
+
+                secao = saida.abrirSecao(SECAO_ROBOS);
+                List<Robo> robos = cidade.getRobos();
+                saida.escreverVarLong(robos.size());
+                long idAnterior = 0;
+                for (int i = 0; i < robos.size(); i++) {
+                    Robo robo = robos.get(i);
+                    saida.escreverVarLongComSinal(robo.getId() - idAnterior);
+                    idAnterior = robo.getId();
+                    escreverRobo(saida, robo);
+                }
+                saida.fecharSecao(secao);
+
+                secao = saida.abrirSecao(SECAO_PREDIOS);
+                List<Predio> predios = cidade.getPredios();
+                saida.escreverVarLong(predios.size());
+                idAnterior = 0;
+                for (Predio predio : predios) {
+                    saida.escreverVarLongComSinal(predio.getId() - idAnterior);
+                    idAnterior = predio.getId();
+                    escreverPredio(saida, cidade, predio);
+                }
+                saida.fecharSecao(secao);
+
+                secao = saida.abrirSecao(SECAO_FILAS);
+                escreverFilas(saida, predios);
+                saida.fecharSecao(secao);
+
+                saida.escreverByte(SECAO_FIM);
+                saida.descarregar();
+            }
+        }
+
+        /**
+         * Lê a cidade de um arquivo binário.
+         * @param arquivo O arquivo a ser lido.
+         * @return A cidade carregada, ou null se o arquivo não existir ou estiver vazio.
+         * @throws IOException Se ocorrer um erro de leitura ou o conteúdo for inválido.
+         */
+        public static City carregar(Path arquivo) throws IOException {
+            if (!Files.exists(arquivo) || Files.size(arquivo) == 0) {
+                return null;
+            }
+
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                EntradaBinaria entrada = new EntradaBinaria(canal, TAMANHO_BUFFER);
+                if (entrada.lerInt() != MAGIA) {
+                    throw new IOException("Arquivo não é um save binário de cidade: " + arquivo.getFileName());
+                }
+                int versao = entrada.lerInt();
+                if (versao < 1 || versao > VERSAO_FORMATO) {
+                    throw new IOException("Versão do save binário não suportada: " + versao);
+                }
+
+                City cidade = new City();
+                int ultimaSecao = SECAO_FIM;
+                int secao;
+                while ((secao = entrada.lerByte()) != SECAO_FIM) {
+                    long fim = (entrada.lerInt() & 0xFFFFFFFFL) + entrada.posicao();
+                    if (secao <= SECAO_FILAS) {
+                        if (secao <= ultimaSecao) {
+                            throw new IOException("Save binário inválido: seção " + secao + " fora de ordem");
+                        }
+                        ultimaSecao = secao;
+                    }
+                    switch (secao) {
+                        case SECAO_CIDADE -> lerCidade(entrada, cidade);
+                        case SECAO_ROBOS -> lerRobos(entrada, cidade);
+                        case SECAO_PREDIOS -> lerPredios(entrada, cidade);
+                        case SECAO_FILAS -> lerFilas(entrada, cidade);
+                        default -> { } // Seção desconhecida: pulada abaixo
+                    }
+                    if (entrada.posicao() > fim) {
+                        throw new IOException("Save binário inválido: seção " + secao + " maior que o tamanho gravado");
+                    }
+                    entrada.pularPara(fim);
+                }
+                return cidade;
+            }
+        }
+
+        // --- Gravação ---
+
+        /**
+         * Grava o tipo, a posição e os atributos do robô (sem o id).
+         */
+        static void escreverRobo(SaidaBinaria saida, Robo robo) throws IOException {
+            saida.escreverByte(robo.getTipo().ordinal());
+            saida.escreverByte(robo.isEmManutencao() ? FLAG_EM_MANUTENCAO : 0);
+            saida.escreverVarInt(robo.getPosX());
+            saida.escreverVarInt(robo.getPosY());
+            saida.escreverVarInt(robo.getTurnosRestantesManutencao());
+            saida.escreverVarInt(robo.getTurnosDesdeAManutencao());
+            saida.escreverDouble(robo.getEnergia());
+            saida.escreverDouble(robo.getIntegridade());
+            saida.escreverDouble(robo.getFelicidade());
+        }
+
+        private static void escreverPredio(SaidaBinaria saida, City cidade, Predio predio) throws IOException {
+            saida.escreverByte(predio.getTipo().ordinal());
+            saida.escreverDouble(predio.getCustoDinheiro());
+            saida.escreverVarInt(predio.getCustoPecas());
+            saida.escreverVarInt(predio.getPosX());
+            saida.escreverVarInt(predio.getPosY());
+            saida.escreverVarInt(predio.getLargura());
+            saida.escreverVarInt(predio.getAltura());
+
+            if (predio instanceof predioComercial comercial) {
+                saida.escreverDouble(comercial.getTaxaDinheiro());
+                saida.escreverVarInt(comercial.getTaxaPecas());
+            } else if (predio instanceof Centro centro) {
+                saida.escreverDouble(centro.getCustoTreinamentoDinheiro());
+                saida.escreverVarInt(centro.getCustoTreinamentoPecas());
+                saida.escreverVarInt(centro.getTempoTreinamentoTurnos());
+            }
+
+            List<Robo> ocupantes = ocupantes(predio);
+            if (ocupantes == null) {
+                return;
+            }
+            saida.escreverVarLong(ocupantes.size());
+            for (int i = 0; i < ocupantes.size(); i++) {
+                Robo robo = ocupantes.get(i);
+                if (cidade.buscarRobo(robo.getId()) == robo) {
+                    saida.escreverVarLong(robo.getId());
+                } else {
+                    // Robô fora da lista da cidade: id 0 seguido do robô completo
+                    saida.escreverVarLong(0);
+                    saida.escreverVarLong(robo.getId());
+                    escreverRobo(saida, robo);
+                }
+            }
+        }
+
+        private static void escreverFilas(SaidaBinaria saida, List<Predio> predios) throws IOException {
+            List<Centro> centros = new ArrayList<>();
+            for (Predio predio : predios) {
+                if (predio instanceof Centro centro && centro.contarEmTreinamento() > 0) {
+                    centros.add(centro);
+                }
+            }
+            saida.escreverVarLong(centros.size());
+            for (Centro centro : centros) {
+                saida.escreverVarLong(centro.getId());
+                escreverFila(saida, centro);
+            }
+        }
+
+        /**
+         * Grava a fila de treinamento do Centro. Itens consecutivos iguais (ex: um lote) são
+         * gravados como uma sequência.
+         */
+        static void escreverFila(SaidaBinaria saida, Centro centro) throws IOException {
+            if (centro.contarEmTreinamento() == 0) {
+                saida.escreverVarLong(0);
+                return;
+            }
+            List<int[]> sequencias = new ArrayList<>();
+            for (RoboEmTreinamento item : centro.getFilaDeTreinamento()) {
+                int[] ultima = sequencias.isEmpty() ? null : sequencias.get(sequencias.size() - 1);
+                if (ultima != null && ultima[0] == item.getTipo().ordinal() && ultima[1] == item.getTempoRestante()) {
+                    ultima[2]++;
+                } else {
+                    sequencias.add(new int[] {item.getTipo().ordinal(), item.getTempoRestante(), 1});
+                }
+            }
+            saida.escreverVarLong(sequencias.size());
+            for (int[] sequencia : sequencias) {
+                saida.escreverByte(sequencia[0]);
+                saida.escreverVarInt(sequencia[1]);
+                saida.escreverVarLong(sequencia[2]);
+            }
+        }
+
+        // --- Leitura ---
+
+        private static void lerCidade(EntradaBinaria entrada, City cidade) throws IOException {
+            cidade.setNome(entrada.lerTexto());
+            cidade.setDinheiro(entrada.lerDouble());
+            cidade.setPecas(entrada.lerInt());
+            cidade.setTurnoAtual(entrada.lerInt());
+            cidade.setFelicidadeMedia(entrada.lerDouble());
+            cidade.setLarguraMapa(entrada.lerInt());
+            cidade.setAlturaMapa(entrada.lerInt());
+            cidade.setProximoIdRobo(entrada.lerVarLong());
+            cidade.setProximoIdPredio(entrada.lerVarLong());
+        }
+
+        private static void lerRobos(EntradaBinaria entrada, City cidade) throws IOException {
+            long quantidade = entrada.lerVarLong();
+            long id = 0;
+            for (long i = 0; i < quantidade; i++) {
+                id += entrada.lerVarLongComSinal();
+                cidade.addRobo(lerRobo(entrada, id));
+            }
+        }
+
+        /**
+         * Lê um robô gravado por {@link #escreverRobo}, criando-o com o id informado.
+         */
+        static Robo lerRobo(EntradaBinaria entrada, long id) throws IOException {
+            Robo robo = switch (tipoRobo(entrada.lerByte())) {
+                case TRABALHADOR -> new Trabalhador();
+                case ENGENHEIRO -> new Engenheiro();
+                case SEGURANCA -> new Seguranca();
+            };
+            robo.restaurarId(id);
+            lerAtributos(entrada, robo);
+            return robo;
+        }
+
+        /**
+         * Lê um robô gravado por {@link #escreverRobo} sobre um robô existente.
+         */
+        static void lerRobo(EntradaBinaria entrada, Robo robo) throws IOException {
+            TipoDeRobo tipo = tipoRobo(entrada.lerByte());
+            if (robo.getTipo() != tipo) {
+                robo.setTipo(tipo);
+            }
+            lerAtributos(entrada, robo);
+        }
+
+        private static void lerAtributos(EntradaBinaria entrada, Robo robo) throws IOException {
+            robo.setEmManutencao((entrada.lerByte() & FLAG_EM_MANUTENCAO) != 0);
+            robo.setPosX(entrada.lerVarInt());
+            robo.setPosY(entrada.lerVarInt());
+            robo.setTurnosRestantesManutencao(entrada.lerVarInt());
+            robo.setTurnosDesdeAManutencao(entrada.lerVarInt());
+            robo.setEnergia(entrada.lerDouble());
+            robo.setIntegridade(entrada.lerDouble());
+            robo.setFelicidade(entrada.lerDouble());
+        }
+
+        private static void lerPredios(EntradaBinaria entrada, City cidade) throws IOException {
+            long quantidade = entrada.lerVarLong();
+            long id = 0;
+            for (long i = 0; i < quantidade; i++) {
+                id += entrada.lerVarLongComSinal();
+                cidade.addPredio(lerPredio(entrada, cidade, id));
+            }
+        }
+
+        private static Predio lerPredio(EntradaBinaria entrada, City cidade, long id) throws IOException {
+            TipoPredio tipo = tipoPredio(entrada.lerByte());
+            Predio predio = switch (tipo) {
+                case CENTRO -> new Centro();
+                case COMERCIAL -> new predioComercial();
+                case RESIDENCIAL -> new predioResidencial();
+                case MONUMENTO, TORRE_COMUNICACAO, ESTACAO_ENERGIA, JARDIM_ZEN, OBSERVATORIO -> new PredioDecorativo();
+            };
+            predio.restaurarId(id);
+            predio.setTipo(tipo);
+            predio.setCustoDinheiro(entrada.lerDouble());
+            predio.setCustoPecas(entrada.lerVarInt());
+            predio.setPosX(entrada.lerVarInt());
+            predio.setPosY(entrada.lerVarInt());
+            predio.setLargura(entrada.lerVarInt());
+            predio.setAltura(entrada.lerVarInt());
+
+            if (predio instanceof predioComercial comercial) {
+                comercial.setTaxaDinheiro(entrada.lerDouble());
+                comercial.setTaxaPecas(entrada.lerVarInt());
+            } else if (predio instanceof Centro centro) {
+                centro.setCustoTreinamentoDinheiro(entrada.lerDouble());
+                centro.setCustoTreinamentoPecas(entrada.lerVarInt());
+                centro.setTempoTreinamentoTurnos(entrada.lerVarInt());
+            }
+
+            if (ocupantes(predio) == null) {
+                return predio;
+            }
+            long quantidade = entrada.lerVarLong();
+            List<Robo> ocupantes = new ArrayList<>();
+            for (long i = 0; i < quantidade; i++) {
+                long idRobo = entrada.lerVarLong();
+                if (idRobo == 0) {
+                    ocupantes.add(lerRobo(entrada, entrada.lerVarLong()));
+                    continue;
+                }
+                Robo robo = cidade.buscarRobo(idRobo);
+                if (robo == null) {
+                    throw new IOException("Save binário inválido: robô " + idRobo + " não está na cidade");
+                }
+                ocupantes.add(robo);
+            }
+            definirOcupantes(predio, ocupantes);
+            return predio;
+        }
+
+        private static void lerFilas(EntradaBinaria entrada, City cidade) throws IOException {
+            long centros = entrada.lerVarLong();
+            for (long c = 0; c < centros; c++) {
+                long id = entrada.lerVarLong();
+                if (!(cidade.buscarPredio(id) instanceof Centro centro)) {
+                    throw new IOException("Save binário inválido: prédio " + id + " não é um Centro");
+                }
+                lerFila(entrada, centro);
+            }
+        }
+
+        /**
+         * Lê uma fila gravada por {@link #escreverFila} e a coloca no Centro.
+         */
+        static void lerFila(EntradaBinaria entrada, Centro centro) throws IOException {
+            long sequencias = entrada.lerVarLong();
+            List<RoboEmTreinamento> fila = new ArrayList<>();
+            for (long s = 0; s < sequencias; s++) {
+                TipoDeRobo tipo = tipoRobo(entrada.lerByte());
+                int tempoRestante = entrada.lerVarInt();
+                long quantidade = entrada.lerVarLong();
+                for (long i = 0; i < quantidade; i++) {
+                    fila.add(new RoboEmTreinamento(tipo, tempoRestante));
+                }
+            }
+            centro.setFilaDeTreinamento(fila);
+        }
+
+        // --- Auxiliares ---
+
+        /**
+         * @return A lista de ocupantes do prédio, ou null se o tipo de prédio não aceita robôs
+         */
+        private static List<Robo> ocupantes(Predio predio) {
+            if (predio instanceof predioComercial comercial) {
+                return comercial.getRobos();
+            } else if (predio instanceof predioResidencial residencial) {
+                return residencial.getRobos();
+            } else if (predio instanceof PredioDecorativo decorativo) {
+                return decorativo.getRobos();
+            }
+            return null;
+        }
+
+        private static void definirOcupantes(Predio predio, List<Robo> robos) {
+            if (predio instanceof predioComercial comercial) {
+                comercial.setRobos(robos);
+            } else if (predio instanceof predioResidencial residencial) {
+                residencial.setRobos(robos);
+            } else if (predio instanceof PredioDecorativo decorativo) {
+                decorativo.setRobos(robos);
+            }
+        }
+
+        private static TipoDeRobo tipoRobo(int ordinal) throws IOException {
+            if (ordinal >= TIPOS_ROBO.length) {
+                throw new IOException("Save binário inválido: tipo de robô " + ordinal);
+            }
+            return TIPOS_ROBO[ordinal];
+        }
+
+        private static TipoPredio tipoPredio(int ordinal) throws IOException {
+            if (ordinal >= TIPOS_PREDIO.length) {
+                throw new IOException("Save binário inválido: tipo de prédio " + ordinal);
+            }
+            return TIPOS_PREDIO[ordinal];
+        }
+}
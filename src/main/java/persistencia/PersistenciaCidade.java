@@ -0,0 +1,301 @@
+package persistencia;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import model.City;
+import model.Predio;
+import model.PredioDecorativo;
+import model.Robo;
+import model.predioComercial;
+import model.predioResidencial;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e gravação de uma cidade em JSON por streaming.
+ * <p>
+ * Em vez de montar a cidade inteira em memória antes de escrever (ou de ler o arquivo
+ * inteiro para depois criar a cidade), os campos são gravados e lidos um a um com
+ * {@link JsonGenerator}/{@link JsonParser}. Cada robô e cada prédio (com a fila de
+ * treinamento do Centro) é convertido individualmente e entra na cidade assim que é lido,
+ * então o pico de memória não depende de uma representação intermediária da cidade toda.
+ * <p>
+ * O arquivo é um array JSON com uma única cidade, como o gerado pela {@link Persistencia}.
+ * A partir da versão 2 do formato ({@link #VERSAO_FORMATO}) cada robô é gravado uma única
+ * vez, na lista da cidade: os prédios guardam apenas os ids dos seus ocupantes, e a leitura
+ * troca cada id pela instância do robô já carregada na cidade. Por isso os robôs são
+ * gravados antes dos prédios.
+ * <p>
+ * O arquivo pode ser comprimido com um {@link CodecCompressao}; a leitura descobre o codec
+ * pelos primeiros bytes (veja {@link Compressao}).
+ * <p>
+ * Saves antigos, em que os prédios trazem cópias completas dos robôs, continuam sendo
+ * lidos: cada cópia é substituída pelo robô da cidade com o mesmo id. Nos saves anteriores
+ * aos ids numéricos o id é um UUID em texto, compartilhado pela cópia e pelo robô da lista
+ * da cidade; a leitura guarda o UUID de cada robô da lista e religa as cópias por ele.
+ * Cópias sem correspondente são mantidas como estavam.
+ */
+public class PersistenciaCidade {
+
+        /** Versão do formato gravada no campo {@code versaoFormato}. Saves sem o campo são da versão 1. */
+        public static final int VERSAO_FORMATO = 2;
+
+        // Atributo com a cidade sendo gravada/lida, usado para resolver os ids dos ocupantes
+        private static final String ATRIBUTO_CIDADE = "cidade";
+        // Atributo com os robôs da cidade por UUID, em saves anteriores aos ids numéricos
+        private static final String ATRIBUTO_IDS_LEGADOS = "idsLegados";
+
+        // Mesma configuração da Persistencia, mas com os ocupantes dos prédios gravados por id
+        private static final ObjectMapper objectMapper = Persistencia.objectMapper.copy()
+                .addMixIn(predioComercial.class, OcupantesPorId.class)
+                .addMixIn(predioResidencial.class, OcupantesPorId.class)
+                .addMixIn(PredioDecorativo.class, OcupantesPorId.class);
+
+        // Escritores e leitores por tipo: o serializador é resolvido uma vez só.
+        // Sem descarregar o buffer a cada robô gravado.
+        private static final ObjectWriter escritorRobo = objectMapper
+                .writerFor(Robo.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        private static final ObjectWriter escritorPredio = objectMapper
+                .writerFor(Predio.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        private static final ObjectReader leitorRobo = objectMapper.readerFor(Robo.class);
+        private static final ObjectReader leitorPredio = objectMapper.readerFor(Predio.class);
+
+        /**
+         * Grava a cidade no arquivo, sobrescrevendo o conteúdo anterior.
+         * <p>
+         * As dimensões do mapa e os robôs são gravados antes dos prédios, para que a leitura
+         * já encontre o mapa dimensionado ao posicionar cada prédio.
+         * @param cidade A cidade a ser salva.
+         * @param arquivo O arquivo de destino.
+         * @throws IOException Se ocorrer um erro durante a escrita.
+         */
+        public static void salvar(City cidade, Path arquivo) throws IOException {
+            salvar(cidade, arquivo, Compressao.NENHUMA);
+        }
+
+        /**
+         * Grava a cidade no arquivo comprimindo com o codec informado, enquanto o JSON é gerado.
+         * @param cidade A cidade a ser salva.
+         * @param arquivo O arquivo de destino.
+         * @param codec O codec de compressão (ou {@link Compressao#NENHUMA}).
+         * @throws IOException Se ocorrer um erro durante a escrita.
+         */
+        public static void salvar(City cidade, Path arquivo, CodecCompressao codec) throws IOException {
+            try (OutputStream saida = Compressao.abrirEscrita(arquivo, codec);
+                 JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+
+                gerador.writeStartArray();
+                gerador.writeStartObject();
+                gerador.writeNumberField("versaoFormato", VERSAO_FORMATO);
+                gerador.writeNumberField("dinheiro", cidade.getDinheiro());
+                gerador.writeNumberField("pecas", cidade.getPecas());
+                gerador.writeStringField("nome", cidade.getNome());
+                gerador.writeNumberField("turnoAtual", cidade.getTurnoAtual());
+                gerador.writeNumberField("felicidadeMedia", cidade.getFelicidadeMedia());
+                gerador.writeNumberField("larguraMapa", cidade.getLarguraMapa());
+                gerador.writeNumberField("alturaMapa", cidade.getAlturaMapa());
+                gerador.writeNumberField("proximoIdRobo", cidade.getProximoIdRobo());
+                gerador.writeNumberField("proximoIdPredio", cidade.getProximoIdPredio());
+
+                gerador.writeArrayFieldStart("robos");
+                for (Robo robo : cidade.getRobos()) {
+                    escritorRobo.writeValue(gerador, robo);
+                }
+                gerador.writeEndArray();
+
+                ObjectWriter escritorPredioDaCidade = escritorPredio.withAttribute(ATRIBUTO_CIDADE, cidade);
+                gerador.writeArrayFieldStart("predios");
+                for (Predio predio : cidade.getPredios()) {
+                    escritorPredioDaCidade.writeValue(gerador, predio);
+                }
+                gerador.writeEndArray();
+
+                gerador.writeEndObject();
+                gerador.writeEndArray();
+            }
+        }
+
+        /**
+         * Lê a cidade de um arquivo, comprimido ou não.
+         * <p>
+         * Ignora campos desconhecidos. Os robôs precisam vir antes dos prédios que os
+         * referenciam por id, como o {@link #salvar} grava. Se o arquivo não
+         * existir, estiver vazio ou contiver um array sem cidades, retorna null.
+         * @param arquivo O arquivo a ser lido.
+         * @return A cidade carregada, ou null se o arquivo não contiver uma cidade.
+         * @throws IOException Se ocorrer um erro de leitura ou o conteúdo for inválido.
+         */
+        public static City carregar(Path arquivo) throws IOException {
+            if (!Files.exists(arquivo) || Files.size(arquivo) == 0) {
+                return null;
+            }
+
+            try (InputStream entrada = Compressao.abrirLeitura(arquivo);
+                 JsonParser leitor = objectMapper.getFactory().createParser(entrada)) {
+
+                esperar(leitor, leitor.nextToken(), JsonToken.START_ARRAY);
+                JsonToken token = leitor.nextToken();
+                if (token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                esperar(leitor, token, JsonToken.START_OBJECT);
+                return lerCidade(leitor);
+            }
+        }
+
+        /**
+         * Lê os campos da cidade até o fim do objeto. O parser deve estar no início do objeto.
+         */
+        private static City lerCidade(JsonParser leitor) throws IOException {
+            City cidade = new City();
+            Map<String, Robo> porIdLegado = new HashMap<>();
+            ObjectReader leitorPredioDaCidade = leitorPredio.withAttribute(ATRIBUTO_CIDADE, cidade)
+                    .withAttribute(ATRIBUTO_IDS_LEGADOS, porIdLegado);
+            while (leitor.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = leitor.currentName();
+                JsonToken valor = leitor.nextToken();
+                switch (campo) {
+                    case "versaoFormato" -> {
+                        if (leitor.getIntValue() > VERSAO_FORMATO) {
+                            throw new IOException("Save gravado em uma versão mais nova do formato: "
+                                    + leitor.getIntValue());
+                        }
+                    }
+                    case "dinheiro" -> cidade.setDinheiro(leitor.getDoubleValue());
+                    case "pecas" -> cidade.setPecas(leitor.getIntValue());
+                    case "nome" -> cidade.setNome(valor == JsonToken.VALUE_NULL ? null : leitor.getText());
+                    case "turnoAtual" -> cidade.setTurnoAtual(leitor.getIntValue());
+                    case "felicidadeMedia" -> cidade.setFelicidadeMedia(leitor.getDoubleValue());
+                    case "larguraMapa" -> cidade.setLarguraMapa(leitor.getIntValue());
+                    case "alturaMapa" -> cidade.setAlturaMapa(leitor.getIntValue());
+                    case "proximoIdRobo" -> cidade.setProximoIdRobo(leitor.getLongValue());
+                    case "proximoIdPredio" -> cidade.setProximoIdPredio(leitor.getLongValue());
+                    case "robos" -> {
+                        esperar(leitor, valor, JsonToken.START_ARRAY);
+                        while (leitor.nextToken() != JsonToken.END_ARRAY) {
+                            Robo robo = leitorRobo.<Robo>readValue(leitor);
+                            String idLegado = robo.descartarIdLegado();
+                            if (idLegado != null) {
+                                porIdLegado.put(idLegado, robo);
+                            }
+                            cidade.addRobo(robo);
+                        }
+                    }
+                    case "predios" -> {
+                        esperar(leitor, valor, JsonToken.START_ARRAY);
+                        while (leitor.nextToken() != JsonToken.END_ARRAY) {
+                            cidade.addPredio(leitorPredioDaCidade.<Predio>readValue(leitor));
+                        }
+                    }
+                    default -> leitor.skipChildren(); // Campo desconhecido ou derivado
+                }
+            }
+            return cidade;
+        }
+
+        private static void esperar(JsonParser leitor, JsonToken atual, JsonToken esperado) throws IOException {
+            if (atual != esperado) {
+                throw new IOException("Save inválido: esperado " + esperado + " mas encontrado " + atual
+                        + " em " + leitor.currentLocation());
+            }
+        }
+
+        /**
+         * Mix-in dos prédios com ocupantes: a lista {@code robos} é gravada como ids.
+         */
+        private abstract static class OcupantesPorId {
+            @JsonSerialize(contentUsing = EscritorOcupante.class)
+            abstract List<Robo> getRobos();
+
+            @JsonDeserialize(contentUsing = LeitorOcupante.class)
+            abstract void setRobos(List<Robo> robos);
+        }
+
+        /**
+         * Grava um ocupante pelo id. Um robô que não está na lista da cidade não teria como
+         * ser encontrado na leitura, então é gravado por completo, como no formato antigo.
+         */
+        static final class EscritorOcupante extends StdSerializer<Robo> {
+            EscritorOcupante() {
+                super(Robo.class);
+            }
+
+            @Override
+            public void serialize(Robo robo, JsonGenerator gerador, SerializerProvider provedor) throws IOException {
+                City cidade = (City) provedor.getAttribute(ATRIBUTO_CIDADE);
+                if (cidade != null && cidade.buscarRobo(robo.getId()) == robo) {
+                    gerador.writeNumber(robo.getId());
+                } else {
+                    provedor.findTypedValueSerializer(Robo.class, true, null).serialize(robo, gerador, provedor);
+                }
+            }
+
+            @Override
+            public void serializeWithType(Robo robo, JsonGenerator gerador, SerializerProvider provedor,
+                                          TypeSerializer tipo) throws IOException {
+                // O tipo só é gravado quando o robô vai por completo, e isso já é tratado acima
+                serialize(robo, gerador, provedor);
+            }
+        }
+
+        /**
+         * Lê um ocupante: um id é trocado pelo robô da cidade; um objeto completo (formato
+         * antigo) é trocado pelo robô da cidade com o mesmo id ou o mesmo UUID, quando houver.
+         */
+        static final class LeitorOcupante extends StdDeserializer<Robo> {
+            LeitorOcupante() {
+                super(Robo.class);
+            }
+
+            @Override
+            public Robo deserialize(JsonParser leitor, DeserializationContext contexto) throws IOException {
+                City cidade = (City) contexto.getAttribute(ATRIBUTO_CIDADE);
+                if (leitor.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    long id = leitor.getLongValue();
+                    Robo robo = cidade != null ? cidade.buscarRobo(id) : null;
+                    if (robo == null) {
+                        throw JsonMappingException.from(leitor, "Save inválido: robô " + id + " não está na cidade");
+                    }
+                    return robo;
+                }
+
+                Robo copia = contexto.readValue(leitor, Robo.class);
+                String idLegado = copia.descartarIdLegado();
+                Robo canonico;
+                if (idLegado != null) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Robo> porIdLegado = (Map<String, Robo>) contexto.getAttribute(ATRIBUTO_IDS_LEGADOS);
+                    canonico = porIdLegado != null ? porIdLegado.get(idLegado) : null;
+                } else {
+                    canonico = cidade != null ? cidade.buscarRobo(copia.getId()) : null;
+                }
+                return canonico != null && canonico.getTipo() == copia.getTipo() ? canonico : copia;
+            }
+
+            @Override
+            public Object deserializeWithType(JsonParser leitor, DeserializationContext contexto,
+                                              TypeDeserializer tipo) throws IOException {
+                return deserialize(leitor, contexto);
+            }
+        }
+}
@@ -0,0 +1,133 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escrita de primitivos em um canal de arquivo, com buffer próprio.
+ * <p>
+ * Números de tamanho fixo são gravados em big-endian. Inteiros pequenos podem ser
+ * gravados como varint (7 bits por byte), e os com sinal passam antes por zigzag para que
+ * valores negativos pequenos também ocupem poucos bytes.
+ * <p>
+ * Uma seção começa com um byte de identificação e um tamanho de 4 bytes, preenchido ao
+ * fechar a seção com uma escrita posicional no canal, sem precisar montar a seção em memória.
+ */
+final class SaidaBinaria {
+
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+        private final ByteBuffer campoTamanho = ByteBuffer.allocate(4);
+
+        SaidaBinaria(FileChannel canal, int tamanhoBuffer) {
+            this.canal = canal;
+            this.buffer = ByteBuffer.allocate(tamanhoBuffer);
+        }
+
+        void escreverByte(int valor) throws IOException {
+            garantir(1);
+            buffer.put((byte) valor);
+        }
+
+        void escreverInt(int valor) throws IOException {
+            garantir(4);
+            buffer.putInt(valor);
+        }
+
+        void escreverDouble(double valor) throws IOException {
+            garantir(8);
+            buffer.putDouble(valor);
+        }
+
+        /**
+         * Grava um valor sem sinal como varint.
+         */
+        void escreverVarLong(long valor) throws IOException {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            buffer.put((byte) valor);
+        }
+
+        /**
+         * Grava um valor com sinal como varint zigzag.
+         */
+        void escreverVarLongComSinal(long valor) throws IOException {
+            escreverVarLong((valor << 1) ^ (valor >> 63));
+        }
+
+        void escreverVarInt(int valor) throws IOException {
+            escreverVarLongComSinal(valor);
+        }
+
+        /**
+         * Grava um texto em UTF-8 precedido pelo tamanho. O tamanho é gravado somado de 1,
+         * para que 0 represente null.
+         */
+        void escreverTexto(String texto) throws IOException {
+            if (texto == null) {
+                escreverVarLong(0);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            escreverVarLong(bytes.length + 1L);
+            for (int i = 0; i < bytes.length; ) {
+                garantir(1);
+                int parte = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, parte);
+                i += parte;
+            }
+        }
+
+        /**
+         * Inicia uma seção.
+         * @param secao O identificador da seção.
+         * @return A posição do campo de tamanho, a ser passada para {@link #fecharSecao(long)}.
+         */
+        long abrirSecao(int secao) throws IOException {
+            escreverByte(secao);
+            long posicaoTamanho = posicao();
+            escreverInt(0);
+            return posicaoTamanho;
+        }
+
+        /**
+         * Fecha a seção, gravando o seu tamanho (sem contar o próprio campo de tamanho).
+         */
+        void fecharSecao(long posicaoTamanho) throws IOException {
+            descarregar();
+            long tamanho = canal.position() - posicaoTamanho - 4;
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Seção grande demais para o formato binário: " + tamanho + " bytes");
+            }
+            ByteBuffer campo = campoTamanho.clear().putInt((int) tamanho).flip();
+            while (campo.hasRemaining()) {
+                canal.write(campo, posicaoTamanho + campo.position());
+            }
+        }
+
+        /**
+         * Grava no canal tudo o que está no buffer.
+         */
+        void descarregar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private long posicao() throws IOException {
+            return canal.position() + buffer.position();
+        }
+
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+}
@@ -0,0 +1,102 @@
+package controller;
+
+import model.City;
+import model.Robo;
+import model.Trabalhador;
+import model.predioComercial;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Testes de unidade para a classe AgendadorSimulacoes.
+ */
+class AgendadorSimulacoesTest {
+
+    private final List<String> nomes = List.of("AgendaA", "AgendaB", "AgendaC");
+
+    @AfterEach
+    void tearDown() {
+        for (String nome : nomes) {
+            PersistenceController.deletarCidade(nome);
+        }
+    }
+
+    @Test
+    void testSimularVariasCidades() throws IOException, InterruptedException {
+        for (String nome : nomes) {
+            PersistenceController.salvarCidade(new City(nome), nome);
+        }
+
+        AgendadorSimulacoes agendador = new AgendadorSimulacoes(2);
+        AgendadorSimulacoes.Relatorio relatorio = agendador.simular(nomes, 10, true);
+
+        assertEquals(3, relatorio.resultados().size());
+        assertEquals(0, relatorio.falhas());
+        assertEquals(30, relatorio.totalTurnos());
+        for (String nome : nomes) {
+            assertEquals(10, PersistenceController.carregarCidade(nome).getTurnoAtual());
+        }
+    }
+
+    @Test
+    void testCidadeInexistenteReportaFalha() throws InterruptedException {
+        AgendadorSimulacoes agendador = new AgendadorSimulacoes(1);
+        AgendadorSimulacoes.Relatorio relatorio = agendador.simular(List.of("AgendaInexistente"), 5, false);
+
+        assertEquals(1, relatorio.falhas());
+        assertFalse(relatorio.resultados().get(0).sucesso());
+    }
+
+    @Test
+    void testTotalTurnosIgnoraCidadesComFalha() {
+        AgendadorSimulacoes.Relatorio relatorio = new AgendadorSimulacoes.Relatorio(List.of(
+                new AgendadorSimulacoes.ResultadoCidade("AgendaA", 10, 1_000, null),
+                new AgendadorSimulacoes.ResultadoCidade("AgendaB", 10, 1_000, "Erro ao salvar")),
+                1_000_000_000L);
+
+        assertEquals(10, relatorio.totalTurnos());
+        assertEquals(10.0, relatorio.turnosPorSegundo());
+        assertEquals(1, relatorio.falhas());
+    }
+
+    @Test
+    void testSementeTornaRodadaReproduzivel() throws IOException, InterruptedException {
+        for (String nome : nomes) {
+            City cidade = new City(nome);
+            predioComercial comercial = new predioComercial(10, 10);
+            cidade.addPredio(comercial);
+            for (int i = 0; i < 6; i++) {
+                Robo robo = new Trabalhador(0, 0);
+                cidade.addRobo(robo);
+                if (i < 3) {
+                    comercial.addRobo(robo);
+                }
+            }
+            PersistenceController.salvarCidade(cidade, nome);
+        }
+
+        AgendadorSimulacoes agendador = new AgendadorSimulacoes(2);
+        agendador.setSemente(42L);
+        agendador.setModoParalelo(true);
+        assertEquals(0, agendador.simular(nomes, 200, true).falhas());
+
+        // Cidades iguais com a mesma semente terminam no mesmo estado
+        City primeira = PersistenceController.carregarCidade(nomes.get(0));
+        for (String nome : nomes) {
+            City cidade = PersistenceController.carregarCidade(nome);
+            assertEquals(200, cidade.getTurnoAtual());
+            assertEquals(primeira.getDinheiro(), cidade.getDinheiro());
+            assertEquals(primeira.getPecas(), cidade.getPecas());
+            assertEquals(primeira.getFelicidadeMedia(), cidade.getFelicidadeMedia());
+        }
+    }
+
+    @Test
+    void testLimiteDeDiscoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new AgendadorSimulacoes(0));
+    }
+}
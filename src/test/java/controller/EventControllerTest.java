@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Testes de unidade para a classe EventController.
  */
@@ -82,5 +84,97 @@ class EventControllerTest {
         // Como eventos são aleatórios, apenas verificamos que o método não causa erro
         assertNotNull(turno.getEventosOcorridos());
     }
-}
 
+    @Test
+    void testMesmaSementeGeraMesmosEventos() {
+        EventController controller1 = new EventController(42L);
+        EventController controller2 = new EventController(42L);
+        City cidade1 = new City("Semente1");
+        City cidade2 = new City("Semente2");
+        cidade1.addRobo(new Trabalhador(0, 0));
+        cidade2.addRobo(new Trabalhador(0, 0));
+
+        for (int n = 1; n <= 50; n++) {
+            Turno turno1 = new Turno(n);
+            Turno turno2 = new Turno(n);
+            controller1.verificarEventos(cidade1, turno1);
+            controller2.verificarEventos(cidade2, turno2);
+            assertEquals(turno1.getEventosOcorridos(), turno2.getEventosOcorridos());
+        }
+        assertEquals(cidade1.getDinheiro(), cidade2.getDinheiro());
+        assertEquals(cidade1.getPecas(), cidade2.getPecas());
+    }
+
+    @Test
+    void testEventosTipadosNoTurno() {
+        EventController semente = new EventController(7L);
+        cidade.addRobo(new Seguranca(0, 0));
+        int total = 0;
+        for (int n = 1; n <= 200 && total < 5; n++) {
+            Turno t = new Turno(n);
+            semente.verificarEventos(cidade, t);
+            for (Evento evento : t.getEventos()) {
+                assertEquals(n, evento.turno());
+                assertEquals(1, t.contarEventos(evento.tipo()));
+                assertFalse(evento.descrever().isEmpty());
+                total++;
+            }
+            assertEquals(t.getEventos().size(), t.getEventosOcorridos().size());
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    void testDescricaoDoEventoComSegurancas() {
+        Turno t = new Turno(3);
+        t.registrarEvento(Evento.apagao(3, 0.05));
+        t.registrarEvento(Evento.greve(3, 2, 30.0, 0.0));
+
+        assertEquals(1, t.contarEventos(TipoEvento.APAGAO));
+        assertEquals(1, t.contarEventos(TipoEvento.GREVE));
+        assertEquals(0, t.contarEventos(TipoEvento.DESCOBERTA_PECAS_RARAS));
+        assertTrue(t.getEventosOcorridos().get(0).endsWith("(Seguranças reduziram o impacto em 5%)"));
+        assertTrue(t.getEventosOcorridos().get(1).contains("2 robô(s) infeliz(es)"));
+        assertFalse(t.getEventosOcorridos().get(1).contains("Seguranças"));
+    }
+
+    @Test
+    void testTurnosVizinhosTemSorteiosIndependentes() {
+        EventController eventos = new EventController(42L);
+        for (int n = 1; n < 1000; n++) {
+            RandomGenerator turno = eventos.geradorDoTurno(n);
+            long primeiro = turno.nextLong();
+            long segundo = turno.nextLong();
+            long primeiroDoSeguinte = eventos.geradorDoTurno(n + 1).nextLong();
+            assertNotEquals(primeiro, primeiroDoSeguinte);
+            // A sequência do turno seguinte não é a deste turno deslocada de um sorteio
+            assertNotEquals(segundo, primeiroDoSeguinte);
+        }
+        // O mesmo turno repete os mesmos sorteios
+        assertEquals(eventos.geradorDoTurno(7).nextLong(), new EventController(42L).geradorDoTurno(7).nextLong());
+    }
+
+    @Test
+    void testChanceDeEvento() {
+        cidade.addRobo(new Trabalhador(0, 0));
+        EventController eventos = new EventController(42L);
+        assertEquals(40, eventos.getChanceDeEvento());
+
+        eventos.setChanceDeEvento(0);
+        for (int n = 1; n <= 200; n++) {
+            Turno t = new Turno(n);
+            eventos.verificarEventos(cidade, t);
+            assertFalse(t.temEventos());
+        }
+
+        eventos.setChanceDeEvento(100);
+        for (int n = 1; n <= 200; n++) {
+            Turno t = new Turno(n);
+            eventos.verificarEventos(cidade, t);
+            assertEquals(1, t.getEventos().size());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> eventos.setChanceDeEvento(-1));
+        assertThrows(IllegalArgumentException.class, () -> eventos.setChanceDeEvento(101));
+    }
+}
@@ -4,12 +4,28 @@ import model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import persistencia.DiarioTurnos;
+import persistencia.PersistenciaCidade;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 /**
  * Testes de unidade para a classe JogoController.
  */
 class JogoControllerTest {
 
+    private static final int TURNOS_AQUECIMENTO = 50_000;
+    private static final int TURNOS_MEDIDOS = 2000;
+    // Limite para um Evento (cabeçalho, 7 campos e alinhamento), com ou sem ponteiros comprimidos
+    private static final int BYTES_POR_EVENTO = 64;
+
     private JogoController controller;
     private City cidade;
 
@@ -127,5 +143,215 @@ class JogoControllerTest {
     void testGetCidadeAtual() {
         assertEquals(cidade, controller.getCidadeAtual());
     }
-}
 
+    @Test
+    void testMesmaSementeReproduzTurnos() {
+        City cidade1 = new City("Reproduzivel1");
+        City cidade2 = new City("Reproduzivel2");
+        JogoController controller1 = new JogoController(cidade1, 7L);
+        JogoController controller2 = new JogoController(cidade2, 7L);
+
+        for (int i = 0; i < 30; i++) {
+            controller1.proximoTurno();
+            controller2.proximoTurno();
+            assertEquals(controller1.getUltimoTurno().getEventosOcorridos(),
+                    controller2.getUltimoTurno().getEventosOcorridos());
+        }
+        assertEquals(cidade1.getDinheiro(), cidade2.getDinheiro());
+        assertEquals(cidade1.getPecas(), cidade2.getPecas());
+    }
+
+    @Test
+    void testAvancarTurnosAgregaEventos() {
+        City cidade1 = new City("Rapida");
+        City cidade2 = new City("Lenta");
+        JogoController rapido = new JogoController(cidade1, 11L);
+        JogoController lento = new JogoController(cidade2, 11L);
+
+        List<Turno> comEventos = rapido.avancarTurnos(50);
+
+        int esperados = 0;
+        for (int i = 0; i < 50; i++) {
+            lento.proximoTurno();
+            if (!lento.getUltimoTurno().getEventosOcorridos().isEmpty()) {
+                esperados++;
+            }
+        }
+        assertEquals(50, cidade1.getTurnoAtual());
+        assertEquals(50, rapido.getUltimoTurno().getnTurno());
+        assertEquals(esperados, comEventos.size());
+        assertEquals(cidade2.getDinheiro(), cidade1.getDinheiro());
+        for (Turno turno : comEventos) {
+            assertFalse(turno.getEventosOcorridos().isEmpty());
+        }
+        assertThrows(IllegalArgumentException.class, () -> rapido.avancarTurnos(-1));
+    }
+
+    @Test
+    void testSalvarEmSegundoPlano() throws Exception {
+        City cidadeSalva = new City("SegundoPlanoTeste");
+        JogoController jogo = new JogoController(cidadeSalva, 3L);
+        jogo.avancarTurnos(5);
+
+        jogo.salvarEmSegundoPlano().get();
+
+        assertEquals(5, PersistenceController.carregarCidade("SegundoPlanoTeste").getTurnoAtual());
+        PersistenceController.deletarCidade("SegundoPlanoTeste");
+    }
+
+    @Test
+    void testAutosaveACadaKTurnos() throws Exception {
+        City cidadeSalva = new City("AutosaveTeste");
+        JogoController jogo = new JogoController(cidadeSalva, 3L);
+        jogo.setAutosave(4);
+
+        jogo.avancarTurnos(6);
+        // A gravação do turno 4 foi agendada; uma gravação explícita entra depois dela na fila
+        jogo.salvarEmSegundoPlano().get();
+        assertEquals(6, PersistenceController.carregarCidade("AutosaveTeste").getTurnoAtual());
+        assertThrows(IllegalArgumentException.class, () -> jogo.setAutosave(-1));
+
+        PersistenceController.deletarCidade("AutosaveTeste");
+    }
+
+    @Test
+    void testTurnoEstavelNaoAloca() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean medidor
+                && medidor.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean medidor = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        medidor.setThreadAllocatedMemoryEnabled(true);
+
+        predioComercial comercial = new predioComercial(10, 10);
+        predioResidencial residencial = new predioResidencial(12, 10);
+        cidade.addPredio(comercial);
+        cidade.addPredio(residencial);
+        for (int i = 0; i < 4; i++) {
+            Robo trabalhador = new Trabalhador(0, 0);
+            Robo engenheiro = new Engenheiro(0, 0);
+            cidade.addRobo(trabalhador);
+            cidade.addRobo(engenheiro);
+            cidade.addRobo(new Seguranca(0, 0));
+            if (i < 2) {
+                comercial.addRobo(trabalhador);
+                residencial.addRobo(engenheiro);
+            }
+        }
+
+        JogoController jogo = new JogoController(cidade, 11L);
+        jogo.setModoSemAlocacao(true);
+        // O pipeline inteiro roda, inclusive a etapa de eventos (sorteio do turno). Sem chance
+        // de evento o turno é estável: nada é registrado nele
+        jogo.getEventController().setChanceDeEvento(0);
+
+        long threadId = Thread.currentThread().threadId();
+
+        // Aquecimento: enquanto o JIT compila e recompila o laço pode haver alocações
+        // esporádicas da JVM (desotimizações), que não são do turno
+        for (int i = 0; i < TURNOS_AQUECIMENTO; i++) {
+            jogo.proximoTurno();
+        }
+
+        long antes = medidor.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < TURNOS_MEDIDOS; i++) {
+            jogo.proximoTurno();
+        }
+        long alocados = medidor.getThreadAllocatedBytes(threadId) - antes;
+
+        assertEquals(0, alocados, "Bytes alocados em " + TURNOS_MEDIDOS + " turnos estáveis");
+
+        // Com um evento por turno, a única alocação é o Evento registrado no turno: as
+        // leituras de felicidade e a aplicação do evento não alocam
+        jogo.getEventController().setChanceDeEvento(100);
+        for (int i = 0; i < TURNOS_AQUECIMENTO; i++) {
+            jogo.proximoTurno();
+        }
+        int eventos = 0;
+        antes = medidor.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < TURNOS_MEDIDOS; i++) {
+            jogo.proximoTurno();
+            if (jogo.getUltimoTurno().temEventos()) { // getEventos() criaria a visão da lista
+                eventos++;
+            }
+        }
+        alocados = medidor.getThreadAllocatedBytes(threadId) - antes;
+
+        assertEquals(TURNOS_MEDIDOS, eventos);
+        assertTrue(alocados <= (long) eventos * BYTES_POR_EVENTO,
+                "Bytes alocados em " + TURNOS_MEDIDOS + " turnos com evento: " + alocados);
+        assertEquals(cidade.getTurnoAtual(), jogo.getUltimoTurno().getnTurno());
+    }
+
+    @Test
+    void testDiarioTurnosRecuperaTurnosDepoisDoCheckpoint() throws IOException {
+        City cidadeDiario = new City("CidadeDiarioTeste");
+        predioComercial comercial = new predioComercial(10, 10);
+        cidadeDiario.addPredio(comercial);
+        for (int i = 0; i < 30; i++) {
+            Robo robo = new Trabalhador(i % 30, 0);
+            cidadeDiario.addRobo(robo);
+            if (i < 5) {
+                comercial.addRobo(robo);
+            }
+        }
+        Centro centro = (Centro) cidadeDiario.getPredios().get(0);
+        JogoController jogo = new JogoController(cidadeDiario, 7L);
+        jogo.setDiarioTurnos(10);
+
+        List<Turno> turnosComEventos = jogo.avancarTurnos(11);
+        centro.iniciarTreinamento(TipoDeRobo.ENGENHEIRO, 2);
+        turnosComEventos.addAll(jogo.avancarTurnos(6));
+        cidadeDiario.getRobos().get(20).setPosX(3);
+
+        // O save é o checkpoint do turno 10; o diário tem os turnos 11 a 17
+        File save = new File("saves", "CidadeDiarioTeste.json");
+        File diario = new File("saves", "CidadeDiarioTeste.diario");
+        assertEquals(10, PersistenciaCidade.carregar(save.toPath()).getTurnoAtual());
+        assertTrue(diario.length() > 0);
+
+        City carregada = PersistenceController.carregarCidade("CidadeDiarioTeste");
+        assertEquals(17, carregada.getTurnoAtual());
+        assertEquals(cidadeDiario.getDinheiro(), carregada.getDinheiro());
+        assertEquals(cidadeDiario.getPecas(), carregada.getPecas());
+        assertEquals(cidadeDiario.getFelicidadeMedia(), carregada.getFelicidadeMedia());
+        assertEquals(32, carregada.getRobos().size());
+        assertEquals(2, carregada.contarRobosPorTipo(TipoDeRobo.ENGENHEIRO));
+        assertEquals(centro.contarEmTreinamento(),
+                ((Centro) carregada.getPredios().get(0)).contarEmTreinamento());
+        for (Robo robo : cidadeDiario.getRobos()) {
+            Robo roboCarregado = carregada.buscarRobo(robo.getId());
+            assertEquals(robo.getEnergia(), roboCarregado.getEnergia());
+            assertEquals(robo.getFelicidade(), roboCarregado.getFelicidade());
+            assertEquals(robo.getIntegridade(), roboCarregado.getIntegridade());
+            assertEquals(robo.getTurnosDesdeAManutencao(), roboCarregado.getTurnosDesdeAManutencao());
+        }
+        // A posição mudou depois do último turno: só entra no diário no próximo registro
+        assertNotEquals(3, carregada.getRobos().get(20).getPosX());
+
+        // Os eventos dos turnos do diário também são recuperados
+        JogoController recuperado = new JogoController(new City("Outra"));
+        recuperado.carregarCidade("CidadeDiarioTeste");
+        assertEquals(17, recuperado.getUltimoTurno().getnTurno());
+        List<Turno> esperados = turnosComEventos.stream().filter(t -> t.getnTurno() > 10).toList();
+        List<Turno> recuperados = recuperado.getTurnosRecuperados();
+        assertEquals(esperados.size(), recuperados.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals(esperados.get(i).getnTurno(), recuperados.get(i).getnTurno());
+            assertEquals(esperados.get(i).getEventos(), recuperados.get(i).getEventos());
+        }
+        City doSave = PersistenciaCidade.carregar(save.toPath());
+        assertEquals(7, DiarioTurnos.reaplicar(doSave, diario.toPath()).size());
+
+        // Um registro interrompido no fim do diário é ignorado
+        Files.write(diario.toPath(), new byte[] {1, 0, 0}, StandardOpenOption.APPEND);
+        assertEquals(17, PersistenceController.carregarCidade("CidadeDiarioTeste").getTurnoAtual());
+
+        // Construir um prédio muda a estrutura da cidade: o turno seguinte é um checkpoint
+        cidadeDiario.addPredio(new predioResidencial(20, 20));
+        jogo.proximoTurno();
+        assertEquals(18, PersistenciaCidade.carregar(save.toPath()).getTurnoAtual());
+
+        jogo.setDiarioTurnos(0);
+        PersistenceController.deletarCidade("CidadeDiarioTeste");
+        assertFalse(diario.exists());
+    }
+}
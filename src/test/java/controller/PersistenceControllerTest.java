@@ -1,14 +1,26 @@
 package controller;
 
+import model.Centro;
 import model.City;
+import model.Robo;
 import model.Trabalhador;
 import model.predioComercial;
 import model.TipoDeRobo;
+import model.TipoPredio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import persistencia.CodecCompressao;
+import persistencia.Compressao;
+import persistencia.Persistencia;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 /**
@@ -47,6 +59,22 @@ class PersistenceControllerTest {
         PersistenceController.deletarCidade("CidadeTeste");
     }
 
+    @Test
+    void testSalvarECarregarDimensoesDoMapa() throws IOException {
+        City grande = new City("CidadeGrandeTeste", 500, 400);
+        grande.addPredio(new predioComercial(450, 350));
+
+        PersistenceController.salvarCidade(grande, "CidadeGrandeTeste");
+        City carregada = PersistenceController.carregarCidade("CidadeGrandeTeste");
+
+        assertEquals(500, carregada.getLarguraMapa());
+        assertEquals(400, carregada.getAlturaMapa());
+        assertTrue(carregada.areaOcupada(451, 351, 1, 1));
+        assertFalse(new PredioController().construirPredio(TipoPredio.RESIDENCIAL, carregada, 450, 350));
+
+        PersistenceController.deletarCidade("CidadeGrandeTeste");
+    }
+
     @Test
     void testListarCidadesSalvas() throws IOException {
         // Salva algumas cidades
@@ -84,5 +112,257 @@ class PersistenceControllerTest {
             PersistenceController.carregarCidade("CidadeInexistente");
         });
     }
-}
 
+    @Test
+    void testCarregarSaveAntigoComIdsUuid() throws IOException {
+        cidade.addRobo(new Trabalhador(1, 1));
+        cidade.addRobo(new Trabalhador(2, 2));
+        PersistenceController.salvarCidade(cidade, "CidadeUuidTeste");
+
+        // Converte o arquivo para o formato antigo: ids em texto e sem contadores
+        File arquivo = new File("saves", "CidadeUuidTeste.json");
+        String json = Files.readString(arquivo.toPath())
+                .replaceAll("\"id\"\\s*:\\s*(\\d+)", "\"id\" : \"00000000-0000-0000-0000-00000000000$1\"")
+                .replaceAll(",?\\s*\"proximoId(Robo|Predio)\"\\s*:\\s*\\d+", "");
+        Files.writeString(arquivo.toPath(), json);
+
+        City carregada = PersistenceController.carregarCidade("CidadeUuidTeste");
+        long idA = carregada.getRobos().get(0).getId();
+        long idB = carregada.getRobos().get(1).getId();
+        assertTrue(idA > 0 && idB > 0 && idA != idB);
+        assertSame(carregada.getRobos().get(1), carregada.buscarRobo(idB));
+        assertNotNull(carregada.buscarPredio(carregada.getPredios().get(0).getId()));
+
+        PersistenceController.deletarCidade("CidadeUuidTeste");
+    }
+
+    @Test
+    void testStreamingPreservaRobosPrediosEFila() throws IOException {
+        Trabalhador robo = new Trabalhador(5, 5);
+        cidade.addRobo(robo);
+        cidade.addRobo(new Trabalhador(6, 6));
+        predioComercial predio = new predioComercial(10, 10);
+        cidade.addPredio(predio);
+        predio.addRobo(robo);
+        Centro centro = (Centro) cidade.getPredios().get(0);
+        centro.iniciarTreinamento(TipoDeRobo.ENGENHEIRO, 2);
+        cidade.setDinheiro(1234.5);
+        cidade.setTurnoAtual(7);
+
+        PersistenceController.salvarCidade(cidade, "CidadeStreamingTeste");
+        City carregada = PersistenceController.carregarCidade("CidadeStreamingTeste");
+
+        assertEquals(1234.5, carregada.getDinheiro());
+        assertEquals(cidade.getPecas(), carregada.getPecas());
+        assertEquals(7, carregada.getTurnoAtual());
+        assertEquals(2, carregada.getRobos().size());
+        assertEquals(cidade.getPredios().size(), carregada.getPredios().size());
+        assertEquals(cidade.getProximoIdRobo(), carregada.getProximoIdRobo());
+        assertEquals(2, ((Centro) carregada.getPredios().get(0)).contarEmTreinamento());
+        predioComercial predioCarregado = (predioComercial) carregada.buscarPredio(predio.getId());
+        assertEquals(List.of(robo.getId()), predioCarregado.getRobos().stream().map(r -> r.getId()).toList());
+
+        PersistenceController.deletarCidade("CidadeStreamingTeste");
+    }
+
+    @Test
+    void testCarregarSaveAntigoReligaOcupantes() throws IOException {
+        Trabalhador robo = new Trabalhador(3, 3);
+        cidade.addRobo(robo);
+        predioComercial predio = new predioComercial(10, 10);
+        cidade.addPredio(predio);
+        predio.addRobo(robo);
+
+        // Formato antigo: gravado pela leitura genérica, com cópias dos robôs dentro dos prédios
+        File arquivo = new File("saves", "CidadeAntigaTeste.json");
+        arquivo.getParentFile().mkdirs();
+        Persistencia.salvar(List.of(cidade), arquivo.getAbsolutePath());
+
+        City carregada = PersistenceController.carregarCidade("CidadeAntigaTeste");
+        Robo canonico = carregada.getRobos().get(0);
+        predioComercial predioCarregado = (predioComercial) carregada.buscarPredio(predio.getId());
+        assertSame(canonico, predioCarregado.getRobos().get(0));
+        assertSame(predioCarregado, carregada.getPredioDoRobo(canonico));
+        assertTrue(carregada.areaOcupada(10, 10, 1, 1));
+
+        PersistenceController.deletarCidade("CidadeAntigaTeste");
+    }
+
+    @Test
+    void testCarregarSaveDoFormatoOriginalReligaOcupantesPorUuid() throws IOException {
+        // Save gravado pela versão original do jogo: ids em UUID e cópias dos robôs nos prédios
+        File arquivo = new File("saves", "CidadeBaselineTeste.json");
+        arquivo.getParentFile().mkdirs();
+        try (var fixture = getClass().getResourceAsStream("/saves/CidadeBaseline.json")) {
+            Files.copy(fixture, arquivo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        City carregada = PersistenceController.carregarCidade("CidadeBaselineTeste");
+        assertEquals(3, carregada.getRobos().size());
+        Robo trabalhador = carregada.getRobos().get(0);
+        Robo engenheiro = carregada.getRobos().get(1);
+        predioComercial comercial = (predioComercial) carregada.getPredios().get(7);
+        assertSame(trabalhador, comercial.getRobos().get(0));
+        assertSame(engenheiro, comercial.getRobos().get(1));
+        assertSame(comercial, carregada.getPredioDoRobo(trabalhador));
+        assertNull(carregada.getPredioDoRobo(carregada.getRobos().get(2)));
+        assertEquals(61.5, comercial.getRobos().get(0).getEnergia());
+
+        PersistenceController.deletarCidade("CidadeBaselineTeste");
+    }
+
+    @Test
+    void testPrediosGuardamIdsDosRobos() throws IOException {
+        Trabalhador robo = new Trabalhador(3, 3);
+        cidade.addRobo(robo);
+        predioComercial predio = new predioComercial(10, 10);
+        cidade.addPredio(predio);
+        predio.addRobo(robo);
+
+        PersistenceController.salvarCidade(cidade, "CidadeNormalizadaTeste");
+        String json = Files.readString(new File("saves", "CidadeNormalizadaTeste.json").toPath());
+        // O robô aparece uma única vez; o prédio comercial guarda apenas o id
+        assertEquals(1, json.split("\"energia\"", -1).length - 1);
+        assertTrue(json.contains("\"robos\":[" + robo.getId() + "]"));
+
+        City carregada = PersistenceController.carregarCidade("CidadeNormalizadaTeste");
+        predioComercial predioCarregado = (predioComercial) carregada.buscarPredio(predio.getId());
+        assertSame(carregada.buscarRobo(robo.getId()), predioCarregado.getRobos().get(0));
+
+        PersistenceController.deletarCidade("CidadeNormalizadaTeste");
+    }
+
+    @Test
+    void testSalvarECarregarFormatoBinario() throws IOException {
+        Trabalhador robo = new Trabalhador(5, 5);
+        cidade.addRobo(robo);
+        for (int i = 0; i < 50; i++) {
+            cidade.addRobo(new Trabalhador(i, i));
+        }
+        robo.setEnergia(42.125);
+        robo.setEmManutencao(true);
+        predioComercial predio = new predioComercial(10, 10);
+        cidade.addPredio(predio);
+        predio.addRobo(robo);
+        ((Centro) cidade.getPredios().get(0)).iniciarTreinamento(TipoDeRobo.SEGURANCA, 3);
+        cidade.setDinheiro(987.25);
+
+        PersistenceController.salvarCidade(cidade, "CidadeBinariaTeste.crb");
+        PersistenceController.salvarCidade(cidade, "CidadeBinariaTeste.json");
+        assertTrue(PersistenceController.listarCidadesSalvas().contains("CidadeBinariaTeste"));
+        long tamanhoBinario = new File("saves", "CidadeBinariaTeste.crb").length();
+        long tamanhoJson = new File("saves", "CidadeBinariaTeste.json").length();
+        assertTrue(tamanhoBinario * 3 < tamanhoJson, tamanhoBinario + " vs " + tamanhoJson);
+
+        City carregada = PersistenceController.carregarCidade("CidadeBinariaTeste.crb");
+        assertEquals(cidade.getNome(), carregada.getNome());
+        assertEquals(987.25, carregada.getDinheiro());
+        assertEquals(cidade.getPecas(), carregada.getPecas());
+        assertEquals(cidade.getRobos().size(), carregada.getRobos().size());
+        assertEquals(cidade.getProximoIdRobo(), carregada.getProximoIdRobo());
+        assertEquals(cidade.getProximoIdPredio(), carregada.getProximoIdPredio());
+        Robo roboCarregado = carregada.buscarRobo(robo.getId());
+        assertEquals(42.125, roboCarregado.getEnergia());
+        assertTrue(roboCarregado.isEmManutencao());
+        assertSame(carregada.buscarPredio(predio.getId()), carregada.getPredioDoRobo(roboCarregado));
+        assertEquals(cidade.getPredios().get(3).getTipo(), carregada.getPredios().get(3).getTipo());
+        assertEquals(3, ((Centro) carregada.getPredios().get(0)).contarEmTreinamento());
+        assertTrue(carregada.areaOcupada(10, 10, 1, 1));
+
+        assertTrue(PersistenceController.deletarCidade("CidadeBinariaTeste"));
+        assertFalse(new File("saves", "CidadeBinariaTeste.crb").exists());
+        assertFalse(new File("saves", "CidadeBinariaTeste.json").exists());
+    }
+
+    @Test
+    void testCarregarBinarioInvalido() throws IOException {
+        File arquivo = new File("saves", "CidadeInvalidaTeste.crb");
+        arquivo.getParentFile().mkdirs();
+        Files.writeString(arquivo.toPath(), "[{\"nome\":\"nao e binario\"}]");
+
+        assertThrows(IOException.class, () -> PersistenceController.carregarCidade("CidadeInvalidaTeste"));
+
+        PersistenceController.deletarCidade("CidadeInvalidaTeste");
+    }
+
+    @Test
+    void testSalvarComprimidoMantemCodecDaCidade() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            cidade.addRobo(new Trabalhador(i % 30, i / 30));
+        }
+        PersistenceController.salvarCidade(cidade, "CidadeSemCompressaoTeste");
+        PersistenceController.salvarCidade(cidade, "CidadeComprimidaTeste", Compressao.DEFLATE);
+        File semCompressao = new File("saves", "CidadeSemCompressaoTeste.json");
+        File comprimida = new File("saves", "CidadeComprimidaTeste.json");
+        assertSame(Compressao.DEFLATE, Compressao.detectar(comprimida.toPath()));
+        assertTrue(comprimida.length() * 5 < semCompressao.length());
+
+        City carregada = PersistenceController.carregarCidade("CidadeComprimidaTeste");
+        assertEquals(200, carregada.getRobos().size());
+
+        // Salvar de novo sem informar o codec mantém a compressão do arquivo
+        carregada.setTurnoAtual(12);
+        PersistenceController.salvarCidade(carregada, "CidadeComprimidaTeste");
+        assertSame(Compressao.DEFLATE, Compressao.detectar(comprimida.toPath()));
+        assertEquals(12, PersistenceController.carregarCidade("CidadeComprimidaTeste").getTurnoAtual());
+        assertSame(Compressao.NENHUMA, Compressao.detectar(semCompressao.toPath()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PersistenceController.salvarCidade(cidade, "CidadeComprimidaTeste.crb", Compressao.DEFLATE));
+
+        PersistenceController.deletarCidade("CidadeSemCompressaoTeste");
+        PersistenceController.deletarCidade("CidadeComprimidaTeste");
+    }
+
+    @Test
+    void testFalhaAoSalvarPreservaSaveAnteriorEDiario() throws IOException {
+        cidade.addRobo(new Trabalhador(1, 1));
+        cidade.setTurnoAtual(4);
+        PersistenceController.salvarCidade(cidade, "CidadeAtomicaTeste");
+        PersistenceController.iniciarDiario(cidade, "CidadeAtomicaTeste").close();
+        File diario = new File("saves", "CidadeAtomicaTeste.diario");
+        assertTrue(diario.exists());
+
+        // Codec que falha no meio da gravação, como um processo interrompido
+        CodecCompressao falha = new CodecCompressao() {
+            @Override
+            public String getNome() {
+                return "falha";
+            }
+
+            @Override
+            public boolean reconhece(byte[] cabecalho, int tamanho) {
+                return false;
+            }
+
+            @Override
+            public OutputStream comprimir(OutputStream saida) {
+                return new FilterOutputStream(saida) {
+                    private int escritos;
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        if (++escritos > 64) {
+                            throw new IOException("Gravação interrompida");
+                        }
+                        super.write(b);
+                    }
+                };
+            }
+
+            @Override
+            public InputStream descomprimir(InputStream entrada) {
+                return entrada;
+            }
+        };
+        cidade.setTurnoAtual(9);
+        assertThrows(IOException.class, () -> PersistenceController.salvarCidade(cidade, "CidadeAtomicaTeste", falha));
+
+        assertEquals(4, PersistenceController.carregarCidade("CidadeAtomicaTeste").getTurnoAtual());
+        assertTrue(diario.exists());
+        File[] temporarios = new File("saves").listFiles((dir, nome) -> nome.startsWith("CidadeAtomicaTeste") && nome.endsWith(".tmp"));
+        assertEquals(0, temporarios.length);
+
+        PersistenceController.deletarCidade("CidadeAtomicaTeste");
+    }
+}
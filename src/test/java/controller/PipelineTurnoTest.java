@@ -0,0 +1,92 @@
+package controller;
+
+import model.City;
+import model.Turno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testes de unidade para a classe PipelineTurno.
+ */
+class PipelineTurnoTest {
+
+    private PipelineTurno pipeline;
+    private List<String> execucoes;
+    private City cidade;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new PipelineTurno();
+        execucoes = new ArrayList<>();
+        cidade = new City("Pipeline");
+        pipeline.adicionar("a", (c, t) -> execucoes.add("a"));
+        pipeline.adicionar("b", (c, t) -> execucoes.add("b"));
+        pipeline.adicionar("c", (c, t) -> execucoes.add("c"));
+    }
+
+    @Test
+    void testExecutaEmOrdem() {
+        pipeline.executar(cidade, new Turno(1));
+
+        assertEquals(List.of("a", "b", "c"), execucoes);
+        assertEquals(List.of("a", "b", "c"), pipeline.getNomesEtapas());
+    }
+
+    @Test
+    void testReordenarDesativarESubstituir() {
+        pipeline.mover("c", 0);
+        pipeline.setAtiva("a", false);
+        pipeline.substituir("b", (c, t) -> execucoes.add("b2"));
+        pipeline.adicionarDepois("c", "d", (c, t) -> execucoes.add("d"));
+
+        pipeline.executar(cidade, new Turno(1));
+
+        assertEquals(List.of("c", "d", "b2"), execucoes);
+        assertFalse(pipeline.isAtiva("a"));
+        assertEquals(0, pipeline.getEstatistica("a").getExecucoes());
+    }
+
+    @Test
+    void testNomeDuplicadoOuInexistente() {
+        assertThrows(IllegalArgumentException.class, () -> pipeline.adicionar("a", (c, t) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.substituir("x", (c, t) -> { }));
+        assertFalse(pipeline.remover("x"));
+        assertTrue(pipeline.remover("a"));
+        assertNull(pipeline.getEstatistica("a"));
+    }
+
+    @Test
+    void testEstatisticasPorEtapa() {
+        pipeline.adicionar("aloca", (c, t) -> execucoes.add(new String(new char[1000])));
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.executar(cidade, new Turno(i));
+        }
+
+        PipelineTurno.EstatisticaEtapa estatistica = pipeline.getEstatistica("aloca");
+        assertEquals(3, estatistica.getExecucoes());
+        assertTrue(estatistica.getNanosTotal() > 0);
+        assertTrue(estatistica.getBytesAlocados() == -1 || estatistica.getBytesAlocados() >= 3000);
+
+        pipeline.zerarEstatisticas();
+        assertEquals(0, estatistica.getExecucoes());
+    }
+
+    @Test
+    void testEtapasPadraoDoJogoController() {
+        JogoController controller = new JogoController(cidade, 1L);
+        assertEquals(List.of(JogoController.ETAPA_EFEITOS_PREDIOS, JogoController.ETAPA_CONSUMO_DIARIO,
+                JogoController.ETAPA_EVENTOS, JogoController.ETAPA_FELICIDADE_MEDIA,
+                JogoController.ETAPA_BONUS_SEGURANCA), controller.getPipeline().getNomesEtapas());
+
+        controller.getPipeline().setAtiva(JogoController.ETAPA_EVENTOS, false);
+        controller.proximoTurno();
+
+        assertEquals(1, controller.getPipeline().getEstatistica(JogoController.ETAPA_CONSUMO_DIARIO).getExecucoes());
+        assertTrue(controller.getUltimoTurno().getEventosOcorridos().isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package controller;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Testes de unidade para a classe ProcessadorEfeitosParalelo.
+ */
+class ProcessadorEfeitosParaleloTest {
+
+    /**
+     * Monta uma cidade grande e determinística, com taxas fracionárias para que
+     * qualquer mudança na ordem das somas apareça no saldo final.
+     */
+    private City criarCidade() {
+        City cidade = new City("Paralela");
+        for (int i = 0; i < 300; i++) {
+            if (i % 3 == 2) {
+                predioResidencial residencial = new predioResidencial(i, i);
+                for (int j = 0; j < 5; j++) {
+                    Seguranca robo = new Seguranca(0, 0);
+                    robo.setEnergia((i * 7 + j * 13) % 100);
+                    robo.setFelicidade((i * 11 + j * 3) % 100);
+                    cidade.addRobo(robo);
+                    residencial.addRobo(robo);
+                }
+                cidade.addPredio(residencial);
+            } else {
+                predioComercial comercial = new predioComercial(i, i);
+                comercial.setTaxaDinheiro(0.1 + i * 0.013);
+                for (int j = 0; j < 5; j++) {
+                    Robo robo = j == 0 ? new Engenheiro(0, 0) : new Trabalhador(0, 0);
+                    robo.setEnergia(35 + (i * 7 + j * 13) % 66);
+                    robo.setIntegridade(35 + (i * 5 + j) % 66);
+                    cidade.addRobo(robo);
+                    comercial.addRobo(robo);
+                }
+                cidade.addPredio(comercial);
+            }
+        }
+        return cidade;
+    }
+
+    @Test
+    void testResultadoIdenticoAoSerial() {
+        City serial = criarCidade();
+        City paralela = criarCidade();
+        ProcessadorEfeitosParalelo processador = new ProcessadorEfeitosParalelo(new ForkJoinPool(4));
+
+        for (int turno = 0; turno < 5; turno++) {
+            for (Predio predio : serial.getPredios()) {
+                predio.efeito(serial);
+            }
+            processador.aplicarEfeitos(paralela);
+        }
+
+        assertEquals(serial.getDinheiro(), paralela.getDinheiro());
+        assertEquals(serial.getPecas(), paralela.getPecas());
+        assertEquals(serial.getRobos().size(), paralela.getRobos().size());
+        for (int i = 0; i < serial.getRobos().size(); i++) {
+            Robo esperado = serial.getRobos().get(i);
+            Robo obtido = paralela.getRobos().get(i);
+            assertEquals(esperado.getEnergia(), obtido.getEnergia());
+            assertEquals(esperado.getFelicidade(), obtido.getFelicidade());
+            assertEquals(esperado.getIntegridade(), obtido.getIntegridade());
+        }
+    }
+
+    @Test
+    void testCentroContinuaTreinandoNoModoParalelo() {
+        City cidade = new City("Treino");
+        RoboController roboController = new RoboController();
+        roboController.treinarRobo(cidade, TipoDeRobo.TRABALHADOR);
+        ProcessadorEfeitosParalelo processador = new ProcessadorEfeitosParalelo();
+
+        processador.aplicarEfeitos(cidade);
+        processador.aplicarEfeitos(cidade);
+
+        assertEquals(1, cidade.getRobos().size());
+    }
+
+    @Test
+    void testModoParaleloNoJogoController() {
+        City cidade = new City("Jogo");
+        JogoController controller = new JogoController(cidade);
+        assertFalse(controller.isModoParalelo());
+
+        controller.setModoParalelo(true);
+        controller.proximoTurno();
+
+        assertTrue(controller.isModoParalelo());
+        assertEquals(1, cidade.getTurnoAtual());
+    }
+}
@@ -48,6 +48,37 @@ class RoboControllerTest {
         assertEquals(0, centro.getFilaDeTreinamento().size());
     }
 
+    @Test
+    void testTreinarRobosEmLote() {
+        cidade.setDinheiro(1000.0);
+        cidade.setPecas(1000);
+        
+        assertTrue(controller.treinarRobos(cidade, TipoDeRobo.ENGENHEIRO, 4));
+        assertEquals(200.0, cidade.getDinheiro()); // 1000 - 4 * 200
+        assertEquals(800, cidade.getPecas()); // 1000 - 4 * 50
+        
+        Centro centro = encontrarCentro(cidade);
+        assertEquals(4, centro.contarEmTreinamento());
+        assertEquals(4, centro.getFilaDeTreinamento().size());
+        
+        // Lote maior do que os recursos: nada é debitado nem enfileirado
+        assertFalse(controller.treinarRobos(cidade, TipoDeRobo.ENGENHEIRO, 2));
+        assertEquals(200.0, cidade.getDinheiro());
+        assertEquals(800, cidade.getPecas());
+        assertEquals(4, centro.contarEmTreinamento());
+        
+        assertFalse(controller.treinarRobos(cidade, TipoDeRobo.ENGENHEIRO, 0));
+    }
+
+    @Test
+    void testTreinarRoboSemPecasNaoGastaDinheiro() {
+        cidade.setDinheiro(1000.0);
+        cidade.setPecas(10); // Insuficiente
+        
+        assertFalse(controller.treinarRobo(cidade, TipoDeRobo.TRABALHADOR));
+        assertEquals(1000.0, cidade.getDinheiro());
+    }
+
     @Test
     void testFazerManutencao() {
         Trabalhador robo = new Trabalhador(0, 0);
@@ -163,6 +194,29 @@ class RoboControllerTest {
         assertEquals(1, engenheiros.size());
     }
 
+    @Test
+    void testContarRobosPorTipo() {
+        Trabalhador robo1 = new Trabalhador(0, 0);
+        Trabalhador robo2 = new Trabalhador(1, 1);
+        Engenheiro engenheiro = new Engenheiro(2, 2);
+
+        cidade.addRobo(robo1);
+        cidade.addRobo(robo2);
+        cidade.addRobo(engenheiro);
+
+        assertEquals(2, controller.contarRobosPorTipo(cidade, TipoDeRobo.TRABALHADOR));
+        assertEquals(1, controller.contarRobosPorTipo(cidade, TipoDeRobo.ENGENHEIRO));
+        assertEquals(0, controller.contarRobosPorTipo(cidade, TipoDeRobo.SEGURANCA));
+
+        controller.deletarRobo(robo1, cidade);
+        engenheiro.setTipo(TipoDeRobo.SEGURANCA);
+
+        assertEquals(1, controller.contarRobosPorTipo(cidade, TipoDeRobo.TRABALHADOR));
+        assertEquals(0, controller.contarRobosPorTipo(cidade, TipoDeRobo.ENGENHEIRO));
+        assertEquals(1, controller.contarRobosPorTipo(cidade, TipoDeRobo.SEGURANCA));
+        assertEquals(0, controller.contarRobosPorTipo(null, TipoDeRobo.SEGURANCA));
+    }
+
     @Test
     void testCalcularBonusFelicidadeSeguranca() {
         Seguranca seg1 = new Seguranca(0, 0);
@@ -2,6 +2,8 @@ package model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -97,5 +99,35 @@ class CentroTest {
         assertEquals(1, centro.getFilaDeTreinamento().size()); // Engenheiro ainda em treinamento
         assertEquals(1, cidade.getRobos().size()); // Apenas trabalhador foi criado
     }
-}
 
+    @Test
+    void testFilaMantemOrdemDeChegadaETempoRestante() {
+        centro.iniciarTreinamento(TipoDeRobo.ENGENHEIRO);
+        centro.iniciarTreinamento(TipoDeRobo.TRABALHADOR);
+        centro.iniciarTreinamento(TipoDeRobo.SEGURANCA);
+        centro.efeito(cidade);
+
+        List<RoboEmTreinamento> fila = centro.getFilaDeTreinamento();
+        assertEquals(TipoDeRobo.ENGENHEIRO, fila.get(0).getTipo());
+        assertEquals(3, fila.get(0).getTempoRestante());
+        assertEquals(TipoDeRobo.TRABALHADOR, fila.get(1).getTipo());
+        assertEquals(1, fila.get(1).getTempoRestante());
+        assertEquals(2, fila.get(2).getTempoRestante());
+        assertEquals(3, centro.contarEmTreinamento());
+    }
+
+    @Test
+    void testSetFilaDeTreinamentoRetomaTemposSalvos() {
+        centro.setFilaDeTreinamento(List.of(
+                new RoboEmTreinamento(TipoDeRobo.SEGURANCA, 2),
+                new RoboEmTreinamento(TipoDeRobo.TRABALHADOR, 1)));
+
+        centro.efeito(cidade);
+        assertEquals(1, cidade.getRobos().size());
+        assertEquals(TipoDeRobo.TRABALHADOR, cidade.getRobos().get(0).getTipo());
+
+        centro.efeito(cidade);
+        assertEquals(2, cidade.getRobos().size());
+        assertEquals(0, centro.contarEmTreinamento());
+    }
+}
@@ -2,6 +2,10 @@ package model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -128,5 +132,158 @@ class CityTest {
         }
         assertEquals(6, decorativos); // 6 prédios decorativos pré-colocados
     }
-}
 
+    @Test
+    void testIndiceOcupacaoAcompanhaPredio() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        cidade.addRobo(robo);
+        predioComercial comercial = new predioComercial(10, 10);
+        cidade.addPredio(comercial);
+        
+        assertNull(cidade.getPredioDoRobo(robo));
+        
+        comercial.addRobo(robo);
+        assertEquals(comercial, cidade.getPredioDoRobo(robo));
+        
+        comercial.removeRobo(robo);
+        assertNull(cidade.getPredioDoRobo(robo));
+    }
+
+    @Test
+    void testIndiceOcupacaoIndexaRobosJaAlocados() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        predioResidencial residencial = new predioResidencial(10, 10);
+        residencial.addRobo(robo);
+        
+        cidade.addRobo(robo);
+        cidade.addPredio(residencial);
+        
+        assertEquals(residencial, cidade.getPredioDoRobo(robo));
+    }
+
+    @Test
+    void testMapaOcupacaoMarcaPredios() {
+        // Monumento pré-colocado em (5, 5) com 3x3
+        assertTrue(cidade.areaOcupada(5, 5, 1, 1));
+        assertTrue(cidade.areaOcupada(3, 3, 3, 3)); // Sobreposição apenas no canto (5, 5)
+        assertFalse(cidade.areaOcupada(8, 5, 2, 2));
+
+        cidade.addPredio(new predioComercial(10, 10));
+        assertTrue(cidade.areaOcupada(11, 11, 2, 2));
+        assertFalse(cidade.areaOcupada(12, 12, 2, 2));
+
+        // O Centro não bloqueia construção
+        assertFalse(cidade.areaOcupada(15, 15, 1, 1));
+    }
+
+    @Test
+    void testMapaGrandeConfiguravel() {
+        City grande = new City("Grande", 2000, 1500);
+
+        assertEquals(2000, grande.getLarguraMapa());
+        assertEquals(1500, grande.getAlturaMapa());
+        assertTrue(grande.dentroDoMapa(1998, 1498, 2, 2));
+        assertFalse(grande.dentroDoMapa(1999, 1498, 2, 2));
+
+        grande.addPredio(new predioComercial(1900, 1400));
+        assertTrue(grande.areaOcupada(1901, 1401, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new City("Pequena", 10, 10));
+    }
+
+    @Test
+    void testSnapshotIndependenteDaCidade() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        robo.setFelicidade(40.0);
+        cidade.addRobo(robo);
+        predioComercial comercial = new predioComercial(10, 10);
+        cidade.addPredio(comercial);
+        comercial.addRobo(robo);
+
+        City snapshot = cidade.criarSnapshot();
+
+        // Alterações posteriores na cidade não aparecem no snapshot
+        robo.setFelicidade(90.0);
+        cidade.addDinheiro(1000.0);
+        cidade.addRobo(new Engenheiro(1, 1));
+        comercial.removeRobo(robo);
+
+        assertEquals(15000.0, snapshot.getDinheiro());
+        assertEquals(1, snapshot.getRobos().size());
+        Robo copia = snapshot.getRobos().get(0);
+        assertNotSame(robo, copia);
+        assertEquals(robo.getId(), copia.getId());
+        assertEquals(40.0, copia.getFelicidade());
+        assertEquals(1, snapshot.contarRobosInfelizes());
+
+        // O prédio copiado aponta para a cópia do robô e o índice de ocupação foi refeito
+        Predio predioCopia = snapshot.getPredioDoRobo(copia);
+        assertNotNull(predioCopia);
+        assertEquals(comercial.getId(), predioCopia.getId());
+        assertSame(copia, ((predioComercial) predioCopia).getRobos().get(0));
+        assertTrue(snapshot.areaOcupada(10, 10, 1, 1));
+    }
+
+    @Test
+    void testIdsDensosEBuscaPorId() {
+        Trabalhador primeiro = new Trabalhador(0, 0);
+        Engenheiro segundo = new Engenheiro(0, 0);
+        assertEquals(0, primeiro.getId()); // Fora da cidade ainda não tem id
+
+        cidade.addRobo(primeiro);
+        cidade.addRobo(segundo);
+        assertEquals(segundo.getId(), primeiro.getId() + 1);
+        assertSame(segundo, cidade.buscarRobo(segundo.getId()));
+
+        cidade.getRobos().remove(primeiro);
+        assertNull(cidade.buscarRobo(primeiro.getId()));
+
+        predioComercial comercial = new predioComercial(10, 10);
+        cidade.addPredio(comercial);
+        assertTrue(comercial.getId() > 0);
+        assertSame(comercial, cidade.buscarPredio(comercial.getId()));
+
+        // Ids nunca se repetem, mesmo depois de remoções
+        Seguranca terceiro = new Seguranca(0, 0);
+        cidade.addRobo(terceiro);
+        assertTrue(terceiro.getId() > segundo.getId());
+    }
+
+    @Test
+    void testGastosConcorrentesNaoUltrapassamSaldo() throws InterruptedException {
+        cidade.setDinheiro(1000.0);
+        cidade.setPecas(500);
+        AtomicInteger compras = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (cidade.gastarRecursos(2.0, 1)) {
+                        compras.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 500 compras esgotam dinheiro e peças ao mesmo tempo, sem nenhuma a mais
+        assertEquals(500, compras.get());
+        assertEquals(0.0, cidade.getDinheiro());
+        assertEquals(0, cidade.getPecas());
+    }
+
+    @Test
+    void testGastarRecursosSemPecasNaoDebitaDinheiro() {
+        cidade.setDinheiro(100.0);
+        cidade.setPecas(5);
+
+        assertFalse(cidade.gastarRecursos(50.0, 10));
+        assertEquals(100.0, cidade.getDinheiro());
+        assertEquals(5, cidade.getPecas());
+
+        assertFalse(cidade.gastarRecursos(500.0, 1));
+        assertEquals(100.0, cidade.getDinheiro());
+        assertEquals(5, cidade.getPecas());
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Testes de unidade para a classe ConjuntoOcupantes.
+ */
+class ConjuntoOcupantesTest {
+
+    @Test
+    void testRemoverNoMeioMantemOrdem() {
+        ConjuntoOcupantes ocupantes = new ConjuntoOcupantes();
+        List<Robo> robos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Robo robo = new Trabalhador(i, 0);
+            robos.add(robo);
+            assertTrue(ocupantes.add(robo));
+        }
+
+        assertTrue(ocupantes.remove(robos.get(3)));
+        assertTrue(ocupantes.remove(robos.get(10)));
+        assertTrue(ocupantes.remove(robos.get(19)));
+        assertFalse(ocupantes.remove(robos.get(3)));
+        assertEquals(17, ocupantes.size());
+        assertFalse(ocupantes.contains(robos.get(10)));
+
+        assertSame(robos.get(4), ocupantes.get(3));
+        assertSame(robos.get(11), ocupantes.get(9));
+        assertEquals(9, ocupantes.indexOf(robos.get(11)));
+        assertSame(robos.get(18), ocupantes.get(16));
+        assertThrows(IndexOutOfBoundsException.class, () -> ocupantes.get(17));
+
+        // Reentrar vai para o fim
+        assertTrue(ocupantes.add(robos.get(3)));
+        assertSame(robos.get(3), ocupantes.get(17));
+    }
+
+    @Test
+    void testRemoverPeloIteradorDuranteVarredura() {
+        ConjuntoOcupantes ocupantes = new ConjuntoOcupantes();
+        for (int i = 0; i < 10; i++) {
+            ocupantes.add(new Trabalhador(i, 0));
+        }
+
+        Iterator<Robo> iterador = ocupantes.iterator();
+        while (iterador.hasNext()) {
+            if (iterador.next().getPosX() % 2 == 0) {
+                iterador.remove();
+            }
+        }
+
+        assertEquals(5, ocupantes.size());
+        for (int i = 0; i < ocupantes.size(); i++) {
+            assertEquals(2 * i + 1, ocupantes.get(i).getPosX());
+        }
+    }
+
+    @Test
+    void testOperacoesAleatoriasConferemComLista() {
+        ConjuntoOcupantes ocupantes = new ConjuntoOcupantes();
+        List<Robo> referencia = new ArrayList<>();
+        Robo[] robos = new Robo[40];
+        for (int i = 0; i < robos.length; i++) {
+            robos[i] = new Trabalhador(i, 0);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            Robo robo = robos[aleatorio.nextInt(robos.length)];
+            if (aleatorio.nextBoolean()) {
+                boolean esperado = !referencia.contains(robo);
+                if (esperado) {
+                    referencia.add(robo);
+                }
+                assertEquals(esperado, ocupantes.add(robo));
+            } else {
+                assertEquals(referencia.remove(robo), ocupantes.remove(robo));
+            }
+            if (aleatorio.nextInt(10) == 0) {
+                assertEquals(referencia, ocupantes);
+            }
+        }
+        assertEquals(referencia, ocupantes);
+    }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de unidade para a classe GradeOcupacao.
+ */
+class GradeOcupacaoTest {
+
+    @Test
+    void testGradeVaziaNaoAlocaBlocos() {
+        GradeOcupacao grade = new GradeOcupacao(2000, 2000);
+
+        assertFalse(grade.areaOcupada(0, 0, 2000, 2000));
+        assertEquals(0, grade.getBlocosAlocados());
+    }
+
+    @Test
+    void testAreaCruzandoBlocos() {
+        GradeOcupacao grade = new GradeOcupacao(200, 200);
+        grade.ocupar(62, 63, 4, 2); // Cruza a fronteira de blocos nos dois eixos
+
+        assertEquals(4, grade.getBlocosAlocados());
+        assertTrue(grade.celulaOcupada(62, 63));
+        assertTrue(grade.celulaOcupada(65, 64));
+        assertFalse(grade.celulaOcupada(66, 64));
+        assertFalse(grade.celulaOcupada(61, 63));
+        assertTrue(grade.areaOcupada(60, 60, 3, 4));
+        assertFalse(grade.areaOcupada(60, 60, 2, 10));
+    }
+
+    @Test
+    void testAreaForaDoMapaEhIgnorada() {
+        GradeOcupacao grade = new GradeOcupacao(30, 30);
+        grade.ocupar(28, 28, 5, 5);
+
+        assertTrue(grade.celulaOcupada(29, 29));
+        assertFalse(grade.celulaOcupada(30, 30));
+        assertFalse(grade.areaOcupada(-5, -5, 3, 3));
+
+        grade.limpar();
+        assertFalse(grade.celulaOcupada(29, 29));
+        assertEquals(0, grade.getBlocosAlocados());
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Testes de unidade para a classe MapaIds.
+ */
+class MapaIdsTest {
+
+    @Test
+    void testPutGetRemover() {
+        MapaIds<String> mapa = new MapaIds<>();
+        mapa.put(1, "um");
+        mapa.put(2, "dois");
+        mapa.put(1, "outro um");
+
+        assertEquals(2, mapa.tamanho());
+        assertEquals("outro um", mapa.get(1));
+        assertTrue(mapa.remover(1));
+        assertFalse(mapa.remover(1));
+        assertNull(mapa.get(1));
+        assertEquals("dois", mapa.get(2));
+        assertNull(mapa.get(0));
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(0, "zero"));
+    }
+
+    @Test
+    void testOperacoesAleatoriasConferemComHashMap() {
+        MapaIds<Long> mapa = new MapaIds<>();
+        Map<Long, Long> referencia = new HashMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + aleatorio.nextInt(2_000);
+            if (aleatorio.nextInt(3) == 0) {
+                assertEquals(referencia.remove(id) != null, mapa.remover(id));
+            } else {
+                referencia.put(id, id * 7);
+                mapa.put(id, id * 7);
+            }
+        }
+
+        assertEquals(referencia.size(), mapa.tamanho());
+        for (long id = 1; id <= 2_000; id++) {
+            assertEquals(referencia.get(id), mapa.get(id));
+        }
+    }
+}
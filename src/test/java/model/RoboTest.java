@@ -176,5 +176,18 @@ class RoboTest {
         
         assertEquals(felicidadeInicial - 10.0, trabalhador.getFelicidade());
     }
-}
 
+    @Test
+    void testIgualdadePorId() {
+        Trabalhador outro = new Trabalhador(0, 0);
+        // Sem id, cada robô só é igual a si mesmo
+        assertNotEquals(trabalhador, outro);
+
+        City cidade = new City("Teste");
+        cidade.addRobo(trabalhador);
+        Robo copia = cidade.criarSnapshot().getRobos().get(0);
+        assertNotSame(trabalhador, copia);
+        assertEquals(trabalhador, copia);
+        assertEquals(trabalhador.hashCode(), copia.hashCode());
+    }
+}
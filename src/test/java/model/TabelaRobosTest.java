@@ -0,0 +1,242 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Testes de unidade para a classe TabelaRobos.
+ */
+class TabelaRobosTest {
+
+    private TabelaRobos tabela;
+
+    @BeforeEach
+    void setUp() {
+        tabela = new TabelaRobos();
+    }
+
+    @Test
+    void testAdicionarCopiaAtributos() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        robo.setEnergia(70.0);
+        robo.setFelicidade(55.0);
+        robo.iniciarManutencao();
+
+        tabela.add(robo);
+
+        assertEquals(1, tabela.size());
+        assertEquals(70.0, tabela.getEnergia(0));
+        assertEquals(55.0, tabela.getFelicidade(0));
+        assertTrue(tabela.isEmManutencao(0));
+        assertEquals(2, tabela.getTurnosRestantesManutencao(0));
+    }
+
+    @Test
+    void testRoboEhVisaoSobreATabela() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        tabela.add(robo);
+
+        tabela.setFelicidade(0, 42.0);
+        assertEquals(42.0, robo.getFelicidade());
+
+        robo.setEnergia(12.0);
+        assertEquals(12.0, tabela.getEnergia(0));
+    }
+
+    @Test
+    void testRemoverPreservaOrdemEAtributos() {
+        Trabalhador robo1 = new Trabalhador(0, 0);
+        Engenheiro robo2 = new Engenheiro(1, 1);
+        Seguranca robo3 = new Seguranca(2, 2);
+        tabela.add(robo1);
+        tabela.add(robo2);
+        tabela.add(robo3);
+        robo3.setFelicidade(30.0);
+
+        assertTrue(tabela.remove(robo1));
+
+        assertEquals(2, tabela.size());
+        assertSame(robo2, tabela.get(0));
+        assertSame(robo3, tabela.get(1));
+        assertEquals(30.0, tabela.getFelicidade(1));
+
+        // O robô removido continua utilizável fora da tabela
+        robo1.setFelicidade(10.0);
+        assertEquals(10.0, robo1.getFelicidade());
+        assertFalse(tabela.contains(robo1));
+    }
+
+    @Test
+    void testCopiaComMesmoIdNaoEstaNaTabela() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        tabela.add(robo);
+        TabelaRobos outra = new TabelaRobos();
+        Trabalhador deOutraCidade = new Trabalhador(0, 0);
+        outra.add(deOutraCidade);
+        Robo copia = tabela.copiar(new IdentityHashMap<>()).get(0);
+
+        // Mesmo id, mas não é o robô desta tabela
+        assertEquals(robo.getId(), deOutraCidade.getId());
+        assertEquals(robo, copia);
+        assertFalse(tabela.contains(deOutraCidade));
+        assertEquals(-1, tabela.indexOf(copia));
+        assertFalse(tabela.remove(copia));
+        assertFalse(tabela.remove(deOutraCidade));
+        assertEquals(1, tabela.size());
+        assertSame(robo, tabela.get(0));
+        assertTrue(outra.contains(deOutraCidade));
+    }
+
+    @Test
+    void testRoboForaDaCidadeNaoCriaTabela() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        robo.setEnergia(70.0);
+        robo.setTurnosRestantesManutencao(1);
+        assertNull(robo.tabela());
+
+        // Os atributos vão direto para as colunas da cidade
+        tabela.add(robo);
+        assertSame(tabela, robo.tabela());
+        assertEquals(70.0, tabela.getEnergia(0));
+        assertEquals(1, tabela.getTurnosRestantesManutencao(0));
+
+        // Ao sair, o robô volta a guardar os atributos nos próprios campos
+        tabela.setFelicidade(0, 35.0);
+        tabela.remove(0);
+        assertNull(robo.tabela());
+        assertEquals(35.0, robo.getFelicidade());
+        assertEquals(70.0, robo.getEnergia());
+
+        // Só uma ação fora da cidade cria a tabela avulsa
+        robo.dormir();
+        assertNotNull(robo.tabela());
+        assertEquals(55.0, robo.getFelicidade());
+        assertEquals(100.0, robo.getEnergia());
+        tabela.add(robo);
+        assertEquals(55.0, tabela.getFelicidade(0));
+    }
+
+    @Test
+    void testListaDeAlteradosSemRepeticao() {
+        for (int i = 0; i < 5; i++) {
+            tabela.add(new Trabalhador(i, 0));
+        }
+        assertEquals(0, tabela.contarAlterados());
+
+        tabela.setEnergia(3, 50.0);
+        tabela.setFelicidade(3, 40.0);
+        tabela.get(1).setPosX(9);
+        tabela.setIntegridade(4, 100.0); // Valor igual: não marca
+
+        assertEquals(2, tabela.contarAlterados());
+        assertEquals(3, tabela.slotAlterado(0));
+        assertEquals(1, tabela.slotAlterado(1));
+        assertTrue(tabela.isAlterado(3));
+        assertFalse(tabela.isAlterado(4));
+
+        tabela.limparAlterados();
+        assertEquals(0, tabela.contarAlterados());
+        assertFalse(tabela.isAlterado(3));
+        assertFalse(tabela.isAlterado(1));
+
+        // Remover desloca os slots: a lista é descartada e limpar volta a varrer as marcas
+        tabela.setEnergia(4, 10.0);
+        long versao = tabela.versaoSlots();
+        tabela.remove(0);
+        assertNotEquals(versao, tabela.versaoSlots());
+        assertEquals(0, tabela.contarAlterados());
+        assertTrue(tabela.isAlterado(3));
+        tabela.limparAlterados();
+        assertFalse(tabela.isAlterado(3));
+        tabela.setEnergia(2, 20.0);
+        assertEquals(1, tabela.contarAlterados());
+        assertEquals(2, tabela.slotAlterado(0));
+    }
+
+    @Test
+    void testRoboNaoPodeEstarEmDuasCidades() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        tabela.add(robo);
+
+        TabelaRobos outra = new TabelaRobos();
+        assertThrows(IllegalArgumentException.class, () -> outra.add(robo));
+        assertThrows(IllegalArgumentException.class, () -> tabela.add(robo));
+    }
+
+    @Test
+    void testCrescimentoAlemDaCapacidadeInicial() {
+        for (int i = 0; i < 100; i++) {
+            Trabalhador robo = new Trabalhador(i, i);
+            robo.setFelicidade(i);
+            tabela.add(robo);
+        }
+
+        assertEquals(100, tabela.size());
+        assertEquals(99.0, tabela.get(99).getFelicidade());
+        assertEquals(4950.0, tabela.somaFelicidade()); // 0 + 1 + ... + 99
+        assertEquals(50, tabela.contarFelicidadeAbaixo(50));
+    }
+
+    @Test
+    void testConsumoDiarioPorSlot() {
+        Trabalhador robo = new Trabalhador(0, 0);
+        tabela.add(robo);
+
+        tabela.consumoDiario(0);
+
+        assertEquals(90.0, robo.getEnergia());
+        assertEquals(95.0, robo.getIntegridade());
+        assertEquals(1, robo.getTurnosDesdeAManutencao());
+    }
+
+    @Test
+    void testAgregadosAcompanhamEscritas() {
+        Trabalhador robo1 = new Trabalhador(0, 0);
+        Trabalhador robo2 = new Trabalhador(1, 1);
+        tabela.add(robo1);
+        tabela.add(robo2);
+        assertEquals(200.0, tabela.somaFelicidade());
+        assertEquals(0, tabela.contarInfelizes());
+
+        robo1.setFelicidade(30.0);
+        tabela.greve(1); // 100 -> 70
+        assertEquals(100.0, tabela.somaFelicidade());
+        assertEquals(1, tabela.contarInfelizes());
+
+        tabela.remove(robo1);
+        assertEquals(70.0, tabela.somaFelicidade());
+        assertEquals(0, tabela.contarInfelizes());
+
+        // Alterar um robô removido não afeta os agregados da tabela
+        robo1.setFelicidade(0.0);
+        assertEquals(70.0, tabela.somaFelicidade());
+
+        tabela.clear();
+        assertEquals(0.0, tabela.somaFelicidade());
+        assertEquals(0, tabela.contarInfelizes());
+    }
+
+    @Test
+    void testAgregadosIguaisAVarredura() {
+        for (int i = 0; i < 50; i++) {
+            Trabalhador robo = new Trabalhador(i, i);
+            robo.setFelicidade((i * 37) % 101 + 0.25);
+            tabela.add(robo);
+        }
+        for (int i = 0; i < 50; i++) {
+            tabela.apagao(i);
+            tabela.descobertaPecasRaras(i);
+        }
+        int infelizes = tabela.contarInfelizes();
+        double soma = tabela.somaFelicidade();
+
+        tabela.recalcularAgregados();
+
+        assertEquals(tabela.contarFelicidadeAbaixo(TabelaRobos.LIMITE_INFELIZ), infelizes);
+        assertEquals(tabela.contarInfelizes(), infelizes);
+        assertEquals(tabela.somaFelicidade(), soma);
+    }
+}
@@ -168,5 +168,41 @@ class predioComercialTest {
         // Robô em manutenção não trabalha
         assertEquals(dinheiroInicial, cidade.getDinheiro());
     }
-}
 
+    @Test
+    void testOcupantesNaoRepetemMesmoRobo() {
+        Trabalhador trabalhador = new Trabalhador(0, 0);
+        Engenheiro engenheiro = new Engenheiro(0, 0);
+        cidade.addRobo(trabalhador);
+        cidade.addRobo(engenheiro);
+        cidade.addPredio(predio);
+
+        assertTrue(predio.addRobo(trabalhador));
+        assertTrue(predio.addRobo(engenheiro));
+        assertFalse(predio.addRobo(trabalhador));
+        // A cópia de outra cidade tem o mesmo id, mas não é o ocupante
+        Robo copia = cidade.criarSnapshot().buscarRobo(trabalhador.getId());
+        predio.removeRobo(copia);
+        assertEquals(2, predio.getRobos().size());
+        assertSame(predio, cidade.getPredioDoRobo(trabalhador));
+
+        predio.removeRobo(trabalhador);
+        assertEquals(1, predio.getRobos().size());
+        assertSame(engenheiro, predio.getRobos().get(0));
+        assertNull(cidade.getPredioDoRobo(trabalhador));
+    }
+
+    @Test
+    void testRemoverOcupanteQueEntrouAntesDaCidade() {
+        cidade.addPredio(predio);
+        Trabalhador trabalhador = new Trabalhador(0, 0);
+        assertTrue(predio.addRobo(trabalhador));
+        // O robô ganha o id ao entrar na cidade, depois de já estar no prédio
+        cidade.addRobo(trabalhador);
+        assertTrue(predio.getRobos().contains(trabalhador));
+
+        predio.removeRobo(trabalhador);
+        assertTrue(predio.getRobos().isEmpty());
+        assertNull(cidade.getPredioDoRobo(trabalhador));
+    }
+}